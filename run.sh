@@ -0,0 +1,9 @@
+#!/bin/sh
+# Starts the robotic arm, the arguments are passed to the application, e.g. ./run.sh simulation 60
+#
+# The servo lane of the armController runs at a higher thread priority than the display lane.
+# Linux ignores Java thread priorities unless the JVM runs with -XX:ThreadPriorityPolicy=1
+# and the process may raise its priority: run as root or grant CAP_SYS_NICE
+# (e.g. AmbientCapabilities=CAP_SYS_NICE in the systemd service). Without the privilege
+# the JVM starts with a warning and the priorities stay ignored.
+exec java -XX:ThreadPriorityPolicy=1 $JAVA_OPTS -jar "$(dirname "$0")/build/libs/robo4j-robotic-hand.jar" "$@"
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.benchmark;
+
+import com.wengnermiro.robotic.hand.codec.ArmHttpCommand;
+import com.wengnermiro.robotic.hand.codec.ArmHttpMessage;
+import com.wengnermiro.robotic.hand.unit.ArmController;
+import com.wengnermiro.robotic.hand.unit.ArmHttpCommandSequence;
+import com.wengnermiro.robotic.hand.unit.ArmHttpDispatchTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ArmHttpCommandSequenceBenchmark measures translation of {@link ArmHttpCommand}s to pad messages by the dispatch table
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArmHttpCommandSequenceBenchmark {
+
+    private final ArmHttpDispatchTable table = new ArmHttpDispatchTable(ArmController.createAxes());
+    private final ArmHttpMessage joystickMessage = new ArmHttpMessage(
+            Collections.singletonList(new ArmHttpCommand("platformX", (short) 200)));
+    private final ArmHttpMessage buttonMessage = new ArmHttpMessage(
+            Collections.singletonList(new ArmHttpCommand("headRotation", (short) -300)));
+    private final ArmHttpMessage sequenceMessage = new ArmHttpMessage(Arrays.asList(
+            new ArmHttpCommand("platformX", (short) 200), new ArmHttpCommand("armYX", (short) -150),
+            new ArmHttpCommand("armY", (short) 300), new ArmHttpCommand("headX", (short) 120),
+            new ArmHttpCommand("headY", (short) -80), new ArmHttpCommand("headRotation", (short) 500),
+            new ArmHttpCommand("gripper", (short) -250)));
+
+    @Benchmark
+    public void dispatchJoystick(Blackhole blackhole) {
+        consume(ArmHttpCommandSequence.compile(joystickMessage, table, 0L), blackhole);
+    }
+
+    @Benchmark
+    public void dispatchButton(Blackhole blackhole) {
+        consume(ArmHttpCommandSequence.compile(buttonMessage, table, 0L), blackhole);
+    }
+
+    @Benchmark
+    public void dispatchSequence(Blackhole blackhole) {
+        consume(ArmHttpCommandSequence.compile(sequenceMessage, table, 0L), blackhole);
+    }
+
+    private static void consume(ArmHttpCommandSequence sequence, Blackhole blackhole) {
+        for (int i = 0; i < sequence.size(); i++) {
+            blackhole.consume(sequence.getStart(i));
+            blackhole.consume(sequence.getStop(i));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.benchmark;
+
+import com.wengnermiro.robotic.hand.codec.ArmHttpMessage;
+import com.wengnermiro.robotic.hand.codec.ArmHttpMessageCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ArmHttpMessageCodecBenchmark measures decoding of the {@link ArmHttpMessage}
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArmHttpMessageCodecBenchmark {
+
+    private static final String JSON_SINGLE = "{\"commands\":[{\"target\":\"platformX\",\"amount\":200}]}";
+    private static final String JSON_SEQUENCE = "{\"commands\":[{\"target\":\"platformX\",\"amount\":200}," +
+            "{\"target\":\"armYX\",\"amount\":-150},{\"target\":\"armY\",\"amount\":300}," +
+            "{\"target\":\"headX\",\"amount\":120},{\"target\":\"headY\",\"amount\":-80}," +
+            "{\"target\":\"headRotation\",\"amount\":500}]}";
+
+    private final ArmHttpMessageCodec codec = new ArmHttpMessageCodec();
+
+    @Benchmark
+    public ArmHttpMessage decodeSingle() {
+        return codec.decode(JSON_SINGLE);
+    }
+
+    @Benchmark
+    public ArmHttpMessage decodeSequence() {
+        return codec.decode(JSON_SEQUENCE);
+    }
+}
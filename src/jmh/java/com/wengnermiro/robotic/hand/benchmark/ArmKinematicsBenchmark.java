@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.benchmark;
+
+import com.wengnermiro.robotic.hand.kinematics.ArmGeometry;
+import com.wengnermiro.robotic.hand.kinematics.ArmKinematics;
+import com.wengnermiro.robotic.hand.kinematics.CollisionEnvelope;
+import com.wengnermiro.robotic.hand.kinematics.WorkspaceTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ArmKinematicsBenchmark measures the forward kinematics and the inverse kinematics solve,
+ * cold (zero seed) and seeded by the {@link WorkspaceTable}, and the per tick {@link CollisionEnvelope} check
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArmKinematicsBenchmark {
+
+    private static final int MAX_ITERATIONS = 200;
+
+    private final ArmKinematics kinematics = new ArmKinematics(ArmGeometry.sainSmart());
+    private final float[] values = new float[ArmGeometry.JOINTS];
+    private final double[] position = new double[3];
+    private final CollisionEnvelope envelope = new CollisionEnvelope(ArmGeometry.sainSmart());
+    private WorkspaceTable workspaceTable;
+
+    @Setup
+    public void setup() throws IOException {
+        final Path path = Files.createTempFile("workspace", ".bin");
+        path.toFile().deleteOnExit();
+        workspaceTable = WorkspaceTable.open(path, ArmGeometry.sainSmart(), WorkspaceTable.DEFAULT_CELL_SIZE);
+    }
+
+    @Benchmark
+    public double[] forward() {
+        kinematics.forward(values, position);
+        return position;
+    }
+
+    @Benchmark
+    public boolean solveCold() {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 0;
+        }
+        return kinematics.solve(150, 100, 50, values, MAX_ITERATIONS);
+    }
+
+    @Benchmark
+    public boolean solveSeeded() {
+        workspaceTable.seed(150, 100, 50, values);
+        return kinematics.solve(150, 100, 50, values, MAX_ITERATIONS);
+    }
+
+    @Benchmark
+    public boolean envelopeCheck() {
+        return envelope.isBlocked(values[ArmGeometry.SHOULDER], values[ArmGeometry.ELBOW],
+                values[ArmGeometry.WRIST_PITCH], values[ArmGeometry.WRIST_YAW]);
+    }
+}
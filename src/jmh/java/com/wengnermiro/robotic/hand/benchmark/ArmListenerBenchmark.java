@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.benchmark;
+
+import com.robo4j.hw.rpi.pad.LF710Button;
+import com.robo4j.hw.rpi.pad.LF710JoystickButton;
+import com.wengnermiro.robotic.hand.listener.ArmGripperHeadServoListenerImpl;
+import com.wengnermiro.robotic.hand.listener.ArmListener;
+import com.wengnermiro.robotic.hand.listener.ArmPlatformServoListenerImpl;
+import com.wengnermiro.robotic.hand.listener.FaceSmileListenerImpl;
+import com.wengnermiro.robotic.hand.motion.MotionLimits;
+import com.wengnermiro.robotic.hand.motion.MotionProfile;
+import com.wengnermiro.robotic.hand.motion.MotionProfileType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ArmListenerBenchmark measures one tick of each {@link ArmListener} implementation
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArmListenerBenchmark {
+
+    private static final float TICK_SECONDS = 0.02f;
+
+    @Param({"NONE", "PROPORTIONAL", "TRAPEZOIDAL", "S_CURVE"})
+    private String motionProfile;
+
+    private ArmListener platformListener;
+    private ArmListener gripperListener;
+    private ArmListener faceListener;
+
+    @Setup
+    public void setup() {
+        BenchmarkContext context = new BenchmarkContext();
+        MotionProfileType type = MotionProfileType.getByName(motionProfile);
+        platformListener = new ArmPlatformServoListenerImpl("servo1", context.getContext(), LF710JoystickButton.RIGHT_X,
+                ArmPlatformServoListenerImpl.MAX_AMOUNT, 0.01f, type == MotionProfileType.PROPORTIONAL,
+                createProfile(type), TICK_SECONDS);
+        gripperListener = new ArmGripperHeadServoListenerImpl("servo7", context.getContext(), LF710Button.FRONT_UP_LEFT,
+                true, 0.01f, createProfile(type), TICK_SECONDS);
+        faceListener = new FaceSmileListenerImpl("ledMatrixController", context.getContext(), LF710Button.GREEN);
+
+        platformListener.setAmount((short) 16000);
+        platformListener.setActive(true);
+        gripperListener.setAmount((short) 1);
+        gripperListener.setActive(true);
+        faceListener.setAmount((short) 1);
+        faceListener.setActive(true);
+    }
+
+    @Benchmark
+    public float platformProcess() {
+        float value = platformListener.process();
+        if (Math.abs(value) >= 1f) {
+            platformListener.setValue(0f);
+        }
+        return value;
+    }
+
+    @Benchmark
+    public float gripperProcess() {
+        float value = gripperListener.process();
+        if (Math.abs(value) >= 1f) {
+            gripperListener.setValue(0f);
+        }
+        return value;
+    }
+
+    @Benchmark
+    public float faceProcess() {
+        return faceListener.process();
+    }
+
+    private static MotionProfile createProfile(MotionProfileType type) {
+        return type == MotionProfileType.NONE || type == MotionProfileType.PROPORTIONAL ? null
+                : new MotionProfile(type, new MotionLimits(1f, 4f, 40f));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.benchmark;
+
+import com.robo4j.hw.rpi.pad.LF710Button;
+import com.robo4j.hw.rpi.pad.LF710JoystickButton;
+import com.wengnermiro.robotic.hand.control.ArmTickEngine;
+import com.wengnermiro.robotic.hand.listener.ArmGripperHeadServoListenerImpl;
+import com.wengnermiro.robotic.hand.listener.ArmPlatformServoListenerImpl;
+import com.wengnermiro.robotic.hand.listener.FaceSmileListenerImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ArmTickEngineBenchmark measures the pad input handling and the servo lane tick of the {@link ArmTickEngine}.
+ * The control loops are not started, the engine is driven by the benchmark thread.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArmTickEngineBenchmark {
+
+    private static final short AMOUNT = 16000;
+
+    @Param({"false", "true"})
+    private boolean multiAxis;
+
+    private ArmTickEngine engine;
+    private int platformSlot;
+
+    @Setup
+    public void setup() {
+        BenchmarkContext context = new BenchmarkContext();
+        engine = new ArmTickEngine(Arrays.asList(
+                new ArmPlatformServoListenerImpl("servo1", context.getContext(), LF710JoystickButton.RIGHT_X,
+                        ArmPlatformServoListenerImpl.MAX_AMOUNT, 0.01f),
+                new ArmGripperHeadServoListenerImpl("servo7", context.getContext(), LF710Button.FRONT_UP_LEFT,
+                        true, 0.01f),
+                new FaceSmileListenerImpl("ledMatrixController", context.getContext(), LF710Button.GREEN)),
+                Arrays.asList("servo1", "servo7"));
+        platformSlot = engine.slotOf(LF710JoystickButton.RIGHT_X);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public boolean pressRelease() {
+        engine.press(platformSlot, AMOUNT, !multiAxis);
+        return engine.release(platformSlot);
+    }
+
+    @Benchmark
+    public boolean pressTickRelease() {
+        engine.press(platformSlot, AMOUNT, !multiAxis);
+        final boolean changed = engine.tick();
+        engine.release(platformSlot);
+        return changed;
+    }
+
+    @Benchmark
+    public int unknownInput() {
+        return engine.slotOf(LF710JoystickButton.RIGHT_Y);
+    }
+}
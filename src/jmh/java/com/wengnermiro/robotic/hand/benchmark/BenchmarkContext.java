@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.benchmark;
+
+import com.robo4j.RoboContext;
+import com.robo4j.RoboReference;
+import com.robo4j.scheduler.Scheduler;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * BenchmarkContext stubbed {@link RoboContext} used by benchmarks. Every reference
+ * keeps only the last received message, the scheduler does not run any task.
+ * Proxy dispatch allocates the argument array per sent message, it is the same
+ * for all measured variants.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class BenchmarkContext {
+
+    public static final String ID = "benchmarkContext";
+
+    private final Map<String, RoboReference<?>> references = new ConcurrentHashMap<>();
+    private final RoboContext context;
+    private volatile Object lastMessage;
+
+    public BenchmarkContext() {
+        this.context = proxy(RoboContext.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getReference":
+                    return args == null || args.length == 0 ? null : references.computeIfAbsent((String) args[0], this::createReference);
+                case "getScheduler":
+                    return proxy(Scheduler.class, (p, m, a) -> defaultValue(m));
+                case "getId":
+                    return ID;
+                default:
+                    return defaultValue(method);
+            }
+        });
+    }
+
+    public RoboContext getContext() {
+        return context;
+    }
+
+    public Object getLastMessage() {
+        return lastMessage;
+    }
+
+    private RoboReference<?> createReference(String id) {
+        return proxy(RoboReference.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "sendMessage":
+                    lastMessage = args[0];
+                    return null;
+                case "getId":
+                    return id;
+                default:
+                    return defaultValue(method);
+            }
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(BenchmarkContext.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == void.class || !type.isPrimitive()) {
+            return null;
+        }
+        if (type == char.class) {
+            return (char) 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
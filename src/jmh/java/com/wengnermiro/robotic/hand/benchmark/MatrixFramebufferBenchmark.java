@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.benchmark;
+
+import com.robo4j.units.rpi.led.LEDBackpackMessage;
+import com.wengnermiro.robotic.hand.display.MatrixFramebuffer;
+import com.wengnermiro.robotic.hand.unit.LedMatrixMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MatrixFramebufferBenchmark measures rendering of the repeated and changing faces by {@link MatrixFramebuffer}
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatrixFramebufferBenchmark {
+
+    private static final LedMatrixMessage[] FACES = {LedMatrixMessage.FACE_SMILE,
+            LedMatrixMessage.FACE_NEUTRAL, LedMatrixMessage.FACE_SAD};
+
+    private final MatrixFramebuffer framebuffer = new MatrixFramebuffer(8);
+    private int face;
+
+    @Benchmark
+    public LEDBackpackMessage renderSameFace() {
+        return framebuffer.render(LedMatrixMessage.FACE_SMILE.getElements());
+    }
+
+    @Benchmark
+    public LEDBackpackMessage renderChangingFace() {
+        face = (face + 1) % FACES.length;
+        return framebuffer.render(FACES[face].getElements());
+    }
+}
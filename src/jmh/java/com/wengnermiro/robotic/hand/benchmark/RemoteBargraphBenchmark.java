@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.benchmark;
+
+import com.robo4j.units.rpi.led.LEDBackpackMessage;
+import com.wengnermiro.robotic.hand.concurrent.LatestValueMailbox;
+import com.wengnermiro.robotic.hand.display.BargraphRenderer;
+import com.wengnermiro.robotic.hand.unit.RemoteBargraphController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * RemoteBargraphBenchmark measures conflation and delta rendering used by the {@link RemoteBargraphController}.
+ * The drain is called by the benchmark thread instead of the executor.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RemoteBargraphBenchmark {
+
+    private final BargraphRenderer renderer = new BargraphRenderer();
+    private final LatestValueMailbox mailbox = new LatestValueMailbox();
+    private int level;
+    private int step = 1;
+    private Blackhole blackhole;
+    private final IntConsumer renderTask = counter -> blackhole.consume(renderer.render(counter));
+
+    @Benchmark
+    public boolean offerConflated() {
+        return mailbox.offer(nextLevel());
+    }
+
+    @Benchmark
+    public void offerDrained(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        if (mailbox.offer(nextLevel())) {
+            mailbox.drain(renderTask);
+        }
+    }
+
+    @Benchmark
+    public LEDBackpackMessage renderDelta() {
+        return renderer.render(nextLevel());
+    }
+
+    private int nextLevel() {
+        level += step;
+        if (level <= 0 || level >= BargraphRenderer.SEGMENTS - 1) {
+            step = -step;
+        }
+        return level;
+    }
+}
@@ -24,12 +24,14 @@ import com.robo4j.logging.SimpleLoggingUtil;
 import com.robo4j.net.LookupService;
 import com.robo4j.net.LookupServiceProvider;
 import com.robo4j.util.SystemUtil;
+import com.wengnermiro.robotic.hand.concurrent.BlockingExecutor;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
 /**
  * RoboticArmMain
@@ -38,40 +40,68 @@ import java.nio.file.Paths;
  */
 public class RoboticArmMain {
 
+    private static final String ARG_SIMULATION = "simulation";
+    private static final String ARG_SERVO_BATCH = "servoBatch";
+    private static final String SYSTEM = "robo4jSystem.xml";
+    private static final String SIMULATION_SYSTEM = "robo4jSystemSimulation.xml";
+    private static final String SIMULATION_CONTEXT = "robo4jSimulation.xml";
+    private static final String CONTEXT = "robo4j.xml";
+    private static final String SERVO_BATCH_OVERLAY = "robo4jServoBatch.xml";
+
     public static void main(String[] args) throws Exception {
-        SimpleLoggingUtil.info(RoboticArmMain.class, "... Robotic Arm ...");
+        SimpleLoggingUtil.info(RoboticArmMain.class, "... Robotic Arm ..., virtual threads: "
+                + BlockingExecutor.isVirtualThreadsSupported());
 
         final InputStream systemIS;
         final InputStream contextIS;
+        InputStream overlayIS = null;
+        long simulationSeconds = 0;
 
-        switch (args.length) {
-            case 0:
-                systemIS = Thread.currentThread().getContextClassLoader().getResourceAsStream("robo4jSystem.xml");
-                contextIS = Thread.currentThread().getContextClassLoader().getResourceAsStream("robo4j.xml");
-                System.out.println("Default configuration used");
-                break;
-            case 1:
-                systemIS = Thread.currentThread().getContextClassLoader().getResourceAsStream("robo4jSystem.xml");
-                Path contextPath = Paths.get(args[0]);
-                contextIS = Files.newInputStream(contextPath);
-                System.out.println("Robo4j config file has been used: " + args[0]);
-                break;
-            case 2:
-                Path systemPath2 = Paths.get(args[0]);
-                Path contextPath2 = Paths.get(args[1]);
-                systemIS = Files.newInputStream(systemPath2);
-                contextIS = Files.newInputStream(contextPath2);
-                System.out.println(String.format("Custom configuration used system: %s, context: %s", args[0], args[1]));
-                break;
-            default:
-                System.out.println("Could not find the *.xml settings for the CameraClient!");
-                System.out.println("java -jar camera.jar system.xml context.xml");
-                System.exit(2);
-                throw new IllegalStateException("see configuration");
+        if (args.length > 0 && ARG_SIMULATION.equals(args[0])) {
+            systemIS = Thread.currentThread().getContextClassLoader().getResourceAsStream(SIMULATION_SYSTEM);
+            contextIS = Thread.currentThread().getContextClassLoader().getResourceAsStream(SIMULATION_CONTEXT);
+            simulationSeconds = args.length > 1 ? Long.parseLong(args[1]) : 0;
+            System.out.println("Simulation configuration used, duration seconds: " + simulationSeconds);
+        } else if (args.length > 0 && ARG_SERVO_BATCH.equals(args[0])) {
+            systemIS = Thread.currentThread().getContextClassLoader().getResourceAsStream(SYSTEM);
+            contextIS = Thread.currentThread().getContextClassLoader().getResourceAsStream(CONTEXT);
+            overlayIS = Thread.currentThread().getContextClassLoader().getResourceAsStream(SERVO_BATCH_OVERLAY);
+            System.out.println("Default configuration with batched servo output used");
+        } else {
+            switch (args.length) {
+                case 0:
+                    systemIS = Thread.currentThread().getContextClassLoader().getResourceAsStream(SYSTEM);
+                    contextIS = Thread.currentThread().getContextClassLoader().getResourceAsStream(CONTEXT);
+                    System.out.println("Default configuration used");
+                    break;
+                case 1:
+                    systemIS = Thread.currentThread().getContextClassLoader().getResourceAsStream(SYSTEM);
+                    Path contextPath = Paths.get(args[0]);
+                    contextIS = Files.newInputStream(contextPath);
+                    System.out.println("Robo4j config file has been used: " + args[0]);
+                    break;
+                case 2:
+                    Path systemPath2 = Paths.get(args[0]);
+                    Path contextPath2 = Paths.get(args[1]);
+                    systemIS = Files.newInputStream(systemPath2);
+                    contextIS = Files.newInputStream(contextPath2);
+                    System.out.println(String.format("Custom configuration used system: %s, context: %s", args[0], args[1]));
+                    break;
+                default:
+                    System.out.println("Could not find the *.xml settings for the CameraClient!");
+                    System.out.println("java -jar camera.jar system.xml context.xml");
+                    System.out.println("java -jar camera.jar simulation [seconds]");
+                    System.out.println("java -jar camera.jar servoBatch");
+                    System.exit(2);
+                    throw new IllegalStateException("see configuration");
+            }
         }
 
         RoboBuilder builder = new RoboBuilder(systemIS);
         builder.add(contextIS);
+        if (overlayIS != null) {
+            builder.add(overlayIS);
+        }
 
         RoboContext system = builder.build();
         system.start();
@@ -84,12 +114,16 @@ public class RoboticArmMain {
         }
 
         SimpleLoggingUtil.info(RoboApplication.class, SystemUtil.printStateReport(system));
-        System.out.println("Press key...");
-        System.in.read();
+        if (simulationSeconds > 0) {
+            TimeUnit.SECONDS.sleep(simulationSeconds);
+            SimpleLoggingUtil.info(RoboApplication.class, SystemUtil.printStateReport(system));
+        } else {
+            System.out.println("Press key...");
+            System.in.read();
+        }
         service.stop();
         system.shutdown();
         System.out.println("Bye!");
 
 
-    }
-}
+    }}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.capture;
+
+import com.robo4j.hw.rpi.pad.LF710Button;
+import com.robo4j.hw.rpi.pad.LF710Input;
+import com.robo4j.hw.rpi.pad.LF710JoystickButton;
+import com.robo4j.hw.rpi.pad.LF710Part;
+import com.robo4j.hw.rpi.pad.LF710State;
+
+/**
+ * PadLogFormat binary layout of the pad input log (big endian).
+ *
+ * Header: magic "PADL", version (int), recording start wall time millis (long), entry count (long), reserved.
+ * Entry: nanoseconds since the recording start (long), amount (short), part, input and state ordinals (bytes), padding.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+final class PadLogFormat {
+
+    static final int MAGIC = 0x5041444C;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int ENTRY_SIZE = 16;
+    static final int VERSION_OFFSET = 4;
+    static final int START_MILLIS_OFFSET = 8;
+    static final int COUNT_OFFSET = 16;
+    static final int AMOUNT_OFFSET = 8;
+    static final int PART_OFFSET = 10;
+    static final int INPUT_OFFSET = 11;
+    static final int STATE_OFFSET = 12;
+
+    private static final LF710Part[] PARTS = LF710Part.values();
+    private static final LF710State[] STATES = LF710State.values();
+    private static final LF710Button[] BUTTONS = LF710Button.values();
+    private static final LF710JoystickButton[] JOYSTICKS = LF710JoystickButton.values();
+
+    private PadLogFormat() {
+    }
+
+    static byte encodeInput(LF710Input input) {
+        return input instanceof Enum ? (byte) ((Enum<?>) input).ordinal() : -1;
+    }
+
+    static LF710Input decodeInput(LF710Part part, int ordinal) {
+        final LF710Input[] inputs = part == LF710Part.JOYSTICK ? JOYSTICKS : BUTTONS;
+        return ordinal >= 0 && ordinal < inputs.length ? inputs[ordinal] : null;
+    }
+
+    static LF710Part decodePart(int ordinal) {
+        return ordinal >= 0 && ordinal < PARTS.length ? PARTS[ordinal] : null;
+    }
+
+    static LF710State decodeState(int ordinal) {
+        return ordinal >= 0 && ordinal < STATES.length ? STATES[ordinal] : null;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.capture;
+
+import com.robo4j.hw.rpi.pad.LF710Input;
+import com.robo4j.hw.rpi.pad.LF710Message;
+import com.robo4j.hw.rpi.pad.LF710Part;
+import com.robo4j.hw.rpi.pad.LF710State;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.wengnermiro.robotic.hand.capture.PadLogFormat.AMOUNT_OFFSET;
+import static com.wengnermiro.robotic.hand.capture.PadLogFormat.COUNT_OFFSET;
+import static com.wengnermiro.robotic.hand.capture.PadLogFormat.ENTRY_SIZE;
+import static com.wengnermiro.robotic.hand.capture.PadLogFormat.HEADER_SIZE;
+import static com.wengnermiro.robotic.hand.capture.PadLogFormat.INPUT_OFFSET;
+import static com.wengnermiro.robotic.hand.capture.PadLogFormat.MAGIC;
+import static com.wengnermiro.robotic.hand.capture.PadLogFormat.PART_OFFSET;
+import static com.wengnermiro.robotic.hand.capture.PadLogFormat.START_MILLIS_OFFSET;
+import static com.wengnermiro.robotic.hand.capture.PadLogFormat.STATE_OFFSET;
+import static com.wengnermiro.robotic.hand.capture.PadLogFormat.VERSION;
+import static com.wengnermiro.robotic.hand.capture.PadLogFormat.VERSION_OFFSET;
+
+/**
+ * PadLogReader memory-mapped read only view of the log written by {@link PadLogWriter}
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class PadLogReader {
+
+    private final MappedByteBuffer buffer;
+    private final long startMillis;
+    private final int count;
+
+    private PadLogReader(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("not pad log");
+        }
+        final int version = buffer.getInt(VERSION_OFFSET);
+        if (version != VERSION) {
+            throw new IOException("not supported version: " + version);
+        }
+        this.startMillis = buffer.getLong(START_MILLIS_OFFSET);
+        final long available = (buffer.capacity() - HEADER_SIZE) / ENTRY_SIZE;
+        this.count = (int) Math.min(buffer.getLong(COUNT_OFFSET), available);
+    }
+
+    public static PadLogReader open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("log too large: " + channel.size());
+            }
+            return new PadLogReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    /**
+     * @return nanoseconds of the entry since the recording start
+     */
+    public long getNanos(int index) {
+        return buffer.getLong(offset(index));
+    }
+
+    /**
+     * @return message of the entry or null when the entry is not valid
+     */
+    public LF710Message createMessage(int index, long time) {
+        final int offset = offset(index);
+        final LF710Part part = PadLogFormat.decodePart(buffer.get(offset + PART_OFFSET));
+        final LF710State state = PadLogFormat.decodeState(buffer.get(offset + STATE_OFFSET));
+        if (part == null || state == null) {
+            return null;
+        }
+        final LF710Input input = PadLogFormat.decodeInput(part, buffer.get(offset + INPUT_OFFSET));
+        return input == null ? null : new LF710Message(time, buffer.getShort(offset + AMOUNT_OFFSET), part, input, state);
+    }
+
+    private int offset(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        return HEADER_SIZE + index * ENTRY_SIZE;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.capture;
+
+import com.robo4j.hw.rpi.pad.LF710Message;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.wengnermiro.robotic.hand.capture.PadLogFormat.AMOUNT_OFFSET;
+import static com.wengnermiro.robotic.hand.capture.PadLogFormat.COUNT_OFFSET;
+import static com.wengnermiro.robotic.hand.capture.PadLogFormat.ENTRY_SIZE;
+import static com.wengnermiro.robotic.hand.capture.PadLogFormat.HEADER_SIZE;
+import static com.wengnermiro.robotic.hand.capture.PadLogFormat.INPUT_OFFSET;
+import static com.wengnermiro.robotic.hand.capture.PadLogFormat.MAGIC;
+import static com.wengnermiro.robotic.hand.capture.PadLogFormat.PART_OFFSET;
+import static com.wengnermiro.robotic.hand.capture.PadLogFormat.START_MILLIS_OFFSET;
+import static com.wengnermiro.robotic.hand.capture.PadLogFormat.STATE_OFFSET;
+import static com.wengnermiro.robotic.hand.capture.PadLogFormat.VERSION;
+import static com.wengnermiro.robotic.hand.capture.PadLogFormat.VERSION_OFFSET;
+
+/**
+ * PadLogWriter append-only memory-mapped log of the {@link LF710Message}s, the file is mapped
+ * by chunks and truncated to the written entries when closed. Entry count in the header is
+ * updated after every entry, so the log is readable while recording.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class PadLogWriter implements Closeable {
+
+    public static final int DEFAULT_CHUNK_ENTRIES = 65536;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final long chunkSize;
+    private final long startNanos;
+    private MappedByteBuffer chunk;
+    private long chunkOffset;
+    private long count;
+    private boolean closed;
+
+    private PadLogWriter(FileChannel channel, int chunkEntries, long startNanos) throws IOException {
+        this.channel = channel;
+        this.chunkSize = (long) chunkEntries * ENTRY_SIZE;
+        this.startNanos = startNanos;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        header.putInt(0, MAGIC);
+        header.putInt(VERSION_OFFSET, VERSION);
+        header.putLong(START_MILLIS_OFFSET, System.currentTimeMillis());
+        header.putLong(COUNT_OFFSET, 0);
+    }
+
+    public static PadLogWriter create(Path path) throws IOException {
+        return create(path, DEFAULT_CHUNK_ENTRIES);
+    }
+
+    public static PadLogWriter create(Path path, int chunkEntries) throws IOException {
+        if (chunkEntries <= 0) {
+            throw new IllegalArgumentException("chunkEntries: " + chunkEntries);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new PadLogWriter(channel, chunkEntries, System.nanoTime());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @param message pad message
+     * @param nanos   {@link System#nanoTime()} of the message
+     * @throws IOException next chunk can not be mapped or the log is closed
+     */
+    public synchronized void append(LF710Message message, long nanos) throws IOException {
+        if (closed) {
+            throw new IOException("closed");
+        }
+        final long position = HEADER_SIZE + count * ENTRY_SIZE;
+        if (chunk == null || position - chunkOffset >= chunkSize) {
+            chunkOffset = position;
+            chunk = channel.map(FileChannel.MapMode.READ_WRITE, chunkOffset, chunkSize);
+        }
+        final int offset = (int) (position - chunkOffset);
+        chunk.putLong(offset, nanos - startNanos);
+        chunk.putShort(offset + AMOUNT_OFFSET, message.getAmount());
+        chunk.put(offset + PART_OFFSET, (byte) message.getPart().ordinal());
+        chunk.put(offset + INPUT_OFFSET, PadLogFormat.encodeInput(message.getInput()));
+        chunk.put(offset + STATE_OFFSET, (byte) message.getState().ordinal());
+        count++;
+        header.putLong(COUNT_OFFSET, count);
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (chunk != null) {
+                chunk.force();
+            }
+            header.force();
+            chunk = null;
+            channel.truncate(HEADER_SIZE + count * ENTRY_SIZE);
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.capture;
+
+import com.robo4j.AttributeDescriptor;
+import com.robo4j.ConfigurationException;
+import com.robo4j.DefaultAttributeDescriptor;
+import com.robo4j.RoboContext;
+import com.robo4j.RoboReference;
+import com.robo4j.RoboUnit;
+import com.robo4j.configuration.Configuration;
+import com.robo4j.hw.rpi.pad.LF710Message;
+import com.robo4j.logging.SimpleLoggingUtil;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PadReplayUnit replays the pad log recorded by {@link PadLogWriter} to the target.
+ * Speed 1 replays in the recorded time, speed N is N times faster and speed 0 replays
+ * as fast as possible in batches.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public class PadReplayUnit extends RoboUnit<Object> {
+
+    public static final String PROP_TARGET = "target";
+    public static final String PROP_FILE = "file";
+    public static final String PROP_SPEED = "speed";
+    public static final String PROP_LOOP = "loop";
+    public static final String ATTR_ENTRIES = "entries";
+    public static final String ATTR_REPLAYED = "replayed";
+
+    public static final DefaultAttributeDescriptor<Integer> DESCRIPTOR_ENTRIES = DefaultAttributeDescriptor.create(Integer.class, ATTR_ENTRIES);
+    public static final DefaultAttributeDescriptor<Long> DESCRIPTOR_REPLAYED = DefaultAttributeDescriptor.create(Long.class, ATTR_REPLAYED);
+    private static final Collection<AttributeDescriptor<?>> KNOWN_ATTRIBUTES = Collections
+            .unmodifiableCollection(Arrays.asList(DESCRIPTOR_ENTRIES, DESCRIPTOR_REPLAYED));
+    private static final int MAX_SPEED_BATCH = 1024;
+
+    private final AtomicBoolean active = new AtomicBoolean();
+    private final AtomicLong replayed = new AtomicLong();
+    private RoboReference<LF710Message> targetReference;
+    private PadLogReader reader;
+    private String target;
+    private float speed;
+    private boolean loop;
+
+    public PadReplayUnit(RoboContext context, String id) {
+        super(Object.class, context, id);
+    }
+
+    @Override
+    protected void onInitialization(Configuration configuration) throws ConfigurationException {
+        target = configuration.getString(PROP_TARGET, null);
+        if (target == null) {
+            throw ConfigurationException.createMissingConfigNameException(PROP_TARGET);
+        }
+        String file = configuration.getString(PROP_FILE, null);
+        if (file == null) {
+            throw ConfigurationException.createMissingConfigNameException(PROP_FILE);
+        }
+        speed = configuration.getFloat(PROP_SPEED, 1f);
+        if (speed < 0) {
+            throw new ConfigurationException(PROP_SPEED);
+        }
+        loop = configuration.getBoolean(PROP_LOOP, false);
+        try {
+            reader = PadLogReader.open(Paths.get(file));
+        } catch (IOException e) {
+            throw new ConfigurationException("pad log: " + e.getMessage());
+        }
+        if (reader.size() == 0) {
+            throw new ConfigurationException("empty pad log: " + file);
+        }
+    }
+
+    @Override
+    public void start() {
+        super.start();
+        targetReference = getContext().getReference(target);
+        if (active.compareAndSet(false, true)) {
+            if (speed == 0) {
+                getContext().getScheduler().execute(new MaxSpeedReplay());
+            } else {
+                scheduleEntry(0, System.nanoTime());
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        active.set(false);
+        super.stop();
+    }
+
+    @Override
+    public Collection<AttributeDescriptor<?>> getKnownAttributes() {
+        return KNOWN_ATTRIBUTES;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected <R> R onGetAttribute(AttributeDescriptor<R> descriptor) {
+        switch (descriptor.getAttributeName()) {
+            case ATTR_ENTRIES:
+                return (R) Integer.valueOf(reader.size());
+            case ATTR_REPLAYED:
+                return (R) Long.valueOf(replayed.get());
+            default:
+                return super.onGetAttribute(descriptor);
+        }
+    }
+
+    /**
+     * entry deadline is computed from the replay start, delays do not accumulate
+     */
+    private void scheduleEntry(int index, long replayStartNanos) {
+        if (!active.get()) {
+            return;
+        }
+        final long deadline = replayStartNanos + (long) (reader.getNanos(index) / speed);
+        getContext().getScheduler().schedule(() -> {
+            if (active.get()) {
+                send(index);
+                int next = index + 1;
+                if (next < reader.size()) {
+                    scheduleEntry(next, replayStartNanos);
+                } else if (loop) {
+                    scheduleEntry(0, System.nanoTime());
+                } else {
+                    finished();
+                }
+            }
+        }, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    private void send(int index) {
+        LF710Message message = reader.createMessage(index, System.currentTimeMillis());
+        if (message != null) {
+            targetReference.sendMessage(message);
+            replayed.incrementAndGet();
+        }
+    }
+
+    private void finished() {
+        active.set(false);
+        SimpleLoggingUtil.info(getClass(), "replay finished: " + replayed.get());
+    }
+
+    /**
+     * sends batches back to back, the scheduler thread is released between batches
+     */
+    private final class MaxSpeedReplay implements Runnable {
+        private int index;
+
+        @Override
+        public void run() {
+            final int end = Math.min(index + MAX_SPEED_BATCH, reader.size());
+            while (index < end && active.get()) {
+                send(index++);
+            }
+            if (!active.get()) {
+                return;
+            }
+            if (index == reader.size()) {
+                if (!loop) {
+                    finished();
+                    return;
+                }
+                index = 0;
+            }
+            getContext().getScheduler().execute(this);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.codec;
+
+import java.io.Serializable;
+
+/**
+ * ArmCartesianMessage target position of the gripper tip in millimeters,
+ * origin at the base rotation axis on the ground, z axis up
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public class ArmCartesianMessage implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Float x;
+    private Float y;
+    private Float z;
+
+    public ArmCartesianMessage() {
+    }
+
+    public ArmCartesianMessage(Float x, Float y, Float z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    public Float getX() {
+        return x;
+    }
+
+    public void setX(Float x) {
+        this.x = x;
+    }
+
+    public Float getY() {
+        return y;
+    }
+
+    public void setY(Float y) {
+        this.y = y;
+    }
+
+    public Float getZ() {
+        return z;
+    }
+
+    public void setZ(Float z) {
+        this.z = z;
+    }
+
+    @Override
+    public String toString() {
+        return "ArmCartesianMessage{" +
+                "x=" + x +
+                ", y=" + y +
+                ", z=" + z +
+                '}';
+    }
+}
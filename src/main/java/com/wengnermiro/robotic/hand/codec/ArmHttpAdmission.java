@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.wengnermiro.robotic.hand.codec;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * ArmHttpAdmission lets the {@link ArmHttpMessageCodec} reject the request while the command queue
+ * of the receiving unit is full. The codec runs while the HTTP request is processed, so the client gets
+ * the rejection in the response and may retry, the unit acknowledges the message only later.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class ArmHttpAdmission {
+
+    private static final BooleanSupplier ALWAYS_FREE = () -> false;
+    private static volatile BooleanSupplier queueFull = ALWAYS_FREE;
+
+    private ArmHttpAdmission() {
+    }
+
+    /**
+     * @param full true when the command queue has no free slot
+     */
+    public static void register(BooleanSupplier full) {
+        queueFull = full;
+    }
+
+    public static void unregister(BooleanSupplier full) {
+        if (queueFull == full) {
+            queueFull = ALWAYS_FREE;
+        }
+    }
+
+    static boolean isQueueFull() {
+        return queueFull.getAsBoolean();
+    }
+}
@@ -21,11 +21,40 @@ import com.robo4j.socket.http.codec.AbstractHttpMessageCodec;
 import com.robo4j.socket.http.units.HttpProducer;
 
 /**
+ * ArmHttpMessageCodec JSON codec of the {@link ArmHttpMessage}
+ *
  * @author Miroslav Wengner (@miragemiko)
  */
 @HttpProducer
 public class ArmHttpMessageCodec extends AbstractHttpMessageCodec<ArmHttpMessage> {
+
     public ArmHttpMessageCodec() {
         super(ArmHttpMessage.class);
     }
-}
\ No newline at end of file
+
+    public static final String MESSAGE_QUEUE_FULL = "command queue full, retry later";
+
+    /**
+     * decodes JSON form, commands with missing target or amount are rejected,
+     * targets are resolved by the receiving unit. The request is rejected while
+     * the command queue is full, see {@link ArmHttpAdmission}.
+     *
+     * @throws IllegalArgumentException not valid command
+     * @throws IllegalStateException    command queue is full
+     */
+    @Override
+    public ArmHttpMessage decode(String json) {
+        if (ArmHttpAdmission.isQueueFull()) {
+            throw new IllegalStateException(MESSAGE_QUEUE_FULL);
+        }
+        ArmHttpMessage message = super.decode(json);
+        if (message != null && message.getCommands() != null) {
+            for (ArmHttpCommand command : message.getCommands()) {
+                if (command == null || command.getAmount() == null || command.getTarget() == null) {
+                    throw new IllegalArgumentException("not valid command: " + command);
+                }
+            }
+        }
+        return message;
+    }
+}
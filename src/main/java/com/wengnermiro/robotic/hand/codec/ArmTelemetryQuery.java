@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.codec;
+
+import java.io.Serializable;
+
+/**
+ * ArmTelemetryQuery time window in millis ending now and the max number of points it is downsampled to,
+ * the optional id is returned with the result
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public class ArmTelemetryQuery implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+    private Integer windowMillis;
+    private Integer points;
+
+    public ArmTelemetryQuery() {
+    }
+
+    public ArmTelemetryQuery(Long id, Integer windowMillis, Integer points) {
+        this.id = id;
+        this.windowMillis = windowMillis;
+        this.points = points;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getWindowMillis() {
+        return windowMillis;
+    }
+
+    public void setWindowMillis(Integer windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    public Integer getPoints() {
+        return points;
+    }
+
+    public void setPoints(Integer points) {
+        this.points = points;
+    }
+
+    @Override
+    public String toString() {
+        return "ArmTelemetryQuery{" +
+                "id=" + id +
+                ", windowMillis=" + windowMillis +
+                ", points=" + points +
+                '}';
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.codec;
+
+import java.io.Serializable;
+
+/**
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public class ArmTrajectoryJoint implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String target;
+    private Float value;
+
+    public ArmTrajectoryJoint() {
+    }
+
+    public ArmTrajectoryJoint(String target, Float value) {
+        this.target = target;
+        this.value = value;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public void setTarget(String target) {
+        this.target = target;
+    }
+
+    public Float getValue() {
+        return value;
+    }
+
+    public void setValue(Float value) {
+        this.value = value;
+    }
+
+    @Override
+    public String toString() {
+        return "ArmTrajectoryJoint{" +
+                "target='" + target + '\'' +
+                ", value=" + value +
+                '}';
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.codec;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ArmTrajectoryMessage timestamped waypoints of the trajectory segment.
+ * Segment with append flag continues the running trajectory, so long motion
+ * can be streamed by several requests.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public class ArmTrajectoryMessage implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Boolean append = Boolean.FALSE;
+    private List<ArmTrajectoryPoint> points = new ArrayList<>();
+
+    public ArmTrajectoryMessage() {
+    }
+
+    public ArmTrajectoryMessage(Boolean append, List<ArmTrajectoryPoint> points) {
+        this.append = append;
+        this.points = points;
+    }
+
+    public Boolean getAppend() {
+        return append;
+    }
+
+    public void setAppend(Boolean append) {
+        this.append = append;
+    }
+
+    public List<ArmTrajectoryPoint> getPoints() {
+        return points;
+    }
+
+    public void setPoints(List<ArmTrajectoryPoint> points) {
+        this.points = points;
+    }
+
+    @Override
+    public String toString() {
+        return "ArmTrajectoryMessage{" +
+                "append=" + append +
+                ", points=" + points +
+                '}';
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.codec;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ArmTrajectoryPoint multi-joint waypoint, time in milliseconds from the segment start
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public class ArmTrajectoryPoint implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Integer time;
+    private List<ArmTrajectoryJoint> joints = new ArrayList<>();
+
+    public ArmTrajectoryPoint() {
+    }
+
+    public ArmTrajectoryPoint(Integer time, List<ArmTrajectoryJoint> joints) {
+        this.time = time;
+        this.joints = joints;
+    }
+
+    public Integer getTime() {
+        return time;
+    }
+
+    public void setTime(Integer time) {
+        this.time = time;
+    }
+
+    public List<ArmTrajectoryJoint> getJoints() {
+        return joints;
+    }
+
+    public void setJoints(List<ArmTrajectoryJoint> joints) {
+        this.joints = joints;
+    }
+
+    @Override
+    public String toString() {
+        return "ArmTrajectoryPoint{" +
+                "time=" + time +
+                ", joints=" + joints +
+                '}';
+    }
+}
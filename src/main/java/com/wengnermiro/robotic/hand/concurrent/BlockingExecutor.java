@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.concurrent;
+
+import com.robo4j.RoboContext;
+import com.robo4j.scheduler.Scheduler;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * BlockingExecutor runs the blocking work of the unit. The Java 21 build runs every task
+ * on its own virtual thread, the Java 11 build uses the scheduler of the context.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class BlockingExecutor implements Executor {
+
+    private final Scheduler scheduler;
+    private final ExecutorService virtualExecutor;
+
+    private BlockingExecutor(Scheduler scheduler, ExecutorService virtualExecutor) {
+        this.scheduler = scheduler;
+        this.virtualExecutor = virtualExecutor;
+    }
+
+    /**
+     * @param context context of the unit
+     * @param name    prefix of the virtual thread names
+     */
+    public static BlockingExecutor create(RoboContext context, String name) {
+        return new BlockingExecutor(context.getScheduler(), VirtualThreads.newExecutor(name));
+    }
+
+    public static boolean isVirtualThreadsSupported() {
+        return VirtualThreads.SUPPORTED;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (virtualExecutor == null) {
+            scheduler.execute(task);
+        } else {
+            virtualExecutor.execute(task);
+        }
+    }
+
+    /**
+     * running tasks are finished, new tasks are rejected by the virtual executor
+     */
+    public void shutdown() {
+        if (virtualExecutor != null) {
+            virtualExecutor.shutdown();
+        }
+    }
+}
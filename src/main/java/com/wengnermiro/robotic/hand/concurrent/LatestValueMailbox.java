@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.concurrent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * LatestValueMailbox keeps only the latest offered value, older not drained values are dropped.
+ * Only one drain is running as the next one is requested by the offer finding the mailbox empty.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class LatestValueMailbox {
+
+    public static final int EMPTY = -1;
+
+    private final AtomicInteger value = new AtomicInteger(EMPTY);
+
+    /**
+     * @param newValue not negative value
+     * @return true when the mailbox was empty and the drain has to be executed
+     */
+    public boolean offer(int newValue) {
+        if (newValue < 0) {
+            throw new IllegalArgumentException("negative value: " + newValue);
+        }
+        return value.getAndSet(newValue) == EMPTY;
+    }
+
+    /**
+     * passes the latest value to the consumer until the mailbox is empty
+     */
+    public void drain(IntConsumer consumer) {
+        int current;
+        do {
+            current = value.get();
+            consumer.accept(current);
+        } while (!value.compareAndSet(current, EMPTY));
+    }
+
+    /**
+     * drops the value, the next offer requests the drain
+     */
+    public void clear() {
+        value.set(EMPTY);
+    }
+
+    public boolean isEmpty() {
+        return value.get() == EMPTY;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.wengnermiro.robotic.hand.control;
+
+import com.robo4j.hw.rpi.pad.LF710Input;
+import com.robo4j.hw.rpi.pad.LF710Part;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ArmAxes named axes of the arm controller and the pad inputs driving them, published by the arm controller
+ * for the units driving the arm by the axis name. Joystick axes use the same input for both directions,
+ * button axes use a button per direction.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class ArmAxes {
+
+    public static final class Axis {
+        private final String name;
+        private final LF710Part part;
+        private final LF710Input positive;
+        private final LF710Input negative;
+
+        private Axis(String name, LF710Part part, LF710Input positive, LF710Input negative) {
+            this.name = name;
+            this.part = part;
+            this.positive = positive;
+            this.negative = negative;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public LF710Part getPart() {
+            return part;
+        }
+
+        public LF710Input getPositive() {
+            return positive;
+        }
+
+        public LF710Input getNegative() {
+            return negative;
+        }
+    }
+
+    private final Map<String, Axis> axes = new LinkedHashMap<>();
+
+    public ArmAxes joystick(String name, LF710Input input) {
+        return add(new Axis(name, LF710Part.JOYSTICK, input, input));
+    }
+
+    public ArmAxes button(String name, LF710Input positive, LF710Input negative) {
+        return add(new Axis(name, LF710Part.BUTTON, positive, negative));
+    }
+
+    /**
+     * @return axis or null
+     */
+    public Axis get(String name) {
+        return axes.get(name);
+    }
+
+    public Collection<Axis> getAxes() {
+        return Collections.unmodifiableCollection(axes.values());
+    }
+
+    private ArmAxes add(Axis axis) {
+        if (axes.putIfAbsent(axis.getName(), axis) != null) {
+            throw new IllegalArgumentException("duplicate axis: " + axis.getName());
+        }
+        return this;
+    }
+}
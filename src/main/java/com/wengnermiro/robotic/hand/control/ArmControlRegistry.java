@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.control;
+
+import com.robo4j.RoboContext;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ArmControlRegistry makes the running {@link ArmTickEngine} and the {@link ArmAxes} of the arm controller unit
+ * reachable by other units of the same context, e.g. to submit trajectories into the control loop
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class ArmControlRegistry {
+
+    private static final Map<String, ArmTickEngine> ENGINES = new ConcurrentHashMap<>();
+    private static final Map<String, ArmAxes> AXES = new ConcurrentHashMap<>();
+
+    private ArmControlRegistry() {
+    }
+
+    public static void register(RoboContext context, String unitId, ArmTickEngine engine) {
+        ENGINES.put(createKey(context, unitId), engine);
+    }
+
+    public static void unregister(RoboContext context, String unitId, ArmTickEngine engine) {
+        ENGINES.remove(createKey(context, unitId), engine);
+    }
+
+    /**
+     * @return registered engine or null
+     */
+    public static ArmTickEngine get(RoboContext context, String unitId) {
+        return ENGINES.get(createKey(context, unitId));
+    }
+
+    public static void registerAxes(RoboContext context, String unitId, ArmAxes axes) {
+        AXES.put(createKey(context, unitId), axes);
+    }
+
+    public static void unregisterAxes(RoboContext context, String unitId, ArmAxes axes) {
+        AXES.remove(createKey(context, unitId), axes);
+    }
+
+    /**
+     * @return registered axes or null
+     */
+    public static ArmAxes getAxes(RoboContext context, String unitId) {
+        return AXES.get(createKey(context, unitId));
+    }
+
+    private static String createKey(RoboContext context, String unitId) {
+        return context.getId() + "/" + unitId;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.control;
+
+/**
+ * ArmState state of the arm derived by the control loop, the face states are shown
+ * until the arm moves again
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public enum ArmState {
+
+    //@formatter:off
+    IDLE            ("idle",        false),
+    MOVING          ("moving",      false),
+    GRIPPING        ("gripping",    false),
+    TRAJECTORY      ("trajectory",  false),
+    FACE_NEUTRAL    ("faceNeutral", true),
+    FACE_SMILE      ("faceSmile",   true),
+    FACE_SAD        ("faceSad",     true)
+    ;
+    //@formatter:on
+
+    private final String name;
+    private final boolean face;
+
+    ArmState(String name, boolean face) {
+        this.name = name;
+        this.face = face;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isFace() {
+        return face;
+    }
+}
@@ -0,0 +1,560 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.control;
+
+import com.robo4j.hw.rpi.pad.LF710Input;
+import com.wengnermiro.robotic.hand.kinematics.ArmGeometry;
+import com.wengnermiro.robotic.hand.listener.ArmListener;
+import com.wengnermiro.robotic.hand.telemetry.JointTelemetryRing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ArmTickEngine runs one control tick over the {@link ArmListener}s.
+ * Every listener gets a fixed slot and every joint (listener target) a fixed
+ * index when the engine is created, joint values are kept in a primitive array.
+ * Active listeners are tracked by the lock-free bitset over the slots, so several
+ * axes can be driven in the same tick. Listeners sharing the same joint never run together.
+ * Released listeners which are still moving (motion profile braking) keep being processed
+ * until they stop. Trajectories are interpolated after the listeners and written to the
+ * {@link JointOutput}, the optional {@link CartesianTracker} follows the Cartesian target the same way.
+ * Any pad press cancels the running trajectory and the Cartesian target.
+ * Joint values of the tick are checked by the optional {@link CollisionGuard} and only then dispatched
+ * to the {@link JointOutput}. Rejected tick keeps the last dispatched values, halts the listeners
+ * and cancels the trajectory and the Cartesian target. Active listeners of the rejected tick are latched
+ * and not processed until their input is released, so the held input doesn't retry every tick.
+ * Travelled distance of every joint and the input to actuation latency are recorded for the monitoring,
+ * joint values of every tick are written to the optional {@link JointTelemetryRing}.
+ * Listeners are split by their {@link ExecutionLane}: {@link #tick()} runs the servo lane and
+ * {@link #tickDisplay()} runs the display lane and publishes the active servo listeners, each lane is
+ * driven by its own thread. Targets of the display lane are not joints, their values are kept apart
+ * from the joint values and they are neither checked, dispatched nor recorded.
+ * A tick does not allocate and every lane is expected to be driven by a single thread.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class ArmTickEngine {
+
+    public static final int NO_SLOT = -1;
+    public static final int MAX_SLOTS = Long.SIZE;
+    public static final double TRAVEL_SCALE = 1_000_000d;
+
+    private final ArmListener[] listeners;
+    private final LF710Input[] inputs;
+    private final int[] listenerJoints;
+    private final String[] jointNames;
+    private final float[] jointValues;
+    private final float[] displayValues;
+    private final long[] jointPeers;
+    private final float[] travelValues;
+    private final float[] dispatchedValues;
+    private final AtomicLongArray jointTravel;
+    private final AtomicIntegerArray engage;
+    private final TrajectoryInterpolator interpolator;
+    private final LatencyRecorder latencyRecorder;
+    private volatile JointOutput jointOutput = JointOutput.NONE;
+    private volatile JointTelemetryRing telemetry;
+    private volatile CartesianTracker cartesianTracker;
+    private volatile CollisionGuard collisionGuard;
+    private final AtomicLong activeSlots = new AtomicLong();
+    private final AtomicLong latchedSlots = new AtomicLong();
+    private final LaneState servoLane;
+    private final LaneState displayLane;
+
+    public ArmTickEngine(List<ArmListener> listeners, List<String> jointNames) {
+        if (listeners.size() > MAX_SLOTS) {
+            throw new IllegalArgumentException("max listeners: " + MAX_SLOTS);
+        }
+        this.listeners = listeners.toArray(new ArmListener[0]);
+        this.jointNames = jointNames.toArray(new String[0]);
+        this.jointValues = new float[this.jointNames.length];
+        this.travelValues = new float[this.jointNames.length];
+        this.dispatchedValues = new float[this.jointNames.length];
+        this.jointTravel = new AtomicLongArray(this.jointNames.length);
+        this.inputs = new LF710Input[this.listeners.length];
+        this.listenerJoints = new int[this.listeners.length];
+        this.jointPeers = new long[this.listeners.length];
+        this.engage = new AtomicIntegerArray(this.listeners.length);
+        this.interpolator = new TrajectoryInterpolator(this.jointNames.length);
+        this.latencyRecorder = new LatencyRecorder(this.jointNames, this.listeners.length);
+        final List<String> displayTargets = new ArrayList<>();
+        long servoSlots = 0;
+        long displaySlots = 0;
+        for (int i = 0; i < this.listeners.length; i++) {
+            ArmListener listener = this.listeners[i];
+            inputs[i] = listener.getInput();
+            if (listener.getLane() == ExecutionLane.DISPLAY) {
+                if (jointIndex(listener.getName()) != NO_SLOT) {
+                    throw new IllegalArgumentException("display target is a joint: " + listener.getName());
+                }
+                if (!displayTargets.contains(listener.getName())) {
+                    displayTargets.add(listener.getName());
+                }
+                listenerJoints[i] = displayTargets.indexOf(listener.getName());
+                displaySlots |= 1L << i;
+            } else {
+                listenerJoints[i] = jointIndex(listener.getName());
+                if (listenerJoints[i] == NO_SLOT) {
+                    throw new IllegalArgumentException("not configured joint: " + listener.getName());
+                }
+                servoSlots |= 1L << i;
+            }
+        }
+        for (int i = 0; i < this.listeners.length; i++) {
+            for (int j = 0; j < this.listeners.length; j++) {
+                if (i != j && listenerJoints[i] == listenerJoints[j]
+                        && this.listeners[i].getLane() == this.listeners[j].getLane()) {
+                    jointPeers[i] |= 1L << j;
+                }
+            }
+        }
+        this.displayValues = new float[displayTargets.size()];
+        this.servoLane = new LaneState(servoSlots, jointValues, true);
+        this.displayLane = new LaneState(displaySlots, displayValues, false);
+    }
+
+    public int size() {
+        return listeners.length;
+    }
+
+    public int jointCount() {
+        return jointNames.length;
+    }
+
+    /**
+     * @param input pad input
+     * @return listener slot or {@link #NO_SLOT}
+     */
+    public int slotOf(LF710Input input) {
+        for (int i = 0; i < inputs.length; i++) {
+            if (inputs[i] == input) {
+                return i;
+            }
+        }
+        return NO_SLOT;
+    }
+
+    public ArmListener getListener(int slot) {
+        return listeners[slot];
+    }
+
+    public int jointIndex(String name) {
+        for (int i = 0; i < jointNames.length; i++) {
+            if (jointNames[i].equals(name)) {
+                return i;
+            }
+        }
+        return NO_SLOT;
+    }
+
+    public String getJointName(int joint) {
+        return jointNames[joint];
+    }
+
+    /**
+     * @return value of the servo lane joint
+     */
+    public float getJointValue(int joint) {
+        return jointValues[joint];
+    }
+
+    public String[] getJointNames() {
+        return jointNames;
+    }
+
+    /**
+     * @param target array of {@link #jointCount()} values
+     */
+    public void copyJointValues(float[] target) {
+        System.arraycopy(jointValues, 0, target, 0, jointValues.length);
+    }
+
+    /**
+     * @return travelled distance of the joint since the engine creation
+     */
+    public double getJointTravel(int joint) {
+        return jointTravel.get(joint) / TRAVEL_SCALE;
+    }
+
+    public void setJointOutput(JointOutput jointOutput) {
+        this.jointOutput = jointOutput == null ? JointOutput.NONE : jointOutput;
+    }
+
+    public void setTelemetry(JointTelemetryRing telemetry) {
+        if (telemetry != null && telemetry.jointCount() != jointNames.length) {
+            throw new IllegalArgumentException("telemetry joints: " + telemetry.jointCount());
+        }
+        this.telemetry = telemetry;
+    }
+
+    /**
+     * @return telemetry or null
+     */
+    public JointTelemetryRing getTelemetry() {
+        return telemetry;
+    }
+
+    public void setCartesianTracker(CartesianTracker cartesianTracker) {
+        if (cartesianTracker != null) {
+            for (int i = 0; i < ArmGeometry.JOINTS; i++) {
+                final int joint = cartesianTracker.getJoint(i);
+                if (joint < 0 || joint >= jointNames.length) {
+                    throw new IllegalArgumentException("invalid kinematic joint: " + joint);
+                }
+            }
+        }
+        this.cartesianTracker = cartesianTracker;
+    }
+
+    /**
+     * @return cartesian tracker or null
+     */
+    public CartesianTracker getCartesianTracker() {
+        return cartesianTracker;
+    }
+
+    public void setCollisionGuard(CollisionGuard collisionGuard) {
+        if (collisionGuard != null && collisionGuard.maxJoint() >= jointNames.length) {
+            throw new IllegalArgumentException("invalid guarded joint: " + collisionGuard.maxJoint());
+        }
+        this.collisionGuard = collisionGuard;
+    }
+
+    /**
+     * @return collision guard or null
+     */
+    public CollisionGuard getCollisionGuard() {
+        return collisionGuard;
+    }
+
+    /**
+     * replaces the running trajectory or the Cartesian target
+     */
+    public void submitTrajectory(Trajectory trajectory, boolean append) {
+        final CartesianTracker cartesian = cartesianTracker;
+        if (cartesian != null && cartesian.isActive()) {
+            cartesian.cancel();
+        }
+        interpolator.submit(trajectory, append);
+    }
+
+    /**
+     * replaces the running trajectory or the Cartesian target
+     *
+     * @return false when the kinematics is not available
+     */
+    public boolean moveTo(double x, double y, double z) {
+        final CartesianTracker cartesian = cartesianTracker;
+        if (cartesian == null) {
+            return false;
+        }
+        if (interpolator.isActive()) {
+            interpolator.cancel();
+        }
+        cartesian.submit(x, y, z);
+        return true;
+    }
+
+    public TrajectoryInterpolator getInterpolator() {
+        return interpolator;
+    }
+
+    public LatencyRecorder getLatencyRecorder() {
+        return latencyRecorder;
+    }
+
+    public boolean isActive(int slot) {
+        return (activeSlots.get() & (1L << slot)) != 0;
+    }
+
+    public long getActiveSlots() {
+        return activeSlots.get();
+    }
+
+    /**
+     * @return bitset of the listener slots stopped by the collision guard until released
+     */
+    public long getLatchedSlots() {
+        return latchedSlots.get();
+    }
+
+    /**
+     * @return bitset of the listener slots processed by the lane
+     */
+    public long getLaneSlots(ExecutionLane lane) {
+        return lane == ExecutionLane.DISPLAY ? displayLane.slots : servoLane.slots;
+    }
+
+    /**
+     * activates the listener, the listener continues from the current joint value
+     * on the next tick
+     *
+     * @param slot      listener slot
+     * @param amount    pad amount
+     * @param exclusive only one listener can be active
+     * @return true when the listener has been activated
+     */
+    public boolean press(int slot, short amount, boolean exclusive) {
+        return press(slot, amount, exclusive, InputSource.PAD, System.nanoTime());
+    }
+
+    /**
+     * already active listener takes the new amount, so the analog input keeps scaling the velocity
+     *
+     * @param slot       listener slot
+     * @param amount     pad amount
+     * @param exclusive  only one listener can be active
+     * @param source     source of the input
+     * @param inputNanos {@link System#nanoTime()} of the input
+     * @return true when the listener has been activated
+     */
+    public boolean press(int slot, short amount, boolean exclusive, InputSource source, long inputNanos) {
+        final long bit = 1L << slot;
+        long active;
+        do {
+            active = activeSlots.get();
+            if ((active & bit) != 0) {
+                listeners[slot].setAmount(amount);
+                return false;
+            }
+            if (exclusive ? active != 0 : (active & jointPeers[slot]) != 0) {
+                return false;
+            }
+        } while (!activeSlots.compareAndSet(active, active | bit));
+        unlatch(bit);
+
+        if (interpolator.isActive()) {
+            interpolator.cancel();
+        }
+        final CartesianTracker cartesian = cartesianTracker;
+        if (cartesian != null && cartesian.isActive()) {
+            cartesian.cancel();
+        }
+        ArmListener listener = listeners[slot];
+        listener.setAmount(amount);
+        engage.set(slot, 1);
+        latencyRecorder.mark(slot, source, inputNanos);
+        listener.setActive(true);
+        return true;
+    }
+
+    /**
+     * @param slot listener slot
+     * @return true when the active listener has been deactivated
+     */
+    public boolean release(int slot) {
+        final long bit = 1L << slot;
+        long active;
+        do {
+            active = activeSlots.get();
+            if ((active & bit) == 0) {
+                return false;
+            }
+        } while (!activeSlots.compareAndSet(active, active & ~bit));
+        unlatch(bit);
+        listeners[slot].setActive(false);
+        return true;
+    }
+
+    /**
+     * runs the servo lane
+     *
+     * @return true when any joint value has been changed
+     */
+    public boolean tick() {
+        final long active = activeSlots.get() & ~latchedSlots.get();
+        boolean changed = runListeners(servoLane, active);
+        final long processed = servoLane.processed;
+        final long now = System.nanoTime();
+        changed |= interpolator.interpolate(now, jointValues, JointOutput.NONE);
+        final CartesianTracker cartesian = cartesianTracker;
+        if (cartesian != null) {
+            changed |= cartesian.track(jointValues, JointOutput.NONE);
+        }
+        if (changed) {
+            final CollisionGuard guard = collisionGuard;
+            if (guard != null && guard.reject(jointValues)) {
+                rejectTick(processed, cartesian);
+                changed = false;
+            } else {
+                dispatch();
+                accumulateTravel();
+            }
+        }
+        final JointTelemetryRing ring = telemetry;
+        if (ring != null) {
+            ring.record(now, jointValues);
+        }
+        return changed;
+    }
+
+    /**
+     * runs the display lane and publishes the active servo listeners
+     *
+     * @return true when any display joint value has been changed
+     */
+    public boolean tickDisplay() {
+        final long active = activeSlots.get();
+        final boolean changed = runListeners(displayLane, active);
+        long run = active & servoLane.slots;
+        while (run != 0) {
+            final int slot = Long.numberOfTrailingZeros(run);
+            run &= run - 1;
+            listeners[slot].publish();
+        }
+        return changed;
+    }
+
+    private boolean runListeners(LaneState lane, long allActive) {
+        boolean changed = false;
+        final float[] values = lane.values;
+        final long active = allActive & lane.slots;
+        long released = lane.lastActive & ~active;
+        lane.lastActive = active;
+        while (released != 0) {
+            final int slot = Long.numberOfTrailingZeros(released);
+            released &= released - 1;
+            if (listeners[slot].isMoving()) {
+                lane.coasting |= 1L << slot;
+            }
+        }
+        lane.coasting &= ~active;
+
+        final long processed = active | lane.coasting;
+        lane.processed = processed;
+        long run = processed;
+        while (run != 0) {
+            final int slot = Long.numberOfTrailingZeros(run);
+            final long bit = 1L << slot;
+            run &= run - 1;
+            final boolean isActive = (active & bit) != 0;
+            if (!isActive && (lane.coasting & bit) == 0) {
+                continue;
+            }
+            final ArmListener listener = listeners[slot];
+            final int joint = listenerJoints[slot];
+            if (isActive) {
+                if (!listener.isActive()) {
+                    continue;
+                }
+                if (engage.get(slot) != 0) {
+                    engage.set(slot, 0);
+                    listener.setValue(values[joint]);
+                    haltPeers(lane, slot);
+                }
+            }
+            final float value = listener.process();
+            if (value != values[joint]) {
+                changed = true;
+                if (isActive && lane.actuated) {
+                    latencyRecorder.actuated(slot, joint);
+                }
+            }
+            values[joint] = value;
+            if (!isActive && !listener.isMoving()) {
+                lane.coasting &= ~bit;
+            }
+        }
+        return changed;
+    }
+
+    private void dispatch() {
+        final JointOutput output = jointOutput;
+        for (int joint = 0; joint < jointValues.length; joint++) {
+            final float value = jointValues[joint];
+            if (value != dispatchedValues[joint]) {
+                dispatchedValues[joint] = value;
+                output.write(joint, value);
+            }
+        }
+    }
+
+    private void rejectTick(long processed, CartesianTracker cartesian) {
+        System.arraycopy(dispatchedValues, 0, jointValues, 0, jointValues.length);
+        final long latch = processed & activeSlots.get();
+        long latched;
+        do {
+            latched = latchedSlots.get();
+        } while (!latchedSlots.compareAndSet(latched, latched | latch));
+        long run = processed;
+        while (run != 0) {
+            final int slot = Long.numberOfTrailingZeros(run);
+            run &= run - 1;
+            listeners[slot].halt();
+            listeners[slot].setValue(jointValues[listenerJoints[slot]]);
+        }
+        if (interpolator.isActive()) {
+            interpolator.cancel();
+        }
+        if (cartesian != null && cartesian.isActive()) {
+            cartesian.cancel();
+        }
+    }
+
+    private void accumulateTravel() {
+        for (int joint = 0; joint < jointValues.length; joint++) {
+            final float distance = Math.abs(jointValues[joint] - travelValues[joint]);
+            if (distance != 0) {
+                jointTravel.lazySet(joint, jointTravel.get(joint) + Math.round(distance * TRAVEL_SCALE));
+                travelValues[joint] = jointValues[joint];
+            }
+        }
+    }
+
+    private void unlatch(long bit) {
+        long latched;
+        do {
+            latched = latchedSlots.get();
+            if ((latched & bit) == 0) {
+                return;
+            }
+        } while (!latchedSlots.compareAndSet(latched, latched & ~bit));
+    }
+
+    private void haltPeers(LaneState lane, int slot) {
+        long peers = lane.coasting & jointPeers[slot];
+        lane.coasting &= ~peers;
+        while (peers != 0) {
+            final int peer = Long.numberOfTrailingZeros(peers);
+            peers &= peers - 1;
+            listeners[peer].halt();
+        }
+    }
+
+    /**
+     * LaneState listener state owned by the thread driving the lane
+     */
+    private static final class LaneState {
+        private final long slots;
+        private final float[] values;
+        private final boolean actuated;
+        private long lastActive;
+        private long coasting;
+        private long processed;
+
+        private LaneState(long slots, float[] values, boolean actuated) {
+            this.slots = slots;
+            this.values = values;
+            this.actuated = actuated;
+        }
+    }
+}
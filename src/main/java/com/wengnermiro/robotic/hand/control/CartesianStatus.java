@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.control;
+
+/**
+ * CartesianStatus state of the last Cartesian target of the {@link CartesianTracker}
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public enum CartesianStatus {
+
+    //@formatter:off
+    IDLE        ("idle"),
+    SOLVING     ("solving"),
+    MOVING      ("moving"),
+    REACHED     ("reached"),
+    UNREACHABLE ("unreachable"),
+    CANCELLED   ("cancelled")
+    ;
+    //@formatter:on
+
+    private final String name;
+
+    CartesianStatus(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
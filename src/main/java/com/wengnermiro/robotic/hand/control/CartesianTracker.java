@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.control;
+
+import com.wengnermiro.robotic.hand.kinematics.ArmGeometry;
+import com.wengnermiro.robotic.hand.kinematics.ArmKinematics;
+import com.wengnermiro.robotic.hand.kinematics.WorkspaceTable;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * CartesianTracker moves the gripper tip to the Cartesian target inside the control tick.
+ * Targets are submitted by any thread, the inverse kinematics runs by the tick thread only
+ * with the limited number of iterations per tick. A new target is seeded by the nearest cell
+ * of the optional {@link WorkspaceTable}, otherwise by the current joint values.
+ * Joints follow the solution with the max step per tick and are written to the {@link JointOutput}.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class CartesianTracker {
+
+    private static final double[] CANCEL = new double[0];
+
+    private final ArmKinematics kinematics;
+    private final int[] joints;
+    private final float maxStep;
+    private final int iterationsPerTick;
+    private final int maxIterations;
+    private final AtomicReference<double[]> pending = new AtomicReference<>();
+    private final float[] solution = new float[ArmGeometry.JOINTS];
+    private double[] target;
+    private int iterations;
+    private boolean converged;
+    private volatile boolean active;
+    private volatile boolean seeded;
+    private volatile WorkspaceTable workspaceTable;
+    private volatile CartesianStatus status = CartesianStatus.IDLE;
+    private volatile int solveIterations;
+
+    /**
+     * @param kinematics        kinematics used by the tick thread only
+     * @param joints            engine joint index of every {@link ArmGeometry} joint
+     * @param maxStep           max change of the normalized joint value per tick
+     * @param iterationsPerTick max solver iterations per tick
+     * @param maxIterations     max solver iterations per target
+     */
+    public CartesianTracker(ArmKinematics kinematics, int[] joints, float maxStep, int iterationsPerTick, int maxIterations) {
+        if (joints.length != ArmGeometry.JOINTS) {
+            throw new IllegalArgumentException("joints: " + ArmGeometry.JOINTS);
+        }
+        if (maxStep <= 0 || iterationsPerTick <= 0 || maxIterations < iterationsPerTick) {
+            throw new IllegalArgumentException("invalid step or iterations");
+        }
+        this.kinematics = kinematics;
+        this.joints = joints.clone();
+        this.maxStep = maxStep;
+        this.iterationsPerTick = iterationsPerTick;
+        this.maxIterations = maxIterations;
+    }
+
+    public ArmGeometry getGeometry() {
+        return kinematics.getGeometry();
+    }
+
+    /**
+     * @param index {@link ArmGeometry} joint
+     * @return engine joint index
+     */
+    public int getJoint(int index) {
+        return joints[index];
+    }
+
+    /**
+     * @param x target x in millimeters
+     * @param y target y in millimeters
+     * @param z target z in millimeters
+     */
+    public void submit(double x, double y, double z) {
+        pending.set(new double[]{x, y, z});
+        active = true;
+    }
+
+    /**
+     * @param workspaceTable seeds of new targets, may be set while the loop is running
+     */
+    public void setWorkspaceTable(WorkspaceTable workspaceTable) {
+        this.workspaceTable = workspaceTable;
+    }
+
+    public WorkspaceTable getWorkspaceTable() {
+        return workspaceTable;
+    }
+
+    public void cancel() {
+        pending.set(CANCEL);
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public CartesianStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return solver iterations spent on the current or the last target
+     */
+    public int getIterations() {
+        return solveIterations;
+    }
+
+    /**
+     * @return true when the current or the last target has been seeded by the workspace table
+     */
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    /**
+     * @param jointValues joint values updated towards the solution
+     * @param output      output of changed joints
+     * @return true when any joint value has been changed
+     */
+    public boolean track(float[] jointValues, JointOutput output) {
+        final double[] next = pending.getAndSet(null);
+        if (next == CANCEL) {
+            if (target != null) {
+                finish(CartesianStatus.CANCELLED);
+            }
+        } else if (next != null) {
+            target = next;
+            iterations = 0;
+            converged = false;
+            for (int i = 0; i < joints.length; i++) {
+                solution[i] = jointValues[joints[i]];
+            }
+            final WorkspaceTable table = workspaceTable;
+            seeded = table != null && table.seed(target[0], target[1], target[2], solution);
+            status = CartesianStatus.SOLVING;
+            active = true;
+        }
+        if (target == null) {
+            return false;
+        }
+
+        if (!converged && iterations < maxIterations) {
+            converged = kinematics.solve(target[0], target[1], target[2], solution,
+                    Math.min(iterationsPerTick, maxIterations - iterations));
+            iterations += kinematics.getIterations();
+            solveIterations = iterations;
+        }
+
+        boolean changed = false;
+        boolean moving = false;
+        for (int i = 0; i < joints.length; i++) {
+            final int joint = joints[i];
+            final float current = jointValues[joint];
+            final float delta = solution[i] - current;
+            if (delta == 0) {
+                continue;
+            }
+            final float value;
+            if (Math.abs(delta) <= maxStep) {
+                value = solution[i];
+            } else {
+                value = current + Math.copySign(maxStep, delta);
+                moving = true;
+            }
+            jointValues[joint] = value;
+            output.write(joint, value);
+            changed = true;
+        }
+
+        if (moving || (!converged && iterations < maxIterations)) {
+            status = converged ? CartesianStatus.MOVING : CartesianStatus.SOLVING;
+        } else {
+            finish(converged ? CartesianStatus.REACHED : CartesianStatus.UNREACHABLE);
+        }
+        return changed;
+    }
+
+    private void finish(CartesianStatus result) {
+        target = null;
+        status = result;
+        if (pending.get() == null) {
+            active = false;
+        }
+    }
+}
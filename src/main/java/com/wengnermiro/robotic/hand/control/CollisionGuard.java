@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.control;
+
+import com.wengnermiro.robotic.hand.kinematics.ArmGeometry;
+import com.wengnermiro.robotic.hand.kinematics.CollisionEnvelope;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CollisionGuard checks the joint values of the tick against the {@link CollisionEnvelope}
+ * before they are dispatched, rejected ticks are counted. The envelope may be built in the background,
+ * until it is available the ticks pass unchecked.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class CollisionGuard {
+
+    private final int shoulder;
+    private final int elbow;
+    private final int wristPitch;
+    private final int wristYaw;
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile CollisionEnvelope envelope;
+
+    /**
+     * @param joints engine joint index of every {@link ArmGeometry} joint
+     */
+    public CollisionGuard(int[] joints) {
+        if (joints.length != ArmGeometry.JOINTS) {
+            throw new IllegalArgumentException("joints: " + ArmGeometry.JOINTS);
+        }
+        this.shoulder = joints[ArmGeometry.SHOULDER];
+        this.elbow = joints[ArmGeometry.ELBOW];
+        this.wristPitch = joints[ArmGeometry.WRIST_PITCH];
+        this.wristYaw = joints[ArmGeometry.WRIST_YAW];
+    }
+
+    /**
+     * @param envelope envelope of the arm
+     * @param joints   engine joint index of every {@link ArmGeometry} joint
+     */
+    public CollisionGuard(CollisionEnvelope envelope, int[] joints) {
+        this(joints);
+        this.envelope = envelope;
+    }
+
+    /**
+     * @return envelope or null when it is not built yet
+     */
+    public CollisionEnvelope getEnvelope() {
+        return envelope;
+    }
+
+    public void setEnvelope(CollisionEnvelope envelope) {
+        this.envelope = envelope;
+    }
+
+    public boolean isReady() {
+        return envelope != null;
+    }
+
+    int maxJoint() {
+        return Math.max(Math.max(shoulder, elbow), Math.max(wristPitch, wristYaw));
+    }
+
+    /**
+     * called by the tick thread only
+     *
+     * @return true when the joint values are blocked and the tick has been rejected,
+     * false while the envelope is not available
+     */
+    public boolean reject(float[] jointValues) {
+        final CollisionEnvelope current = envelope;
+        if (current != null && current.isBlocked(jointValues[shoulder], jointValues[elbow], jointValues[wristPitch], jointValues[wristYaw])) {
+            rejected.lazySet(rejected.get() + 1);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return ticks rejected by the envelope
+     */
+    public long getRejectedTicks() {
+        return rejected.get();
+    }
+}
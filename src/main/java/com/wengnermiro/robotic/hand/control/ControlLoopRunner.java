@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.control;
+
+import com.robo4j.logging.SimpleLoggingUtil;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * ControlLoopRunner runs the tick on the dedicated thread at the absolute deadlines.
+ * The thread parks until the deadline is close and spins the rest of the time.
+ * Lateness is measured from the scheduled deadline of the tick: the tick misses its deadline when it
+ * ends after the next deadline or when it starts later than half of the period, e.g. by the wake-up
+ * jitter or after catching up. Late ticks are handled by {@link MissedDeadlinePolicy},
+ * tick duration and start jitter are recorded by {@link LoopHistogram}s.
+ * Every {@link ExecutionLane} gets its own runner and thread priority. Linux ignores the priority
+ * unless the JVM runs with -XX:ThreadPriorityPolicy=1 and may raise it (root or CAP_SYS_NICE), see run.sh.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class ControlLoopRunner {
+
+    private static final long STOP_TIMEOUT_MILLIS = 1000;
+    private static final String PRIORITY_POLICY = "-XX:ThreadPriorityPolicy=1";
+    private static final AtomicBoolean PRIORITY_WARNING = new AtomicBoolean();
+
+    private final String name;
+    private final Runnable tick;
+    private final long periodNanos;
+    private final long spinNanos;
+    private final long lateStartNanos;
+    private final MissedDeadlinePolicy policy;
+    private final int priority;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final LoopHistogram durationHistogram = new LoopHistogram();
+    private final LoopHistogram jitterHistogram = new LoopHistogram();
+    private final AtomicLong windowMaxDuration = new AtomicLong();
+    private final AtomicLong windowMaxJitter = new AtomicLong();
+    private volatile long overruns;
+    private volatile long skippedTicks;
+    private volatile OverrunListener overrunListener;
+    private Thread thread;
+
+    public interface OverrunListener {
+        void onOverrun(long latenessNanos, long durationNanos, long skippedTicks);
+    }
+
+    public ControlLoopRunner(String name, Runnable tick, long period, TimeUnit unit, long spinNanos,
+                             MissedDeadlinePolicy policy) {
+        this(name, tick, period, unit, spinNanos, policy, Thread.MAX_PRIORITY);
+    }
+
+    public ControlLoopRunner(String name, Runnable tick, long period, TimeUnit unit, long spinNanos,
+                             MissedDeadlinePolicy policy, int priority) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+        this.name = name;
+        this.tick = tick;
+        this.periodNanos = unit.toNanos(period);
+        this.spinNanos = Math.max(0, Math.min(spinNanos, periodNanos));
+        this.lateStartNanos = periodNanos / 2;
+        this.policy = policy;
+        this.priority = Math.max(Thread.MIN_PRIORITY, Math.min(priority, Thread.MAX_PRIORITY));
+    }
+
+    public void setOverrunListener(OverrunListener overrunListener) {
+        this.overrunListener = overrunListener;
+    }
+
+    public synchronized void start() {
+        if (running.compareAndSet(false, true)) {
+            thread = new Thread(this::run, name);
+            thread.setDaemon(true);
+            thread.setPriority(priority);
+            thread.start();
+            if (priority != Thread.NORM_PRIORITY && isPriorityIgnored() && PRIORITY_WARNING.compareAndSet(false, true)) {
+                SimpleLoggingUtil.info(getClass(), "thread priorities are ignored, run the JVM with " + PRIORITY_POLICY
+                        + " as root or with CAP_SYS_NICE: " + name);
+            }
+        }
+    }
+
+    /**
+     * @return true on Linux when the JVM doesn't run with the priority policy
+     */
+    public static boolean isPriorityIgnored() {
+        return System.getProperty("os.name", "").startsWith("Linux")
+                && !ManagementFactory.getRuntimeMXBean().getInputArguments().contains(PRIORITY_POLICY);
+    }
+
+    /**
+     * stops the loop and waits until the running tick is finished
+     */
+    public synchronized void stop() {
+        if (running.compareAndSet(true, false)) {
+            final Thread loopThread = thread;
+            thread = null;
+            LockSupport.unpark(loopThread);
+            if (loopThread != Thread.currentThread()) {
+                try {
+                    loopThread.join(TimeUnit.NANOSECONDS.toMillis(periodNanos) + STOP_TIMEOUT_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (loopThread.isAlive()) {
+                    SimpleLoggingUtil.error(getClass(), "loop not stopped: " + name);
+                }
+            }
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getPeriodNanos() {
+        return periodNanos;
+    }
+
+    public MissedDeadlinePolicy getPolicy() {
+        return policy;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public LoopHistogram getDurationHistogram() {
+        return durationHistogram;
+    }
+
+    public LoopHistogram getJitterHistogram() {
+        return jitterHistogram;
+    }
+
+    /**
+     * @return max tick duration since the previous call
+     */
+    public long takeMaxDuration() {
+        return windowMaxDuration.getAndSet(0);
+    }
+
+    /**
+     * @return max start jitter since the previous call
+     */
+    public long takeMaxJitter() {
+        return windowMaxJitter.getAndSet(0);
+    }
+
+    public long getOverruns() {
+        return overruns;
+    }
+
+    public long getSkippedTicks() {
+        return skippedTicks;
+    }
+
+    /**
+     * @return tick statistics as the json object
+     */
+    public String getSummary() {
+        return "{\"priority\":" + priority +
+                ",\"periodNanos\":" + periodNanos +
+                ",\"ticks\":" + durationHistogram.getCount() +
+                ",\"overruns\":" + overruns +
+                ",\"skippedTicks\":" + skippedTicks +
+                ",\"durationP99\":" + durationHistogram.getPercentile(99) +
+                ",\"durationMax\":" + durationHistogram.getMax() +
+                ",\"jitterP99\":" + jitterHistogram.getPercentile(99) +
+                ",\"jitterMax\":" + jitterHistogram.getMax() +
+                '}';
+    }
+
+    private void run() {
+        long deadline = System.nanoTime() + periodNanos;
+        while (running.get()) {
+            long now = waitUntil(deadline);
+            if (!running.get()) {
+                break;
+            }
+            final long scheduled = deadline;
+            final long start = now;
+            try {
+                tick.run();
+            } catch (RuntimeException e) {
+                SimpleLoggingUtil.error(getClass(), "tick failed: " + name, e);
+            }
+            final long end = System.nanoTime();
+            final long duration = end - start;
+            final long jitter = start - scheduled;
+            durationHistogram.record(duration);
+            jitterHistogram.record(jitter);
+            if (duration > windowMaxDuration.get()) {
+                windowMaxDuration.lazySet(duration);
+            }
+            if (jitter > windowMaxJitter.get()) {
+                windowMaxJitter.lazySet(jitter);
+            }
+
+            deadline = scheduled + periodNanos;
+            final long lateness = end - deadline;
+            if (lateness > 0 || jitter > lateStartNanos) {
+                overruns++;
+                long missed = 0;
+                if (policy == MissedDeadlinePolicy.SKIP && lateness > 0) {
+                    missed = lateness / periodNanos + 1;
+                    deadline += missed * periodNanos;
+                    skippedTicks += missed;
+                }
+                final OverrunListener listener = overrunListener;
+                if (listener != null) {
+                    listener.onOverrun(Math.max(lateness, jitter), duration, missed);
+                }
+            }
+        }
+    }
+
+    private long waitUntil(long deadline) {
+        long now = System.nanoTime();
+        while (deadline - now > spinNanos && running.get()) {
+            LockSupport.parkNanos(deadline - now - spinNanos);
+            now = System.nanoTime();
+        }
+        while (deadline - now > 0) {
+            Thread.onSpinWait();
+            now = System.nanoTime();
+        }
+        return now;
+    }
+}
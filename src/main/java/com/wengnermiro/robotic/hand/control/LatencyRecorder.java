@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.control;
+
+/**
+ * LatencyRecorder input to actuation latency of every joint and {@link InputSource}.
+ * The input is marked by the press of the listener slot, the latency is recorded by the
+ * tick when the listener changes the joint value for the first time after the press.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class LatencyRecorder {
+
+    private static final InputSource[] SOURCES = InputSource.values();
+    private static final long NONE = 0;
+
+    private final String[] jointNames;
+    private final LatencyHistogram[][] histograms;
+    private final long[] inputNanos;
+    private final InputSource[] inputSources;
+
+    LatencyRecorder(String[] jointNames, int slots) {
+        this.jointNames = jointNames;
+        this.histograms = new LatencyHistogram[SOURCES.length][jointNames.length];
+        for (int i = 0; i < SOURCES.length; i++) {
+            for (int j = 0; j < jointNames.length; j++) {
+                histograms[i][j] = new LatencyHistogram();
+            }
+        }
+        this.inputNanos = new long[slots];
+        this.inputSources = new InputSource[slots];
+    }
+
+    public LatencyHistogram getHistogram(InputSource source, int joint) {
+        return histograms[source.ordinal()][joint];
+    }
+
+    /**
+     * percentile summary in nanoseconds of joints with any record, e.g.
+     * {"pad":{"servo1":{"count":10,"p50":..,"p99":..,"p999":..,"max":..}},"http":{}}
+     */
+    public String getSummary() {
+        final StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < SOURCES.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append('"').append(SOURCES[i].getName()).append("\":{");
+            boolean first = true;
+            for (int j = 0; j < jointNames.length; j++) {
+                final LatencyHistogram histogram = histograms[i][j];
+                if (histogram.getCount() == 0) {
+                    continue;
+                }
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                sb.append('"').append(jointNames[j]).append("\":{")
+                        .append("\"count\":").append(histogram.getCount())
+                        .append(",\"p50\":").append(histogram.getPercentile(50))
+                        .append(",\"p99\":").append(histogram.getPercentile(99))
+                        .append(",\"p999\":").append(histogram.getPercentile(99.9))
+                        .append(",\"max\":").append(histogram.getMax())
+                        .append('}');
+            }
+            sb.append('}');
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * called by the pressing thread before the listener is activated
+     */
+    void mark(int slot, InputSource source, long nanos) {
+        inputSources[slot] = source;
+        inputNanos[slot] = nanos == NONE ? 1 : nanos;
+    }
+
+    /**
+     * called by the tick thread when the active listener changed the joint value
+     */
+    void actuated(int slot, int joint) {
+        final long input = inputNanos[slot];
+        if (input != NONE) {
+            inputNanos[slot] = NONE;
+            histograms[inputSources[slot].ordinal()][joint].record(System.nanoTime() - input);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.control;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LoopHistogram lock-free histogram of nanosecond values with power of two buckets.
+ * Bucket i counts values in range [2^(i-1), 2^i), the bucket 0 counts zero.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class LoopHistogram {
+
+    public static final int BUCKETS = Long.SIZE;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private volatile long max;
+    private volatile long count;
+
+    /**
+     * single writer
+     */
+    public void record(long value) {
+        final long v = value < 0 ? 0 : value;
+        final int bucket = BUCKETS - Long.numberOfLeadingZeros(v);
+        buckets.lazySet(bucket, buckets.get(bucket) + 1);
+        if (v > max) {
+            max = v;
+        }
+        count++;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public long getBucketCount(int bucket) {
+        return buckets.get(bucket);
+    }
+
+    public static long getBucketUpperBound(int bucket) {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+    /**
+     * @param percentile value in range (0, 100]
+     * @return upper bound of the bucket containing the percentile
+     */
+    public long getPercentile(double percentile) {
+        final long total = count;
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = (long) Math.ceil(total * percentile / 100d);
+        long sum = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            sum += buckets.get(i);
+            if (sum >= rank) {
+                return Math.min(getBucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+}
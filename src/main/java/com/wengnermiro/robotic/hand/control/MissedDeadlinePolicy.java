@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.control;
+
+/**
+ * MissedDeadlinePolicy what the control loop does when the tick overruns its deadline
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public enum MissedDeadlinePolicy {
+    /**
+     * missed ticks are dropped, the loop continues on the next period boundary
+     */
+    SKIP,
+    /**
+     * missed ticks are executed back to back until the loop is on time
+     */
+    CATCH_UP
+    ;
+
+    public static MissedDeadlinePolicy getByName(String name) {
+        for (MissedDeadlinePolicy policy : values()) {
+            if (policy.name().equalsIgnoreCase(name)) {
+                return policy;
+            }
+        }
+        return SKIP;
+    }
+}
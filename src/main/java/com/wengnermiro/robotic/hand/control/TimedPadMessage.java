@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.control;
+
+import com.robo4j.hw.rpi.pad.LF710Input;
+import com.robo4j.hw.rpi.pad.LF710Message;
+import com.robo4j.hw.rpi.pad.LF710Part;
+import com.robo4j.hw.rpi.pad.LF710State;
+
+/**
+ * TimedPadMessage pad message carrying its {@link InputSource} and the {@link System#nanoTime()}
+ * of the input, used for the input to actuation latency
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public class TimedPadMessage extends LF710Message {
+
+    private final InputSource source;
+    private final long inputNanos;
+
+    public TimedPadMessage(long time, short amount, LF710Part part, LF710Input input, LF710State state,
+                           InputSource source, long inputNanos) {
+        super(time, amount, part, input, state);
+        this.source = source;
+        this.inputNanos = inputNanos;
+    }
+
+    public InputSource getSource() {
+        return source;
+    }
+
+    public long getInputNanos() {
+        return inputNanos;
+    }
+}
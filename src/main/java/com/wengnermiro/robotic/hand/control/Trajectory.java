@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.control;
+
+import java.util.Arrays;
+
+/**
+ * Trajectory compiled trajectory segment. Joint indexes are the indexes of the
+ * {@link ArmTickEngine}, times are nanoseconds from the segment start and values
+ * are stored by points, one value per joint.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class Trajectory {
+
+    private final int[] joints;
+    private final long[] times;
+    private final float[] values;
+
+    public Trajectory(int[] joints, long[] times, float[] values) {
+        if (times.length == 0) {
+            throw new IllegalArgumentException("no points");
+        }
+        if (values.length != joints.length * times.length) {
+            throw new IllegalArgumentException("values: " + values.length);
+        }
+        for (int i = 1; i < times.length; i++) {
+            if (times[i] < times[i - 1]) {
+                throw new IllegalArgumentException("time must not decrease: " + i);
+            }
+        }
+        this.joints = joints;
+        this.times = times;
+        this.values = values;
+    }
+
+    public int getJointCount() {
+        return joints.length;
+    }
+
+    public int getJoint(int index) {
+        return joints[index];
+    }
+
+    public int getPointCount() {
+        return times.length;
+    }
+
+    public long getTime(int point) {
+        return times[point];
+    }
+
+    public long getDuration() {
+        return times[times.length - 1];
+    }
+
+    public float getValue(int point, int index) {
+        return values[point * joints.length + index];
+    }
+
+    @Override
+    public String toString() {
+        return "Trajectory{" +
+                "joints=" + Arrays.toString(joints) +
+                ", points=" + times.length +
+                ", duration=" + getDuration() +
+                '}';
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.control;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * TrajectoryInterpolator linear interpolation of the {@link Trajectory} segments inside
+ * the control tick. Segments are submitted by any thread, interpolation is done by the
+ * tick thread only. Appended segments continue exactly at the end of the previous one.
+ * Joints follow the interpolated value with the step limited by the max velocity of the joint,
+ * the interpolator stays active until the joints reach the end of the last segment.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class TrajectoryInterpolator {
+
+    private static final Trajectory CANCEL = new Trajectory(new int[0], new long[]{0}, new float[0]);
+    private static final float NANOS_PER_SECOND = 1_000_000_000f;
+
+    private final Queue<Trajectory> segments = new ConcurrentLinkedQueue<>();
+    private final float[] startValues;
+    private final float[] targetValues;
+    private final boolean[] following;
+    private final float[] maxVelocities;
+    private volatile boolean active;
+    private Trajectory current;
+    private long segmentStart;
+    private long lastTick;
+    private int cursor;
+
+    public TrajectoryInterpolator(int jointCount) {
+        this.startValues = new float[jointCount];
+        this.targetValues = new float[jointCount];
+        this.following = new boolean[jointCount];
+        this.maxVelocities = new float[jointCount];
+        Arrays.fill(maxVelocities, Float.POSITIVE_INFINITY);
+    }
+
+    /**
+     * @param joint       joint index
+     * @param maxVelocity normalized servo units per second
+     */
+    public void setMaxVelocity(int joint, float maxVelocity) {
+        if (maxVelocity <= 0) {
+            throw new IllegalArgumentException("max velocity must be positive: " + maxVelocity);
+        }
+        maxVelocities[joint] = maxVelocity;
+    }
+
+    public float getMaxVelocity(int joint) {
+        return maxVelocities[joint];
+    }
+
+    public void submit(Trajectory trajectory, boolean append) {
+        if (!append) {
+            cancel();
+        }
+        segments.add(trajectory);
+        active = true;
+    }
+
+    public void cancel() {
+        segments.clear();
+        segments.add(CANCEL);
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * @param now         current nano time
+     * @param jointValues joint values updated by the trajectory
+     * @param output      output of changed joints
+     * @return true when any joint value has been changed
+     */
+    public boolean interpolate(long now, float[] jointValues, JointOutput output) {
+        while (segments.peek() == CANCEL) {
+            segments.poll();
+            current = null;
+            Arrays.fill(following, false);
+        }
+        final boolean running = current != null || isFollowing();
+        final long elapsed = running ? now - lastTick : 0;
+        lastTick = now;
+        if (current != null || nextSegment(now, jointValues)) {
+            sample(now);
+        }
+        final boolean changed = follow(elapsed, jointValues, output);
+        if (current == null && !isFollowing()) {
+            active = false;
+        }
+        return changed;
+    }
+
+    private void sample(long now) {
+        long time = now - segmentStart;
+        while (time >= current.getDuration()) {
+            final Trajectory finished = current;
+            final long end = segmentStart + finished.getDuration();
+            target(finished, finished.getPointCount() - 1, 1f);
+            if (!nextSegment(end, targetValues)) {
+                return;
+            }
+            time = now - segmentStart;
+        }
+
+        while (current.getTime(cursor) <= time) {
+            cursor++;
+        }
+        final long pointTime = current.getTime(cursor);
+        final long previousTime = cursor == 0 ? 0 : current.getTime(cursor - 1);
+        final float ratio = (float) (time - previousTime) / (pointTime - previousTime);
+        target(current, cursor, ratio);
+    }
+
+    /**
+     * @param startSource values the joints of the segment start from
+     */
+    private boolean nextSegment(long start, float[] startSource) {
+        do {
+            current = segments.poll();
+        } while (current == CANCEL);
+        if (current == null) {
+            return false;
+        }
+        segmentStart = start;
+        cursor = 0;
+        active = true;
+        for (int i = 0; i < current.getJointCount(); i++) {
+            final int joint = current.getJoint(i);
+            startValues[joint] = following[joint] ? targetValues[joint] : startSource[joint];
+        }
+        return true;
+    }
+
+    private void target(Trajectory trajectory, int point, float ratio) {
+        for (int i = 0; i < trajectory.getJointCount(); i++) {
+            final int joint = trajectory.getJoint(i);
+            final float from = point == 0 ? startValues[joint] : trajectory.getValue(point - 1, i);
+            final float to = trajectory.getValue(point, i);
+            targetValues[joint] = from + (to - from) * ratio;
+            following[joint] = true;
+        }
+    }
+
+    /**
+     * moves the joints towards the target values, the step is limited by the max velocity
+     */
+    private boolean follow(long elapsedNanos, float[] jointValues, JointOutput output) {
+        boolean changed = false;
+        for (int joint = 0; joint < following.length; joint++) {
+            if (!following[joint]) {
+                continue;
+            }
+            final float target = targetValues[joint];
+            final float maxStep = maxVelocities[joint] * (elapsedNanos / NANOS_PER_SECOND);
+            final float delta = target - jointValues[joint];
+            final float value;
+            if (Float.isInfinite(maxVelocities[joint]) || Math.abs(delta) <= maxStep) {
+                value = target;
+                following[joint] = false;
+            } else {
+                value = jointValues[joint] + Math.copySign(maxStep, delta);
+            }
+            if (value != jointValues[joint]) {
+                jointValues[joint] = value;
+                output.write(joint, value);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private boolean isFollowing() {
+        for (boolean joint : following) {
+            if (joint) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
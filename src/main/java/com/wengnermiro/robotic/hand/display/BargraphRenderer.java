@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.display;
+
+import com.robo4j.hw.rpi.i2c.adafruitbackpack.BiColor;
+import com.robo4j.hw.rpi.i2c.adafruitbackpack.PackElement;
+import com.robo4j.units.rpi.led.LEDBackpackMessage;
+import com.robo4j.units.rpi.led.LEDBackpackMessageType;
+
+/**
+ * BargraphRenderer keeps the level last sent to the 24 segments bargraph and
+ * renders only changed segments. The delta messages of all level changes are preallocated
+ * at the class initialization and never modified, so a message still in delivery may be sent again.
+ *
+ * Renderer is not thread safe, it is expected to be used by one sender.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class BargraphRenderer {
+
+    public static final int SEGMENTS = 24;
+
+    private static final int LEVELS = SEGMENTS + 1;
+    private static final LEDBackpackMessage[] DELTAS = createDeltas();
+
+    private int shownLevel;
+
+    /**
+     * remote bargraph is expected to be cleared
+     */
+    public void reset() {
+        shownLevel = 0;
+    }
+
+    /**
+     * @param level number of lit segments from the start
+     * @return shared delta message or null when the bargraph already shows the level
+     */
+    public LEDBackpackMessage render(int level) {
+        final int lit = Math.max(0, Math.min(level, SEGMENTS));
+        final LEDBackpackMessage message = DELTAS[shownLevel * LEVELS + lit];
+        shownLevel = lit;
+        return message;
+    }
+
+    /**
+     * delta from the shown level to the level, segments between both levels are switched
+     */
+    private static LEDBackpackMessage[] createDeltas() {
+        final PackElement[] offElements = createElements(BiColor.OFF);
+        final PackElement[] onElements = createElements(BiColor.GREEN);
+        final LEDBackpackMessage[] result = new LEDBackpackMessage[LEVELS * LEVELS];
+        for (int shown = 0; shown < LEVELS; shown++) {
+            for (int level = 0; level < LEVELS; level++) {
+                if (shown == level) {
+                    continue;
+                }
+                final LEDBackpackMessage message = new LEDBackpackMessage(LEDBackpackMessageType.DISPLAY);
+                for (int i = Math.min(shown, level); i < Math.max(shown, level); i++) {
+                    message.addElement(i < level ? onElements[i] : offElements[i]);
+                }
+                result[shown * LEVELS + level] = message;
+            }
+        }
+        return result;
+    }
+
+    private static PackElement[] createElements(BiColor color) {
+        final PackElement[] result = new PackElement[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            result[i] = new PackElement(i, color);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.display;
+
+import com.robo4j.hw.rpi.i2c.adafruitbackpack.BiColor;
+import com.robo4j.hw.rpi.i2c.adafruitbackpack.PackElement;
+import com.robo4j.units.rpi.led.LEDBackpackMessage;
+import com.robo4j.units.rpi.led.LEDBackpackMessageType;
+
+import java.util.Arrays;
+
+/**
+ * MatrixFramebuffer double buffered framebuffer of the square LED matrix. The requested frame
+ * is drawn to the back buffer, only pixels differing from the front buffer are rendered.
+ * Pixels are shared preallocated elements.
+ *
+ * Framebuffer is not thread safe, it is expected to be used by one sender.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class MatrixFramebuffer {
+
+    private static final BiColor[] COLORS = BiColor.values();
+
+    private final int size;
+    private final PackElement[][] elements;
+    private BiColor[] front;
+    private BiColor[] back;
+    private PackElement[] lastFrame;
+    private long renderedFrames;
+    private long droppedFrames;
+
+    public MatrixFramebuffer(int size) {
+        this.size = size;
+        this.elements = new PackElement[COLORS.length][size * size];
+        for (BiColor color : COLORS) {
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    elements[color.ordinal()][y * size + x] = new PackElement(x, y, color);
+                }
+            }
+        }
+        this.front = new BiColor[size * size];
+        this.back = new BiColor[size * size];
+        reset();
+    }
+
+    /**
+     * displayed matrix is expected to be cleared
+     */
+    public void reset() {
+        Arrays.fill(front, BiColor.OFF);
+        lastFrame = null;
+    }
+
+    /**
+     * @param frame pixels of the whole frame, missing pixels are off
+     * @return delta message or null when the frame is already displayed
+     */
+    public LEDBackpackMessage render(PackElement[] frame) {
+        if (frame == lastFrame) {
+            droppedFrames++;
+            return null;
+        }
+        Arrays.fill(back, BiColor.OFF);
+        for (PackElement element : frame) {
+            final int x = element.getX();
+            final int y = element.getY();
+            if (x >= 0 && x < size && y >= 0 && y < size) {
+                back[y * size + x] = element.getColor();
+            }
+        }
+        LEDBackpackMessage message = null;
+        for (int i = 0; i < back.length; i++) {
+            if (back[i] != front[i]) {
+                if (message == null) {
+                    message = new LEDBackpackMessage(LEDBackpackMessageType.DISPLAY);
+                }
+                message.addElement(elements[back[i].ordinal()][i]);
+            }
+        }
+        final BiColor[] swap = front;
+        front = back;
+        back = swap;
+        lastFrame = frame;
+        if (message == null) {
+            droppedFrames++;
+        } else {
+            renderedFrames++;
+        }
+        return message;
+    }
+
+    public BiColor getPixel(int x, int y) {
+        return front[y * size + x];
+    }
+
+    public long getRenderedFrames() {
+        return renderedFrames;
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.display;
+
+/**
+ * SpriteSequence sequence of the sprite sheet frames played at the frame rate
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class SpriteSequence {
+
+    private final String name;
+    private final int[] frames;
+    private final int frameRate;
+    private final boolean loop;
+
+    public SpriteSequence(String name, int[] frames, int frameRate, boolean loop) {
+        if (frames.length == 0 || frameRate <= 0) {
+            throw new IllegalArgumentException("not valid sequence: " + name);
+        }
+        this.name = name;
+        this.frames = frames;
+        this.frameRate = frameRate;
+        this.loop = loop;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int length() {
+        return frames.length;
+    }
+
+    /**
+     * @return index of the sprite sheet frame
+     */
+    public int getFrame(int index) {
+        return frames[index];
+    }
+
+    public int getFrameRate() {
+        return frameRate;
+    }
+
+    public boolean isLoop() {
+        return loop;
+    }
+}
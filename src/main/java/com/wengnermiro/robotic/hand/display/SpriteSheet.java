@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.display;
+
+import com.robo4j.hw.rpi.i2c.adafruitbackpack.BiColor;
+import com.robo4j.hw.rpi.i2c.adafruitbackpack.PackElement;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SpriteSheet frames and sequences of the square LED matrix decoded once from the binary form.
+ * Frame contains only lit pixels, other pixels are off.
+ *
+ * Binary form (big endian):
+ * magic 'S' 'P' 'R', version, matrix size, frame count (unsigned short),
+ * frames with 2 bits color value per pixel row by row, 4 pixels per byte from the high bits,
+ * sequence count (unsigned byte), per sequence the name length (unsigned byte), US-ASCII name,
+ * frame rate, loop flag, frame count (unsigned bytes) and frame indexes (unsigned shorts).
+ * The binary form is compiled from the text form by the {@link SpriteSheetCompiler}.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class SpriteSheet {
+
+    static final byte[] MAGIC = {'S', 'P', 'R'};
+    static final int VERSION = 1;
+    static final int PIXELS_PER_BYTE = 4;
+
+    private final int size;
+    private final PackElement[][] frames;
+    private final Map<String, SpriteSequence> sequences;
+
+    private SpriteSheet(int size, PackElement[][] frames, Map<String, SpriteSequence> sequences) {
+        this.size = size;
+        this.frames = frames;
+        this.sequences = Collections.unmodifiableMap(sequences);
+    }
+
+    public static SpriteSheet load(InputStream inputStream) throws IOException {
+        final DataInputStream is = new DataInputStream(inputStream);
+        for (byte b : MAGIC) {
+            if (is.readByte() != b) {
+                throw new IOException("not sprite sheet");
+            }
+        }
+        final int version = is.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("not supported version: " + version);
+        }
+        final int size = is.readUnsignedByte();
+        if (size == 0 || size % PIXELS_PER_BYTE != 0) {
+            throw new IOException("not supported size: " + size);
+        }
+        final PackElement[][] frames = new PackElement[is.readUnsignedShort()][];
+        final byte[] frame = new byte[size * size / PIXELS_PER_BYTE];
+        for (int i = 0; i < frames.length; i++) {
+            is.readFully(frame);
+            frames[i] = decodeFrame(size, frame);
+        }
+        final int sequenceCount = is.readUnsignedByte();
+        final Map<String, SpriteSequence> sequences = new HashMap<>(sequenceCount * 2);
+        for (int i = 0; i < sequenceCount; i++) {
+            final byte[] name = new byte[is.readUnsignedByte()];
+            is.readFully(name);
+            final int frameRate = is.readUnsignedByte();
+            final boolean loop = is.readUnsignedByte() != 0;
+            final int[] indexes = new int[is.readUnsignedByte()];
+            for (int j = 0; j < indexes.length; j++) {
+                indexes[j] = is.readUnsignedShort();
+                if (indexes[j] >= frames.length) {
+                    throw new IOException("not valid frame index: " + indexes[j]);
+                }
+            }
+            final SpriteSequence sequence;
+            try {
+                sequence = new SpriteSequence(new String(name, StandardCharsets.US_ASCII), indexes, frameRate, loop);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage());
+            }
+            sequences.put(sequence.getName(), sequence);
+        }
+        return new SpriteSheet(size, frames, sequences);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getFrameCount() {
+        return frames.length;
+    }
+
+    public PackElement[] getFrame(int index) {
+        return frames[index];
+    }
+
+    /**
+     * @return sequence or null
+     */
+    public SpriteSequence getSequence(String name) {
+        return sequences.get(name);
+    }
+
+    private static PackElement[] decodeFrame(int size, byte[] frame) {
+        final List<PackElement> result = new ArrayList<>();
+        for (int i = 0; i < size * size; i++) {
+            final int shift = (PIXELS_PER_BYTE - 1 - i % PIXELS_PER_BYTE) * 2;
+            final int value = (frame[i / PIXELS_PER_BYTE] >> shift) & 0x03;
+            if (value != 0) {
+                result.add(new PackElement(i % size, i / size, BiColor.getByValue(value)));
+            }
+        }
+        return result.toArray(new PackElement[0]);
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.wengnermiro.robotic.hand.display;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SpriteSheetCompiler compiles the text form of the sprite sheet into the binary form read by
+ * {@link SpriteSheet#load(java.io.InputStream)}, see src/main/sprites. Used by the Gradle task spriteSheet.
+ *
+ * Text form, empty lines and lines starting with '#' are skipped:
+ * size of the matrix, frames with one row of pixels per line ('.' off, 'R' red, 'G' green, 'Y' yellow)
+ * and sequences of the frames by name.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class SpriteSheetCompiler {
+
+    private static final String PIXELS = ".RGY";
+    private static final String KEY_SIZE = "size";
+    private static final String KEY_FRAME = "frame";
+    private static final String KEY_SEQUENCE = "sequence";
+    private static final String LOOP = "loop";
+    private static final String ONCE = "once";
+    private static final int MAX_UNSIGNED_BYTE = 0xFF;
+    private static final int MAX_UNSIGNED_SHORT = 0xFFFF;
+
+    private SpriteSheetCompiler() {
+    }
+
+    /**
+     * @param args text form, binary form
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("java SpriteSheetCompiler <text form> <binary form>");
+            System.exit(2);
+        }
+        final byte[] sheet;
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.US_ASCII)) {
+            sheet = compile(reader);
+        }
+        final Path output = Paths.get(args[1]);
+        Files.write(output, sheet);
+        System.out.println("sprite sheet: " + output + ", bytes: " + sheet.length);
+    }
+
+    public static byte[] compile(Reader source) throws IOException {
+        final BufferedReader reader = source instanceof BufferedReader ? (BufferedReader) source : new BufferedReader(source);
+        final List<byte[]> frames = new ArrayList<>();
+        final Map<String, Integer> frameIndexes = new HashMap<>();
+        final ByteArrayOutputStream sequences = new ByteArrayOutputStream();
+        final DataOutputStream sequencesOut = new DataOutputStream(sequences);
+        int size = 0;
+        int sequenceCount = 0;
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            final String[] tokens = line.split("\\s+");
+            switch (tokens[0]) {
+                case KEY_SIZE:
+                    if (size != 0 || tokens.length != 2) {
+                        throw error(lineNumber, "not valid size");
+                    }
+                    size = parse(tokens[1], lineNumber);
+                    if (size == 0 || size > MAX_UNSIGNED_BYTE || size % SpriteSheet.PIXELS_PER_BYTE != 0) {
+                        throw error(lineNumber, "not supported size: " + size);
+                    }
+                    break;
+                case KEY_FRAME:
+                    if (size == 0 || tokens.length != 2 || frameIndexes.containsKey(tokens[1])) {
+                        throw error(lineNumber, "not valid frame");
+                    }
+                    if (frames.size() == MAX_UNSIGNED_SHORT) {
+                        throw error(lineNumber, "too many frames");
+                    }
+                    frameIndexes.put(tokens[1], frames.size());
+                    frames.add(readFrame(reader, size, lineNumber));
+                    lineNumber += size;
+                    break;
+                case KEY_SEQUENCE:
+                    if (tokens.length < 5 || sequenceCount == MAX_UNSIGNED_BYTE) {
+                        throw error(lineNumber, "not valid sequence");
+                    }
+                    writeSequence(sequencesOut, tokens, frameIndexes, lineNumber);
+                    sequenceCount++;
+                    break;
+                default:
+                    throw error(lineNumber, "unknown key: " + tokens[0]);
+            }
+        }
+        if (size == 0) {
+            throw new IOException("missing size");
+        }
+
+        final ByteArrayOutputStream result = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(result);
+        out.write(SpriteSheet.MAGIC);
+        out.writeByte(SpriteSheet.VERSION);
+        out.writeByte(size);
+        out.writeShort(frames.size());
+        for (byte[] frame : frames) {
+            out.write(frame);
+        }
+        out.writeByte(sequenceCount);
+        sequences.writeTo(out);
+        out.flush();
+        return result.toByteArray();
+    }
+
+    private static byte[] readFrame(BufferedReader reader, int size, int lineNumber) throws IOException {
+        final byte[] frame = new byte[size * size / SpriteSheet.PIXELS_PER_BYTE];
+        for (int y = 0; y < size; y++) {
+            final String row = reader.readLine();
+            if (row == null || row.trim().length() != size) {
+                throw error(lineNumber + y + 1, "frame row expected, pixels: " + size);
+            }
+            final String pixels = row.trim();
+            for (int x = 0; x < size; x++) {
+                final int value = PIXELS.indexOf(pixels.charAt(x));
+                if (value < 0) {
+                    throw error(lineNumber + y + 1, "not valid pixel: " + pixels.charAt(x));
+                }
+                final int i = y * size + x;
+                final int shift = (SpriteSheet.PIXELS_PER_BYTE - 1 - i % SpriteSheet.PIXELS_PER_BYTE) * 2;
+                frame[i / SpriteSheet.PIXELS_PER_BYTE] |= value << shift;
+            }
+        }
+        return frame;
+    }
+
+    private static void writeSequence(DataOutputStream out, String[] tokens, Map<String, Integer> frameIndexes,
+                                      int lineNumber) throws IOException {
+        final byte[] name = tokens[1].getBytes(StandardCharsets.US_ASCII);
+        final int frameRate = parse(tokens[2], lineNumber);
+        final int frameCount = tokens.length - 4;
+        if (name.length > MAX_UNSIGNED_BYTE || frameRate == 0 || frameRate > MAX_UNSIGNED_BYTE
+                || frameCount > MAX_UNSIGNED_BYTE) {
+            throw error(lineNumber, "not valid sequence: " + tokens[1]);
+        }
+        final boolean loop;
+        if (LOOP.equals(tokens[3])) {
+            loop = true;
+        } else if (ONCE.equals(tokens[3])) {
+            loop = false;
+        } else {
+            throw error(lineNumber, "loop or once expected: " + tokens[3]);
+        }
+        out.writeByte(name.length);
+        out.write(name);
+        out.writeByte(frameRate);
+        out.writeByte(loop ? 1 : 0);
+        out.writeByte(frameCount);
+        for (int i = 4; i < tokens.length; i++) {
+            final Integer index = frameIndexes.get(tokens[i]);
+            if (index == null) {
+                throw error(lineNumber, "frame not found: " + tokens[i]);
+            }
+            out.writeShort(index);
+        }
+    }
+
+    private static int parse(String value, int lineNumber) throws IOException {
+        try {
+            return Integer.parseUnsignedInt(value);
+        } catch (NumberFormatException e) {
+            throw error(lineNumber, "not valid number: " + value);
+        }
+    }
+
+    private static IOException error(int lineNumber, String message) {
+        return new IOException("line " + lineNumber + ": " + message);
+    }
+}
@@ -33,21 +33,17 @@ import jdk.jfr.Label;
 public class JfrBargraphEvent extends Event {
 
     @Label("amount")
-    private final float amount;
+    private float amount;
 
     @Label("bargraphCounter")
-    private final int bargraphCounter;
+    private int bargraphCounter;
 
     @Label("incrementing")
-    private final boolean incrementing;
+    private boolean incrementing;
 
-    @Label("Thread Name")
-    private final String threadName;
-
-    public JfrBargraphEvent(float amount, int bargraphCounter, boolean incrementing, String threadName) {
+    public void set(float amount, int bargraphCounter, boolean incrementing) {
         this.amount = amount;
         this.bargraphCounter = bargraphCounter;
         this.incrementing = incrementing;
-        this.threadName = threadName;
     }
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Period;
+
+/**
+ * JfrJointSummaryEvent position and travelled distance of the joint since the previous event
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+@Category("RoboticArm-Demo")
+@Label("JfrJointSummaryEvent")
+@Description("Robotic Arm joint position and travel")
+@Period("1 s")
+public class JfrJointSummaryEvent extends Event {
+
+    @Label("loop")
+    private String loop;
+
+    @Label("joint")
+    private String joint;
+
+    @Label("position")
+    private float position;
+
+    @Label("travel")
+    private double travel;
+
+    public void set(String loop, String joint, float position, double travel) {
+        this.loop = loop;
+        this.joint = joint;
+        this.position = position;
+        this.travel = travel;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Period;
+import jdk.jfr.Timespan;
+
+/**
+ * JfrLoopHistogramEvent one bucket of the control loop histogram
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+@Category("RoboticArm-Demo")
+@Label("JfrLoopHistogramEvent")
+@Description("Robotic Arm control loop tick duration and jitter histogram bucket")
+@Period("10 s")
+public class JfrLoopHistogramEvent extends Event {
+
+    @Label("loop")
+    private String loop;
+
+    @Label("histogram")
+    private String histogram;
+
+    @Label("upperBound")
+    @Timespan(Timespan.NANOSECONDS)
+    private long upperBound;
+
+    @Label("count")
+    private long count;
+
+    public void set(String loop, String histogram, long upperBound, long count) {
+        this.loop = loop;
+        this.histogram = histogram;
+        this.upperBound = upperBound;
+        this.count = count;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.jfr;
+
+import com.wengnermiro.robotic.hand.control.ArmTickEngine;
+import com.wengnermiro.robotic.hand.control.ControlLoopRunner;
+import com.wengnermiro.robotic.hand.control.LoopHistogram;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * JfrLoopStatistics publishes {@link ControlLoopRunner} and {@link ArmTickEngine} statistics as JFR events.
+ * Periodic events are aggregated by the periodic hooks, overruns are sampled. Every measurement gets its own
+ * event instance, the overrun event is created only for the sample while the recording is enabled. Every {@link com.wengnermiro.robotic.hand.control.ExecutionLane} runner
+ * is registered separately, joint events are emitted only by the statistics having the engine.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class JfrLoopStatistics {
+
+    private static final String HISTOGRAM_DURATION = "duration";
+    private static final String HISTOGRAM_JITTER = "jitter";
+
+    private final ControlLoopRunner runner;
+    private final ArmTickEngine engine;
+    private static final EventType OVERRUN_EVENT_TYPE = EventType.getEventType(JfrLoopOverrunEvent.class);
+
+    private final double[] lastTravel;
+    private final JfrSampler overrunSampler = new JfrSampler();
+    private final Runnable summaryHook = this::emitSummary;
+    private final Runnable histogramHook = this::emitHistograms;
+    private final Runnable jointHook = this::emitJoints;
+    private long lastTicks;
+
+    private JfrLoopStatistics(ControlLoopRunner runner, ArmTickEngine engine) {
+        this.runner = runner;
+        this.engine = engine;
+        this.lastTravel = new double[engine == null ? 0 : engine.jointCount()];
+    }
+
+    /**
+     * @param engine engine of the joint events or null
+     */
+    public static JfrLoopStatistics register(ControlLoopRunner runner, ArmTickEngine engine) {
+        JfrLoopStatistics statistics = new JfrLoopStatistics(runner, engine);
+        runner.setOverrunListener(statistics::emitOverrun);
+        FlightRecorder.addPeriodicEvent(JfrLoopSummaryEvent.class, statistics.summaryHook);
+        FlightRecorder.addPeriodicEvent(JfrLoopHistogramEvent.class, statistics.histogramHook);
+        if (engine != null) {
+            FlightRecorder.addPeriodicEvent(JfrJointSummaryEvent.class, statistics.jointHook);
+        }
+        return statistics;
+    }
+
+    public void unregister() {
+        runner.setOverrunListener(null);
+        FlightRecorder.removePeriodicEvent(summaryHook);
+        FlightRecorder.removePeriodicEvent(histogramHook);
+        FlightRecorder.removePeriodicEvent(jointHook);
+    }
+
+    private void emitOverrun(long lateness, long duration, long skippedTicks) {
+        if (OVERRUN_EVENT_TYPE.isEnabled() && overrunSampler.sample(System.nanoTime())) {
+            final JfrLoopOverrunEvent overrunEvent = new JfrLoopOverrunEvent();
+            overrunEvent.begin();
+            overrunEvent.set(runner.getName(), lateness, duration, skippedTicks);
+            if (overrunEvent.shouldCommit()) {
+                overrunEvent.commit();
+            }
+        }
+    }
+
+    private void emitSummary() {
+        LoopHistogram duration = runner.getDurationHistogram();
+        LoopHistogram jitter = runner.getJitterHistogram();
+        long ticks = duration.getCount();
+        final JfrLoopSummaryEvent summaryEvent = new JfrLoopSummaryEvent();
+        summaryEvent.begin();
+        summaryEvent.set(runner.getName(), ticks, runner.getOverruns(), runner.getSkippedTicks(), duration.getMax(),
+                duration.getPercentile(99), jitter.getMax(), jitter.getPercentile(99));
+        summaryEvent.setPeriod(ticks - lastTicks, runner.takeMaxDuration(), runner.takeMaxJitter());
+        lastTicks = ticks;
+        summaryEvent.commit();
+    }
+
+    private void emitJoints() {
+        for (int i = 0; i < lastTravel.length; i++) {
+            double travel = engine.getJointTravel(i);
+            final JfrJointSummaryEvent jointEvent = new JfrJointSummaryEvent();
+            jointEvent.begin();
+            jointEvent.set(runner.getName(), engine.getJointName(i), engine.getJointValue(i), travel - lastTravel[i]);
+            lastTravel[i] = travel;
+            jointEvent.commit();
+        }
+    }
+
+    private void emitHistograms() {
+        emitHistogram(HISTOGRAM_DURATION, runner.getDurationHistogram());
+        emitHistogram(HISTOGRAM_JITTER, runner.getJitterHistogram());
+    }
+
+    private void emitHistogram(String name, LoopHistogram histogram) {
+        for (int i = 0; i < LoopHistogram.BUCKETS; i++) {
+            long count = histogram.getBucketCount(i);
+            if (count > 0) {
+                final JfrLoopHistogramEvent histogramEvent = new JfrLoopHistogramEvent();
+                histogramEvent.begin();
+                histogramEvent.set(runner.getName(), name, LoopHistogram.getBucketUpperBound(i), count);
+                histogramEvent.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Period;
+import jdk.jfr.Timespan;
+
+/**
+ * JfrLoopSummaryEvent aggregated control loop statistics, period values are since the previous event
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+@Category("RoboticArm-Demo")
+@Label("JfrLoopSummaryEvent")
+@Description("Robotic Arm control loop statistics")
+@Period("1 s")
+public class JfrLoopSummaryEvent extends Event {
+
+    @Label("loop")
+    private String loop;
+
+    @Label("ticks")
+    private long ticks;
+
+    @Label("overruns")
+    private long overruns;
+
+    @Label("skippedTicks")
+    private long skippedTicks;
+
+    @Label("maxDuration")
+    @Timespan(Timespan.NANOSECONDS)
+    private long maxDuration;
+
+    @Label("p99Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    private long p99Duration;
+
+    @Label("maxJitter")
+    @Timespan(Timespan.NANOSECONDS)
+    private long maxJitter;
+
+    @Label("p99Jitter")
+    @Timespan(Timespan.NANOSECONDS)
+    private long p99Jitter;
+
+    @Label("periodTicks")
+    private long periodTicks;
+
+    @Label("periodMaxDuration")
+    @Timespan(Timespan.NANOSECONDS)
+    private long periodMaxDuration;
+
+    @Label("periodMaxJitter")
+    @Timespan(Timespan.NANOSECONDS)
+    private long periodMaxJitter;
+
+    public void set(String loop, long ticks, long overruns, long skippedTicks, long maxDuration,
+                    long p99Duration, long maxJitter, long p99Jitter) {
+        this.loop = loop;
+        this.ticks = ticks;
+        this.overruns = overruns;
+        this.skippedTicks = skippedTicks;
+        this.maxDuration = maxDuration;
+        this.p99Duration = p99Duration;
+        this.maxJitter = maxJitter;
+        this.p99Jitter = p99Jitter;
+    }
+
+    public void setPeriod(long periodTicks, long periodMaxDuration, long periodMaxJitter) {
+        this.periodTicks = periodTicks;
+        this.periodMaxDuration = periodMaxDuration;
+        this.periodMaxJitter = periodMaxJitter;
+    }
+}
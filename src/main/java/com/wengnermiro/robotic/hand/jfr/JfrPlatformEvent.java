@@ -35,17 +35,13 @@ import jdk.jfr.Label;
 public class JfrPlatformEvent extends Event {
 
     @Label("source")
-    private final String source;
+    private String source;
 
     @Label("value")
-    private final float value;
+    private float value;
 
-    @Label("Thread Name")
-    private final String threadName;
-
-    public JfrPlatformEvent(String source, float value, String threadName) {
+    public void set(String source, float value) {
         this.source = source;
         this.value = value;
-        this.threadName = threadName;
     }
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.jfr;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JfrSampler limits the rate of the per sample events, only one sample passes in the interval
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class JfrSampler {
+
+    public static final long DEFAULT_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final long intervalNanos;
+    private final AtomicLong nextSample = new AtomicLong(System.nanoTime());
+
+    public JfrSampler() {
+        this(DEFAULT_INTERVAL_NANOS);
+    }
+
+    public JfrSampler(long intervalNanos) {
+        this.intervalNanos = intervalNanos;
+    }
+
+    /**
+     * @param nanoTime current {@link System#nanoTime()}
+     * @return true when the sample should be recorded
+     */
+    public boolean sample(long nanoTime) {
+        final long next = nextSample.get();
+        return nanoTime - next >= 0 && nextSample.compareAndSet(next, nanoTime + intervalNanos);
+    }
+}
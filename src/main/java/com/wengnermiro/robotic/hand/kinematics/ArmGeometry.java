@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.kinematics;
+
+import java.util.Arrays;
+
+/**
+ * ArmGeometry geometry of the six axis arm: base yaw, shoulder pitch, elbow pitch,
+ * wrist pitch, wrist yaw and wrist roll. Every joint sits at the end of its link
+ * (local z axis) and rotates around its local axis. The normalized joint value
+ * [-1, 1] maps to the angle zero + value * range, lengths are in millimeters.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class ArmGeometry {
+
+    public static final int BASE = 0;
+    public static final int SHOULDER = 1;
+    public static final int ELBOW = 2;
+    public static final int WRIST_PITCH = 3;
+    public static final int WRIST_YAW = 4;
+    public static final int WRIST_ROLL = 5;
+    public static final int JOINTS = 6;
+
+    static final int AXIS_X = 0;
+    static final int AXIS_Y = 1;
+    static final int AXIS_Z = 2;
+
+    public static final float DEFAULT_BASE_HEIGHT = 90f;
+    public static final float DEFAULT_UPPER_ARM = 105f;
+    public static final float DEFAULT_FOREARM = 98f;
+    public static final float DEFAULT_WRIST = 65f;
+    public static final float DEFAULT_TOOL = 85f;
+    public static final float DEFAULT_RANGE_DEGREES = 90f;
+    private static final float HALF_SERVO_RANGE = (float) Math.toRadians(DEFAULT_RANGE_DEGREES);
+
+    private static final String[] JOINT_NAMES = {"base", "shoulder", "elbow", "wristPitch", "wristYaw", "wristRoll"};
+
+    private static final int[] AXES = {AXIS_Z, AXIS_Y, AXIS_Y, AXIS_Y, AXIS_X, AXIS_Z};
+
+    private final float[] links;
+    private final float tool;
+    private final float[] zeroAngles;
+    private final float[] ranges;
+
+    /**
+     * @param links      length of the link before every joint
+     * @param tool       length from the last joint to the gripper tip
+     * @param zeroAngles joint angle at the normalized value 0 (radians)
+     * @param ranges     joint angle per normalized unit (radians), negative for the reversed servo
+     */
+    public ArmGeometry(float[] links, float tool, float[] zeroAngles, float[] ranges) {
+        if (links.length != JOINTS || zeroAngles.length != JOINTS || ranges.length != JOINTS) {
+            throw new IllegalArgumentException("joints: " + JOINTS);
+        }
+        for (float range : ranges) {
+            if (range == 0) {
+                throw new IllegalArgumentException("zero joint range");
+            }
+        }
+        this.links = links.clone();
+        this.tool = tool;
+        this.zeroAngles = zeroAngles.clone();
+        this.ranges = ranges.clone();
+    }
+
+    /**
+     * SainSmart arm, all servos with 180 degrees travel centered at the normalized value 0
+     */
+    public static ArmGeometry sainSmart(float baseHeight, float upperArm, float forearm, float wrist, float tool) {
+        final float[] ranges = new float[JOINTS];
+        Arrays.fill(ranges, HALF_SERVO_RANGE);
+        return sainSmart(baseHeight, upperArm, forearm, wrist, tool, new float[JOINTS], ranges);
+    }
+
+    /**
+     * SainSmart arm with the calibrated servos
+     *
+     * @param zeroAngles joint angle at the normalized value 0 (radians)
+     * @param ranges     joint angle per normalized unit (radians), negative for the reversed servo
+     */
+    public static ArmGeometry sainSmart(float baseHeight, float upperArm, float forearm, float wrist, float tool,
+                                       float[] zeroAngles, float[] ranges) {
+        return new ArmGeometry(new float[]{0, baseHeight, upperArm, forearm, wrist, 0}, tool, zeroAngles, ranges);
+    }
+
+    public static ArmGeometry sainSmart() {
+        return sainSmart(DEFAULT_BASE_HEIGHT, DEFAULT_UPPER_ARM, DEFAULT_FOREARM, DEFAULT_WRIST, DEFAULT_TOOL);
+    }
+
+    /**
+     * @return name of the joint configuration, e.g. wristPitch
+     */
+    public static String getJointName(int joint) {
+        return JOINT_NAMES[joint];
+    }
+
+    public float getLink(int joint) {
+        return links[joint];
+    }
+
+    public float getTool() {
+        return tool;
+    }
+
+    public float getZeroAngle(int joint) {
+        return zeroAngles[joint];
+    }
+
+    public float getRange(int joint) {
+        return ranges[joint];
+    }
+
+    /**
+     * @return max distance of the gripper tip from the base origin
+     */
+    public float getReach() {
+        float reach = tool;
+        for (float link : links) {
+            reach += link;
+        }
+        return reach;
+    }
+
+    /**
+     * @return max distance of the gripper tip from the shoulder
+     */
+    public float getShoulderReach() {
+        return getReach() - links[BASE] - links[SHOULDER];
+    }
+
+    /**
+     * @return hash of all dimensions, identifies data derived from the geometry
+     */
+    public long fingerprint() {
+        long hash = 17;
+        for (int i = 0; i < JOINTS; i++) {
+            hash = hash * 31 + Float.floatToIntBits(links[i]);
+            hash = hash * 31 + Float.floatToIntBits(zeroAngles[i]);
+            hash = hash * 31 + Float.floatToIntBits(ranges[i]);
+        }
+        return hash * 31 + Float.floatToIntBits(tool);
+    }
+
+    int getAxis(int joint) {
+        return AXES[joint];
+    }
+
+    double toAngle(int joint, float value) {
+        return zeroAngles[joint] + (double) value * ranges[joint];
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.kinematics;
+
+import static com.wengnermiro.robotic.hand.kinematics.ArmGeometry.AXIS_X;
+import static com.wengnermiro.robotic.hand.kinematics.ArmGeometry.AXIS_Y;
+import static com.wengnermiro.robotic.hand.kinematics.ArmGeometry.JOINTS;
+
+/**
+ * ArmKinematics forward kinematics of the {@link ArmGeometry} and the iterative inverse kinematics
+ * of the gripper tip position (damped least squares over the position jacobian).
+ * The solver works directly with the normalized joint values, so the joint limits are the servo limits.
+ * All matrices are preallocated, neither the forward kinematics nor the solver allocates.
+ * The instance is not thread safe.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class ArmKinematics {
+
+    public static final float DEFAULT_DAMPING = 10f;
+    public static final float DEFAULT_TOLERANCE = 1f;
+    public static final float DEFAULT_MAX_STEP = 0.1f;
+
+    private final ArmGeometry geometry;
+    private final double damping2;
+    private final double tolerance2;
+    private final float maxStep;
+    /* column major 4x4 homogeneous transformation of the current joint */
+    private final double[] frame = new double[16];
+    private final double[] jointPositions = new double[JOINTS * 3];
+    private final double[] jointAxes = new double[JOINTS * 3];
+    private final double[] tip = new double[3];
+    /* row major 3 x JOINTS jacobian of the tip position by the normalized joint values */
+    private final double[] jacobian = new double[3 * JOINTS];
+    private final double[] gram = new double[9];
+    private final double[] error = new double[3];
+    private final double[] multipliers = new double[3];
+    private int iterations;
+    private double errorDistance;
+
+    public ArmKinematics(ArmGeometry geometry) {
+        this(geometry, DEFAULT_DAMPING, DEFAULT_TOLERANCE, DEFAULT_MAX_STEP);
+    }
+
+    /**
+     * @param geometry  arm geometry
+     * @param damping   damping of the least squares in millimeters, avoids jumps close to singularities
+     * @param tolerance max distance of the solution from the target in millimeters
+     * @param maxStep   max change of the normalized joint value by one iteration
+     */
+    public ArmKinematics(ArmGeometry geometry, float damping, float tolerance, float maxStep) {
+        if (damping <= 0 || tolerance <= 0 || maxStep <= 0) {
+            throw new IllegalArgumentException("damping, tolerance and max step must be positive");
+        }
+        this.geometry = geometry;
+        this.damping2 = (double) damping * damping;
+        this.tolerance2 = (double) tolerance * tolerance;
+        this.maxStep = maxStep;
+    }
+
+    public ArmGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * @param values   normalized joint values, {@link ArmGeometry#JOINTS} long
+     * @param position gripper tip position x, y, z
+     */
+    public void forward(float[] values, double[] position) {
+        evaluate(values);
+        position[0] = tip[0];
+        position[1] = tip[1];
+        position[2] = tip[2];
+    }
+
+    /**
+     * runs at most maxIterations from the values as the seed
+     *
+     * @param x             target x
+     * @param y             target y
+     * @param z             target z
+     * @param values        seed and the result, normalized joint values
+     * @param maxIterations max iterations
+     * @return true when the tip is within the tolerance from the target
+     */
+    public boolean solve(double x, double y, double z, float[] values, int maxIterations) {
+        iterations = 0;
+        while (true) {
+            evaluate(values);
+            error[0] = x - tip[0];
+            error[1] = y - tip[1];
+            error[2] = z - tip[2];
+            final double distance2 = error[0] * error[0] + error[1] * error[1] + error[2] * error[2];
+            errorDistance = Math.sqrt(distance2);
+            if (distance2 <= tolerance2) {
+                return true;
+            }
+            if (iterations == maxIterations) {
+                return false;
+            }
+            iterations++;
+            step(values);
+        }
+    }
+
+    /**
+     * @return iterations of the last solve
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * @return distance of the tip from the target after the last solve
+     */
+    public double getErrorDistance() {
+        return errorDistance;
+    }
+
+    /**
+     * values += J^T (J J^T + damping^2 I)^-1 error
+     */
+    private void step(float[] values) {
+        for (int r = 0; r < 3; r++) {
+            for (int c = r; c < 3; c++) {
+                double sum = 0;
+                for (int j = 0; j < JOINTS; j++) {
+                    sum += jacobian[r * JOINTS + j] * jacobian[c * JOINTS + j];
+                }
+                gram[r * 3 + c] = sum;
+                gram[c * 3 + r] = sum;
+            }
+            gram[r * 4] += damping2;
+        }
+        solve3(gram, error, multipliers);
+        for (int j = 0; j < JOINTS; j++) {
+            double delta = jacobian[j] * multipliers[0] + jacobian[JOINTS + j] * multipliers[1]
+                    + jacobian[2 * JOINTS + j] * multipliers[2];
+            delta = Math.max(-maxStep, Math.min(maxStep, delta));
+            values[j] = (float) Math.max(-1d, Math.min(1d, values[j] + delta));
+        }
+    }
+
+    /**
+     * evaluates the tip, joint positions, joint axes and the jacobian
+     */
+    private void evaluate(float[] values) {
+        identity(frame);
+        for (int j = 0; j < JOINTS; j++) {
+            translateZ(frame, geometry.getLink(j));
+            final int axis = geometry.getAxis(j);
+            jointPositions[j * 3] = frame[12];
+            jointPositions[j * 3 + 1] = frame[13];
+            jointPositions[j * 3 + 2] = frame[14];
+            jointAxes[j * 3] = frame[axis * 4];
+            jointAxes[j * 3 + 1] = frame[axis * 4 + 1];
+            jointAxes[j * 3 + 2] = frame[axis * 4 + 2];
+            rotate(frame, axis, geometry.toAngle(j, values[j]));
+        }
+        translateZ(frame, geometry.getTool());
+        tip[0] = frame[12];
+        tip[1] = frame[13];
+        tip[2] = frame[14];
+
+        for (int j = 0; j < JOINTS; j++) {
+            final double ax = jointAxes[j * 3];
+            final double ay = jointAxes[j * 3 + 1];
+            final double az = jointAxes[j * 3 + 2];
+            final double rx = tip[0] - jointPositions[j * 3];
+            final double ry = tip[1] - jointPositions[j * 3 + 1];
+            final double rz = tip[2] - jointPositions[j * 3 + 2];
+            final double range = geometry.getRange(j);
+            jacobian[j] = (ay * rz - az * ry) * range;
+            jacobian[JOINTS + j] = (az * rx - ax * rz) * range;
+            jacobian[2 * JOINTS + j] = (ax * ry - ay * rx) * range;
+        }
+    }
+
+    private static void identity(double[] m) {
+        for (int i = 0; i < 16; i++) {
+            m[i] = (i % 5 == 0) ? 1 : 0;
+        }
+    }
+
+    private static void translateZ(double[] m, double length) {
+        m[12] += length * m[8];
+        m[13] += length * m[9];
+        m[14] += length * m[10];
+    }
+
+    /**
+     * m = m * R(axis, angle)
+     */
+    private static void rotate(double[] m, int axis, double angle) {
+        final double c = Math.cos(angle);
+        final double s = Math.sin(angle);
+        final int first;
+        final int second;
+        if (axis == AXIS_X) {
+            first = 4;
+            second = 8;
+        } else if (axis == AXIS_Y) {
+            first = 8;
+            second = 0;
+        } else {
+            first = 0;
+            second = 4;
+        }
+        for (int r = 0; r < 3; r++) {
+            final double a = m[first + r];
+            final double b = m[second + r];
+            m[first + r] = c * a + s * b;
+            m[second + r] = c * b - s * a;
+        }
+    }
+
+    /**
+     * solves the symmetric positive definite 3x3 system by the Cramer's rule
+     */
+    private static void solve3(double[] a, double[] b, double[] x) {
+        final double c00 = a[4] * a[8] - a[5] * a[7];
+        final double c01 = a[5] * a[6] - a[3] * a[8];
+        final double c02 = a[3] * a[7] - a[4] * a[6];
+        final double determinant = a[0] * c00 + a[1] * c01 + a[2] * c02;
+        final double c10 = a[2] * a[7] - a[1] * a[8];
+        final double c11 = a[0] * a[8] - a[2] * a[6];
+        final double c12 = a[1] * a[6] - a[0] * a[7];
+        final double c20 = a[1] * a[5] - a[2] * a[4];
+        final double c21 = a[2] * a[3] - a[0] * a[5];
+        final double c22 = a[0] * a[4] - a[1] * a[3];
+        x[0] = (c00 * b[0] + c10 * b[1] + c20 * b[2]) / determinant;
+        x[1] = (c01 * b[0] + c11 * b[1] + c21 * b[2]) / determinant;
+        x[2] = (c02 * b[0] + c12 * b[1] + c22 * b[2]) / determinant;
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.kinematics;
+
+import static com.wengnermiro.robotic.hand.kinematics.ArmGeometry.BASE;
+import static com.wengnermiro.robotic.hand.kinematics.ArmGeometry.ELBOW;
+import static com.wengnermiro.robotic.hand.kinematics.ArmGeometry.SHOULDER;
+import static com.wengnermiro.robotic.hand.kinematics.ArmGeometry.WRIST_PITCH;
+import static com.wengnermiro.robotic.hand.kinematics.ArmGeometry.WRIST_ROLL;
+import static com.wengnermiro.robotic.hand.kinematics.ArmGeometry.WRIST_YAW;
+
+/**
+ * CollisionEnvelope bitmap of the blocked joint configurations precomputed from the {@link ArmGeometry}.
+ * A configuration is blocked when the arm goes below the ground, the wrist or the gripper enters the base column,
+ * or the gripper folds back onto the upper arm. The base yaw and the wrist roll don't change any of them,
+ * so the bitmap is indexed by the shoulder, elbow, wrist pitch and wrist yaw cells only.
+ * Every cell is evaluated at its center with the clearance increased by the max tip displacement within the cell,
+ * so the envelope is conservative. The check is a single bit lookup.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class CollisionEnvelope {
+
+    public static final int DEFAULT_CELLS = 64;
+    public static final int DEFAULT_YAW_CELLS = 16;
+    public static final float DEFAULT_BASE_RADIUS = 55f;
+    public static final float DEFAULT_ARM_RADIUS = 25f;
+    public static final float DEFAULT_GROUND_CLEARANCE = 10f;
+
+    private final long[] bits;
+    private final int cells;
+    private final int yawCells;
+    private final float margin;
+    private int blockedCells;
+
+    /**
+     * @param geometry         arm geometry
+     * @param cells            cells of the shoulder, elbow and wrist pitch
+     * @param yawCells         cells of the wrist yaw
+     * @param baseRadius       radius of the base column up to the shoulder
+     * @param armRadius        radius around the upper arm
+     * @param groundClearance  min height of any joint and the gripper tip
+     */
+    public CollisionEnvelope(ArmGeometry geometry, int cells, int yawCells, float baseRadius, float armRadius,
+                             float groundClearance) {
+        if (cells <= 0 || yawCells <= 0 || (long) cells * cells * cells * yawCells > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("cells: " + cells + ", yaw cells: " + yawCells);
+        }
+        this.cells = cells;
+        this.yawCells = yawCells;
+        this.bits = new long[(cells * cells * cells * yawCells + Long.SIZE - 1) / Long.SIZE];
+        final float tool = geometry.getLink(WRIST_ROLL) + geometry.getTool();
+        final float wrist = geometry.getLink(WRIST_YAW) + tool;
+        final float forearm = geometry.getLink(WRIST_PITCH) + wrist;
+        final float upperArm = geometry.getLink(ELBOW) + forearm;
+        this.margin = halfCell(geometry, SHOULDER, cells) * upperArm + halfCell(geometry, ELBOW, cells) * forearm
+                + halfCell(geometry, WRIST_PITCH, cells) * wrist + halfCell(geometry, WRIST_YAW, yawCells) * tool;
+        build(geometry, baseRadius + margin, armRadius + margin, groundClearance + margin);
+    }
+
+    public CollisionEnvelope(ArmGeometry geometry) {
+        this(geometry, DEFAULT_CELLS, DEFAULT_YAW_CELLS, DEFAULT_BASE_RADIUS, DEFAULT_ARM_RADIUS, DEFAULT_GROUND_CLEARANCE);
+    }
+
+    /**
+     * @return clearance added to every distance by the cell size
+     */
+    public float getMargin() {
+        return margin;
+    }
+
+    public int getBlockedCells() {
+        return blockedCells;
+    }
+
+    public int getCellCount() {
+        return cells * cells * cells * yawCells;
+    }
+
+    /**
+     * @return true when the normalized joint values are inside the envelope
+     */
+    public boolean isBlocked(float shoulder, float elbow, float wristPitch, float wristYaw) {
+        final int index = ((cell(shoulder, cells) * cells + cell(elbow, cells)) * cells + cell(wristPitch, cells))
+                * yawCells + cell(wristYaw, yawCells);
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static int cell(float value, int count) {
+        final int cell = (int) ((value + 1f) * 0.5f * count);
+        return cell < 0 ? 0 : (cell >= count ? count - 1 : cell);
+    }
+
+    private static float center(int cell, int count) {
+        return -1f + (2f * cell + 1f) / count;
+    }
+
+    private static float halfCell(ArmGeometry geometry, int joint, int count) {
+        return Math.abs(geometry.getRange(joint)) / count;
+    }
+
+    /**
+     * planar evaluation with the base yaw at 0: the shoulder, elbow and wrist pitch keep the arm in the x-z plane,
+     * the wrist yaw turns the gripper out of it
+     */
+    private void build(ArmGeometry geometry, float baseRadius, float armRadius, float ground) {
+        final float shoulderZ = geometry.getLink(BASE) + geometry.getLink(SHOULDER);
+        final float upperArm = geometry.getLink(ELBOW);
+        final float forearm = geometry.getLink(WRIST_PITCH);
+        final float wrist = geometry.getLink(WRIST_YAW);
+        final float roll = geometry.getLink(WRIST_ROLL);
+        final float tool = geometry.getTool();
+        final double[] yawSin = new double[yawCells];
+        final double[] yawCos = new double[yawCells];
+        for (int y = 0; y < yawCells; y++) {
+            final double angle = geometry.toAngle(WRIST_YAW, center(y, yawCells));
+            yawSin[y] = Math.sin(angle);
+            yawCos[y] = Math.cos(angle);
+        }
+
+        int index = 0;
+        for (int s = 0; s < cells; s++) {
+            final double a1 = geometry.toAngle(SHOULDER, center(s, cells));
+            final double ex = upperArm * Math.sin(a1);
+            final double ez = shoulderZ + upperArm * Math.cos(a1);
+            for (int e = 0; e < cells; e++) {
+                final double a2 = a1 + geometry.toAngle(ELBOW, center(e, cells));
+                final double wx = ex + forearm * Math.sin(a2);
+                final double wz = ez + forearm * Math.cos(a2);
+                for (int p = 0; p < cells; p++) {
+                    final double a3 = a2 + geometry.toAngle(WRIST_PITCH, center(p, cells));
+                    final double sin3 = Math.sin(a3);
+                    final double cos3 = Math.cos(a3);
+                    final double yx = wx + wrist * sin3;
+                    final double yz = wz + wrist * cos3;
+                    final boolean armBlocked = ez < ground || wz < ground || yz < ground
+                            || inBase(wx, 0, wz, baseRadius, shoulderZ) || inBase(yx, 0, yz, baseRadius, shoulderZ);
+                    for (int y = 0; y < yawCells; y++, index++) {
+                        /* gripper direction: local z turned by the wrist yaw around the local x */
+                        final double dx = yawCos[y] * sin3;
+                        final double dy = -yawSin[y];
+                        final double dz = yawCos[y] * cos3;
+                        final double rx = yx + roll * dx;
+                        final double ry = roll * dy;
+                        final double rz = yz + roll * dz;
+                        final double tx = rx + tool * dx;
+                        final double ty = tool * dy;
+                        final double tz = rz + tool * dz;
+                        final double mx = (yx + tx) / 2;
+                        final double my = ty / 2;
+                        final double mz = (yz + tz) / 2;
+                        final boolean blocked = armBlocked || tz < ground || mz < ground
+                                || inBase(tx, ty, tz, baseRadius, shoulderZ) || inBase(mx, my, mz, baseRadius, shoulderZ)
+                                || nearSegment(tx, ty, tz, ex, ez, shoulderZ, armRadius)
+                                || nearSegment(mx, my, mz, ex, ez, shoulderZ, armRadius);
+                        if (blocked) {
+                            bits[index >>> 6] |= 1L << index;
+                            blockedCells++;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean inBase(double x, double y, double z, double radius, double top) {
+        return z < top && x * x + y * y < radius * radius;
+    }
+
+    /**
+     * @return true when the point is closer than the radius to the upper arm, from the shoulder (0, 0, shoulderZ)
+     * to the elbow (ex, 0, ez)
+     */
+    private static boolean nearSegment(double x, double y, double z, double ex, double ez, double shoulderZ, double radius) {
+        final double sx = ex;
+        final double sz = ez - shoulderZ;
+        final double px = x;
+        final double pz = z - shoulderZ;
+        final double length2 = sx * sx + sz * sz;
+        final double t = length2 == 0 ? 0 : Math.max(0, Math.min(1, (px * sx + pz * sz) / length2));
+        final double cx = px - t * sx;
+        final double cz = pz - t * sz;
+        return cx * cx + y * y + cz * cz < radius * radius;
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.kinematics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static com.wengnermiro.robotic.hand.kinematics.ArmGeometry.BASE;
+import static com.wengnermiro.robotic.hand.kinematics.ArmGeometry.ELBOW;
+import static com.wengnermiro.robotic.hand.kinematics.ArmGeometry.JOINTS;
+import static com.wengnermiro.robotic.hand.kinematics.ArmGeometry.SHOULDER;
+import static com.wengnermiro.robotic.hand.kinematics.ArmGeometry.WRIST_PITCH;
+import static com.wengnermiro.robotic.hand.kinematics.ArmGeometry.WRIST_YAW;
+
+/**
+ * WorkspaceTable memory-mapped grid over the reachable workspace of the {@link ArmGeometry}, used as the warm start
+ * of the inverse kinematics. The workspace is rotationally symmetric around the base axis, so the grid covers
+ * the arm plane at the base zero angle only (signed distance from the base axis, height). Every cell keeps the shoulder, elbow
+ * and wrist pitch values with the tip closest to the cell center, the base value is computed from the target direction.
+ * The table is generated on the first start by sweeping the planar joints with the forward kinematics
+ * and reused by later runs while the geometry and the cell size are the same.
+ *
+ * Layout (big endian): magic "WKSP", version (int), geometry fingerprint (long), cell size, origin r, z (floats),
+ * cells r, z (ints), filled cells (int), reserved, then shoulder, elbow and wrist pitch values scaled to short
+ * per cell, r fastest. Empty cell starts with {@link Short#MIN_VALUE}.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class WorkspaceTable {
+
+    public static final float DEFAULT_CELL_SIZE = 10f;
+    static final int MAGIC = 0x574B5350;
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 48;
+    private static final int[] PLANAR_JOINTS = {SHOULDER, ELBOW, WRIST_PITCH};
+    static final int CELL_BYTES = PLANAR_JOINTS.length * Short.BYTES;
+    private static final int VERSION_OFFSET = 4;
+    private static final int FINGERPRINT_OFFSET = 8;
+    private static final int CELL_SIZE_OFFSET = 16;
+    private static final int ORIGIN_OFFSET = 20;
+    private static final int DIMENSION_OFFSET = 28;
+    private static final int FILLED_OFFSET = 36;
+    private static final short EMPTY = Short.MIN_VALUE;
+    private static final float SCALE = Short.MAX_VALUE;
+    private static final int MAX_RADIUS = 2;
+    private static final int MAX_SWEEP_STEPS = 256;
+
+    private final ByteBuffer cells;
+    private final float cellSize;
+    private final float originR;
+    private final float originZ;
+    private final int sizeR;
+    private final int sizeZ;
+    private final int filled;
+    private final float baseZero;
+    private final float baseRange;
+
+    private WorkspaceTable(ByteBuffer buffer, ArmGeometry geometry) {
+        this.cells = buffer;
+        this.cellSize = buffer.getFloat(CELL_SIZE_OFFSET);
+        this.originR = buffer.getFloat(ORIGIN_OFFSET);
+        this.originZ = buffer.getFloat(ORIGIN_OFFSET + 4);
+        this.sizeR = buffer.getInt(DIMENSION_OFFSET);
+        this.sizeZ = buffer.getInt(DIMENSION_OFFSET + 4);
+        this.filled = buffer.getInt(FILLED_OFFSET);
+        this.baseZero = geometry.getZeroAngle(BASE);
+        this.baseRange = geometry.getRange(BASE);
+    }
+
+    /**
+     * maps the table, the table is generated when the file is missing or
+     * doesn't match the geometry and the cell size
+     */
+    public static WorkspaceTable open(Path path, ArmGeometry geometry, float cellSize) throws IOException {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("cell size: " + cellSize);
+        }
+        if (Files.exists(path)) {
+            final WorkspaceTable table = map(path, geometry, cellSize);
+            if (table != null) {
+                return table;
+            }
+        }
+        generate(path, geometry, cellSize);
+        final WorkspaceTable table = map(path, geometry, cellSize);
+        if (table == null) {
+            throw new IOException("invalid workspace table: " + path);
+        }
+        return table;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    public int getFilledCells() {
+        return filled;
+    }
+
+    /**
+     * writes the base, shoulder, elbow and wrist pitch of the nearest filled cell to the values,
+     * the wrist yaw is set to 0 and the wrist roll is not changed
+     *
+     * @return false when there is no filled cell close to the target
+     */
+    public boolean seed(double x, double y, double z, float[] values) {
+        double angle = Math.atan2(y, x);
+        double r = Math.sqrt(x * x + y * y);
+        double base = (angle - baseZero) / baseRange;
+        if (Math.abs(base) > 1) {
+            /* target behind the base range, the arm leans backwards */
+            angle += angle > 0 ? -Math.PI : Math.PI;
+            r = -r;
+            base = (angle - baseZero) / baseRange;
+        }
+        final int cr = (int) Math.floor((r - originR) / cellSize);
+        final int cz = (int) Math.floor((z - originZ) / cellSize);
+        int best = -1;
+        for (int radius = 0; radius <= MAX_RADIUS && best < 0; radius++) {
+            int bestDistance = Integer.MAX_VALUE;
+            for (int iz = cz - radius; iz <= cz + radius; iz++) {
+                for (int ir = cr - radius; ir <= cr + radius; ir++) {
+                    final int dr = ir - cr;
+                    final int dz = iz - cz;
+                    if (Math.max(Math.abs(dr), Math.abs(dz)) != radius) {
+                        continue;
+                    }
+                    final int cell = index(ir, iz);
+                    if (cell >= 0 && cells.getShort(offset(cell)) != EMPTY) {
+                        final int distance = dr * dr + dz * dz;
+                        if (distance < bestDistance) {
+                            bestDistance = distance;
+                            best = cell;
+                        }
+                    }
+                }
+            }
+        }
+        if (best < 0) {
+            return false;
+        }
+        final int offset = offset(best);
+        values[BASE] = (float) Math.max(-1d, Math.min(1d, base));
+        for (int i = 0; i < PLANAR_JOINTS.length; i++) {
+            values[PLANAR_JOINTS[i]] = cells.getShort(offset + i * Short.BYTES) / SCALE;
+        }
+        values[WRIST_YAW] = 0;
+        return true;
+    }
+
+    /**
+     * sweeps the planar joints with the base and the wrist at 0, steps of every joint
+     * are derived from the cell size and the distance of the joint from the tip.
+     * The tip is projected onto the arm plane at the base zero angle, the same plane {@link #seed} assumes.
+     */
+    static void generate(Path path, ArmGeometry geometry, float cellSize) throws IOException {
+        final float reach = geometry.getShoulderReach();
+        final double planeX = Math.cos(geometry.getZeroAngle(BASE));
+        final double planeY = Math.sin(geometry.getZeroAngle(BASE));
+        final float originR = -reach;
+        final float originZ = geometry.getLink(BASE) + geometry.getLink(SHOULDER) - reach;
+        final int size = (int) Math.ceil(2 * reach / cellSize) + 1;
+        final int cellCount = size * size;
+        final short[] seeds = new short[cellCount * PLANAR_JOINTS.length];
+        final float[] distances = new float[cellCount];
+        Arrays.fill(distances, Float.MAX_VALUE);
+
+        final int[] steps = new int[PLANAR_JOINTS.length];
+        for (int i = 0; i < PLANAR_JOINTS.length; i++) {
+            float lever = geometry.getTool();
+            for (int j = PLANAR_JOINTS[i] + 1; j < JOINTS; j++) {
+                lever += geometry.getLink(j);
+            }
+            final double arc = 2 * Math.abs(geometry.getRange(PLANAR_JOINTS[i])) * lever;
+            steps[i] = Math.min(MAX_SWEEP_STEPS, (int) Math.ceil(arc / cellSize) + 1);
+        }
+
+        final ArmKinematics kinematics = new ArmKinematics(geometry);
+        final float[] values = new float[JOINTS];
+        final double[] position = new double[3];
+        final int[] counters = new int[PLANAR_JOINTS.length];
+        int filled = 0;
+        while (true) {
+            for (int i = 0; i < PLANAR_JOINTS.length; i++) {
+                values[PLANAR_JOINTS[i]] = steps[i] == 1 ? 0 : -1f + 2f * counters[i] / (steps[i] - 1);
+            }
+            kinematics.forward(values, position);
+            final double fr = (position[0] * planeX + position[1] * planeY - originR) / cellSize;
+            final double fz = (position[2] - originZ) / cellSize;
+            final int ir = (int) Math.floor(fr);
+            final int iz = (int) Math.floor(fz);
+            if (ir >= 0 && ir < size && iz >= 0 && iz < size) {
+                final int cell = iz * size + ir;
+                final double or = fr - ir - 0.5;
+                final double oz = fz - iz - 0.5;
+                final float distance = (float) (or * or + oz * oz);
+                if (distance < distances[cell]) {
+                    if (distances[cell] == Float.MAX_VALUE) {
+                        filled++;
+                    }
+                    distances[cell] = distance;
+                    for (int i = 0; i < PLANAR_JOINTS.length; i++) {
+                        seeds[cell * PLANAR_JOINTS.length + i] = (short) Math.round(values[PLANAR_JOINTS[i]] * SCALE);
+                    }
+                }
+            }
+            int i = 0;
+            while (i < PLANAR_JOINTS.length && ++counters[i] == steps[i]) {
+                counters[i] = 0;
+                i++;
+            }
+            if (i == PLANAR_JOINTS.length) {
+                break;
+            }
+        }
+
+        final Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        final long fileSize = HEADER_SIZE + (long) cellCount * CELL_BYTES;
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(geometry.fingerprint()).putFloat(cellSize)
+                    .putFloat(originR).putFloat(originZ).putInt(size).putInt(size).putInt(filled);
+            buffer.position(HEADER_SIZE);
+            for (int cell = 0; cell < cellCount; cell++) {
+                final boolean empty = distances[cell] == Float.MAX_VALUE;
+                for (int i = 0; i < PLANAR_JOINTS.length; i++) {
+                    buffer.putShort(empty ? EMPTY : seeds[cell * PLANAR_JOINTS.length + i]);
+                }
+            }
+            buffer.force();
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return mapped table or null when the file doesn't match
+     */
+    private static WorkspaceTable map(Path path, ArmGeometry geometry, float cellSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                return null;
+            }
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(VERSION_OFFSET) != VERSION
+                    || buffer.getLong(FINGERPRINT_OFFSET) != geometry.fingerprint()
+                    || buffer.getFloat(CELL_SIZE_OFFSET) != cellSize) {
+                return null;
+            }
+            final long cellCount = (long) buffer.getInt(DIMENSION_OFFSET) * buffer.getInt(DIMENSION_OFFSET + 4);
+            if (cellCount <= 0 || channel.size() != HEADER_SIZE + cellCount * CELL_BYTES) {
+                return null;
+            }
+            return new WorkspaceTable(buffer, geometry);
+        }
+    }
+
+    private int index(int ir, int iz) {
+        if (ir < 0 || ir >= sizeR || iz < 0 || iz >= sizeZ) {
+            return -1;
+        }
+        return iz * sizeR + ir;
+    }
+
+    private static int offset(int cell) {
+        return HEADER_SIZE + cell * CELL_BYTES;
+    }
+}
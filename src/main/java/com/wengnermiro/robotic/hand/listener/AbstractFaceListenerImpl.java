@@ -18,26 +18,47 @@
 package com.wengnermiro.robotic.hand.listener;
 
 import com.robo4j.RoboContext;
+import com.robo4j.RoboReference;
 import com.robo4j.hw.rpi.pad.LF710Input;
+import com.wengnermiro.robotic.hand.control.ArmState;
+import com.wengnermiro.robotic.hand.control.ExecutionLane;
 import com.wengnermiro.robotic.hand.unit.LedMatrixMessage;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
+ * AbstractFaceListenerImpl face listeners are processed by the {@link ExecutionLane#DISPLAY} lane.
+ * When animated the face is shown by the animation unit as the {@link ArmState} and the listener
+ * doesn't send it to the display, so only one unit drives the display.
+ *
  * @author Miroslav Wengner (@miragemiko)
  */
 public abstract class AbstractFaceListenerImpl implements ArmListener {
     final String name;
-    final RoboContext context;
+    final RoboReference<LedMatrixMessage> display;
     final AtomicBoolean active = new AtomicBoolean();
     final LF710Input input;
+    final ArmState face;
+    boolean animated;
     short amount;
     float value;
 
-    AbstractFaceListenerImpl(String name, RoboContext context, LF710Input input) {
+    AbstractFaceListenerImpl(String name, RoboContext context, LF710Input input, ArmState face) {
         this.name = name;
-        this.context = context;
+        this.display = context.getReference(name);
         this.input = input;
+        this.face = face;
+    }
+
+    public ArmState getFace() {
+        return face;
+    }
+
+    /**
+     * @param animated face is shown by the animation unit, set before the listener is processed
+     */
+    public void setAnimated(boolean animated) {
+        this.animated = animated;
     }
 
     @Override
@@ -70,5 +91,10 @@ public abstract class AbstractFaceListenerImpl implements ArmListener {
         this.value = value;
     }
 
+    @Override
+    public ExecutionLane getLane() {
+        return ExecutionLane.DISPLAY;
+    }
+
     public abstract float process();
 }
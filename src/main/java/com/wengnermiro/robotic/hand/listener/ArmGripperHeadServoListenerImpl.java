@@ -19,6 +19,7 @@ package com.wengnermiro.robotic.hand.listener;
 
 import com.robo4j.RoboContext;
 import com.robo4j.hw.rpi.pad.LF710Input;
+import com.wengnermiro.robotic.hand.motion.MotionProfile;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -28,21 +29,28 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class ArmGripperHeadServoListenerImpl implements ArmListener {
 
     private final String name;
-    private final RoboContext context;
     private final AtomicBoolean active = new AtomicBoolean();
     private final LF710Input input;
     private final boolean positive;
-    private short amount;
+    private volatile short amount;
     private float value;
     private float servoStep;
+    private final MotionProfile profile;
+    private final float tickSeconds;
 
     public ArmGripperHeadServoListenerImpl(String name, RoboContext context, LF710Input input,
                                            boolean positive, float servoStep) {
+        this(name, context, input, positive, servoStep, null, 0);
+    }
+
+    public ArmGripperHeadServoListenerImpl(String name, RoboContext context, LF710Input input,
+                                           boolean positive, float servoStep, MotionProfile profile, float tickSeconds) {
         this.name = name;
-        this.context = context;
         this.input = input;
         this.positive = positive;
         this.servoStep = servoStep;
+        this.profile = profile;
+        this.tickSeconds = tickSeconds;
     }
 
     @Override
@@ -75,12 +83,28 @@ public class ArmGripperHeadServoListenerImpl implements ArmListener {
         this.value = value;
     }
 
+    @Override
+    public boolean isMoving() {
+        return profile != null && profile.isMoving();
+    }
+
+    @Override
+    public void halt() {
+        if (profile != null) {
+            profile.halt();
+        }
+    }
+
     @Override
     public float process() {
         if (active.get()) {
-            value = headValue(positive, value, servoStep);
-            context.getReference(name).sendMessage(value);
-            System.out.println("LISTENER ArmGripperServoListenerImpl value : " + value);
+            if (profile == null) {
+                value = headValue(positive, value, servoStep);
+            } else {
+                value = profile.next(value, positive ? 1f : -1f, tickSeconds);
+            }
+        } else if (isMoving()) {
+            value = profile.next(value, 0f, tickSeconds);
         }
         return value;
     }
@@ -19,6 +19,7 @@ package com.wengnermiro.robotic.hand.listener;
 
 import com.robo4j.hw.rpi.pad.LF710Input;
 import com.robo4j.hw.rpi.pad.LF710Message;
+import com.wengnermiro.robotic.hand.control.ExecutionLane;
 
 /**
  *
@@ -32,5 +33,35 @@ public interface ArmListener {
     void setActive(boolean state);
     void setAmount(short amount);
     void setValue(float value);
+
+    /**
+     * @return joint value of the tick, dispatched to the servo by the control loop
+     */
     float process();
+
+    /**
+     * @return true when the listener still moves the joint after release
+     */
+    default boolean isMoving() {
+        return false;
+    }
+
+    /**
+     * stops any remaining motion immediately
+     */
+    default void halt() {
+    }
+
+    /**
+     * @return lane running {@link #process()}
+     */
+    default ExecutionLane getLane() {
+        return ExecutionLane.SERVO;
+    }
+
+    /**
+     * publishes the state of the active servo listener to the displays, called by the display lane
+     */
+    default void publish() {
+    }
 }
@@ -21,7 +21,10 @@ import com.robo4j.RoboContext;
 import com.robo4j.RoboReference;
 import com.robo4j.hw.rpi.pad.LF710Input;
 import com.wengnermiro.robotic.hand.jfr.JfrPlatformEvent;
+import com.wengnermiro.robotic.hand.jfr.JfrSampler;
+import com.wengnermiro.robotic.hand.motion.MotionProfile;
 import com.wengnermiro.robotic.hand.unit.RemoteBargraphController;
+import jdk.jfr.EventType;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -31,23 +34,40 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class ArmPlatformServoListenerImpl implements ArmListener {
 
     public static final short MAX_AMOUNT = 32767;
+    private static final EventType JFR_EVENT_TYPE = EventType.getEventType(JfrPlatformEvent.class);
 
     private final String name;
-    private final RoboContext context;
+    private final RoboReference<Float> bargraph;
     private final AtomicBoolean active = new AtomicBoolean();
     private final LF710Input input;
-    private float amount;
+    private volatile float amount;
     private float value;
     private short absPos;
     private float servoStep;
+    private final boolean proportional;
+    private final MotionProfile profile;
+    private final float tickSeconds;
+    private final JfrSampler jfrSampler = new JfrSampler();
 
     public ArmPlatformServoListenerImpl(String name, RoboContext context, LF710Input input,
                                         short absPos, float servoStep) {
+        this(name, context, input, absPos, servoStep, false, null, 0);
+    }
+
+    /**
+     * @param proportional without the profile the step is scaled by the deflection of the joystick
+     * @param profile      motion profile or null for the constant step
+     */
+    public ArmPlatformServoListenerImpl(String name, RoboContext context, LF710Input input, short absPos,
+                                        float servoStep, boolean proportional, MotionProfile profile, float tickSeconds) {
         this.name = name;
-        this.context = context;
+        this.bargraph = context.getReference(RemoteBargraphController.NAME);
         this.input = input;
         this.absPos = absPos;
         this.servoStep = servoStep;
+        this.proportional = proportional;
+        this.profile = profile;
+        this.tickSeconds = tickSeconds;
     }
 
     @Override
@@ -80,25 +100,58 @@ public class ArmPlatformServoListenerImpl implements ArmListener {
         this.value = value;
     }
 
+    @Override
+    public boolean isMoving() {
+        return profile != null && profile.isMoving();
+    }
+
+    @Override
+    public void halt() {
+        if (profile != null) {
+            profile.halt();
+        }
+    }
+
     @Override
     public float process() {
         if (active.get()) {
-            sendMessageToBarGraph(amount);
-            short step = amount > 0 ? MAX_AMOUNT : -MAX_AMOUNT;
-            value = normValue(value, step, absPos, servoStep);
-            context.getReference(name).sendMessage(value);
+            if (profile == null) {
+                final float step = proportional ? amount : (amount > 0 ? MAX_AMOUNT : -MAX_AMOUNT);
+                value = normValue(value, step, absPos, servoStep);
+            } else {
+                value = profile.next(value, amount / absPos, tickSeconds);
+            }
             emitJfrEvent(value);
+        } else if (isMoving()) {
+            value = profile.next(value, 0f, tickSeconds);
         }
         return value;
     }
 
-    private void emitJfrEvent(float value){
-        JfrPlatformEvent event = new JfrPlatformEvent(name, value, Thread.currentThread().getName());
-        event.commit();
+    @Override
+    public void publish() {
+        sendMessageToBarGraph(amount);
+    }
+
+    /**
+     * the event is created only for the sample while the recording is enabled
+     */
+    private void emitJfrEvent(float value) {
+        if (JFR_EVENT_TYPE.isEnabled() && jfrSampler.sample(System.nanoTime())) {
+            final JfrPlatformEvent jfrEvent = new JfrPlatformEvent();
+            jfrEvent.begin();
+            jfrEvent.set(name, value);
+            if (jfrEvent.shouldCommit()) {
+                jfrEvent.commit();
+            }
+        }
     }
 
-    private float normValue(float current, Short value, int absValue, float step) {
-        float nexValue = current + (Float.valueOf(value) / absValue) * step;
+    /**
+     * the step is scaled by the amount, full step at the absolute value
+     */
+    private float normValue(float current, float amount, int absValue, float step) {
+        float nexValue = current + Math.max(-1f, Math.min(1f, amount / absValue)) * step;
         if (Math.abs(nexValue) > 1) {
             return Math.signum(nexValue);
         }
@@ -106,9 +159,8 @@ public class ArmPlatformServoListenerImpl implements ArmListener {
     }
 
     private void sendMessageToBarGraph(float  amount){
-        RoboReference<Float> remoteBargraphController = context.getReference(RemoteBargraphController.NAME);
-        if(remoteBargraphController != null){
-            remoteBargraphController.sendMessage(amount);
+        if(bargraph != null){
+            bargraph.sendMessage(amount);
         }
     }
 }
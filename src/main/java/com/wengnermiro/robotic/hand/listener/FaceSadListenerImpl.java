@@ -19,6 +19,7 @@ package com.wengnermiro.robotic.hand.listener;
 
 import com.robo4j.RoboContext;
 import com.robo4j.hw.rpi.pad.LF710Input;
+import com.wengnermiro.robotic.hand.control.ArmState;
 import com.wengnermiro.robotic.hand.unit.LedMatrixMessage;
 
 /**
@@ -27,13 +28,13 @@ import com.wengnermiro.robotic.hand.unit.LedMatrixMessage;
 public class FaceSadListenerImpl extends AbstractFaceListenerImpl {
 
     public FaceSadListenerImpl(String name, RoboContext context, LF710Input input) {
-        super(name, context, input);
+        super(name, context, input, ArmState.FACE_SAD);
     }
 
     @Override
     public float process() {
-        if(amount == 1){
-            context.getReference(name).sendMessage(LedMatrixMessage.FACE_SAD);
+        if (amount == 1 && !animated) {
+            display.sendMessage(LedMatrixMessage.FACE_SAD);
         }
         return amount;
     }
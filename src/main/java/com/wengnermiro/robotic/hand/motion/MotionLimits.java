@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.motion;
+
+/**
+ * MotionLimits joint limits in normalized servo units [-1, 1] per second
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class MotionLimits {
+
+    private final float maxVelocity;
+    private final float maxAcceleration;
+    private final float maxJerk;
+
+    public MotionLimits(float maxVelocity, float maxAcceleration, float maxJerk) {
+        if (maxVelocity <= 0 || maxAcceleration <= 0 || maxJerk <= 0) {
+            throw new IllegalArgumentException("limits must be positive");
+        }
+        this.maxVelocity = maxVelocity;
+        this.maxAcceleration = maxAcceleration;
+        this.maxJerk = maxJerk;
+    }
+
+    public float getMaxVelocity() {
+        return maxVelocity;
+    }
+
+    public float getMaxAcceleration() {
+        return maxAcceleration;
+    }
+
+    public float getMaxJerk() {
+        return maxJerk;
+    }
+
+    @Override
+    public String toString() {
+        return "MotionLimits{" +
+                "maxVelocity=" + maxVelocity +
+                ", maxAcceleration=" + maxAcceleration +
+                ", maxJerk=" + maxJerk +
+                '}';
+    }
+}
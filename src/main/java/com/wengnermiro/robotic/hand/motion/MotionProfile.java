@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.motion;
+
+/**
+ * MotionProfile keeps the motion state of one joint. The commanded velocity
+ * is scaled by analog command in range [-1, 1], the command 0 brakes the joint.
+ * Instance is not thread safe and is used by the control tick thread only.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class MotionProfile {
+
+    private static final float MIN_LIMIT = -1f;
+    private static final float MAX_LIMIT = 1f;
+    private static final float EPSILON = 1e-4f;
+
+    private final MotionProfileType type;
+    private final MotionLimits limits;
+    private float velocity;
+    private float acceleration;
+
+    public MotionProfile(MotionProfileType type, MotionLimits limits) {
+        if (type == MotionProfileType.NONE || type == MotionProfileType.PROPORTIONAL) {
+            throw new IllegalArgumentException("not supported type: " + type);
+        }
+        this.type = type;
+        this.limits = limits;
+    }
+
+    public MotionProfileType getType() {
+        return type;
+    }
+
+    public float getVelocity() {
+        return velocity;
+    }
+
+    public boolean isMoving() {
+        return velocity != 0 || acceleration != 0;
+    }
+
+    public void halt() {
+        velocity = 0;
+        acceleration = 0;
+    }
+
+    /**
+     * @param position current joint position
+     * @param command  velocity command in range [-1, 1]
+     * @param dt       time step in seconds
+     * @return next joint position
+     */
+    public float next(float position, float command, float dt) {
+        final float targetVelocity = clamp(command, MIN_LIMIT, MAX_LIMIT) * limits.getMaxVelocity();
+        final float dv = targetVelocity - velocity;
+        if (type == MotionProfileType.TRAPEZOIDAL) {
+            final float maxDv = limits.getMaxAcceleration() * dt;
+            velocity += clamp(dv, -maxDv, maxDv);
+        } else {
+            final float jerk = limits.getMaxJerk();
+            // highest acceleration from which the jerk limit still reaches zero acceleration at target velocity
+            final float desired = Math.signum(dv) * Math.min(limits.getMaxAcceleration(), (float) Math.sqrt(2f * jerk * Math.abs(dv)));
+            final float maxDa = jerk * dt;
+            acceleration += clamp(desired - acceleration, -maxDa, maxDa);
+            final float nextVelocity = velocity + acceleration * dt;
+            if ((targetVelocity - nextVelocity) * dv <= 0) {
+                velocity = targetVelocity;
+                acceleration = 0;
+            } else {
+                velocity = nextVelocity;
+            }
+        }
+        if (targetVelocity == 0 && Math.abs(velocity) < EPSILON) {
+            halt();
+        }
+
+        final float result = position + velocity * dt;
+        if (result > MAX_LIMIT || result < MIN_LIMIT) {
+            halt();
+            return Math.signum(result);
+        }
+        return result;
+    }
+
+    private static float clamp(float value, float min, float max) {
+        return value < min ? min : (value > max ? max : value);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.servo;
+
+import com.pi4j.io.i2c.I2CDevice;
+import com.pi4j.io.i2c.I2CFactory;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PCA9685Board writes every run of adjacent changed channels by one auto-increment
+ * I2C block write, channels not marked as changed are never written
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public class PCA9685Board implements PwmBoard {
+
+    private static final int REGISTER_MODE1 = 0x00;
+    private static final int REGISTER_MODE2 = 0x01;
+    private static final int REGISTER_LED0_ON_L = 0x06;
+    private static final int REGISTER_PRESCALE = 0xFE;
+    private static final int MODE1_RESTART = 0x80;
+    private static final int MODE1_AUTO_INCREMENT = 0x20;
+    private static final int MODE1_SLEEP = 0x10;
+    private static final int MODE2_OUTDRV = 0x04;
+    private static final int BYTES_PER_CHANNEL = 4;
+    private static final int OSCILLATOR_FREQUENCY = 25_000_000;
+    private static final int RESOLUTION = 4096;
+
+    private final I2CDevice device;
+    private final byte[] buffer = new byte[CHANNELS * BYTES_PER_CHANNEL];
+
+    public PCA9685Board(I2CDevice device) {
+        this.device = device;
+    }
+
+    public static PCA9685Board open(int bus, int address, int frequency) throws IOException {
+        try {
+            PCA9685Board board = new PCA9685Board(I2CFactory.getInstance(bus).getDevice(address));
+            board.initialize(frequency);
+            return board;
+        } catch (I2CFactory.UnsupportedBusNumberException e) {
+            throw new IOException("not supported bus: " + bus, e);
+        }
+    }
+
+    public void initialize(int frequency) throws IOException {
+        int prescale = Math.round((float) OSCILLATOR_FREQUENCY / (RESOLUTION * frequency)) - 1;
+        device.write(REGISTER_MODE1, (byte) MODE1_SLEEP);
+        device.write(REGISTER_PRESCALE, (byte) prescale);
+        device.write(REGISTER_MODE2, (byte) MODE2_OUTDRV);
+        device.write(REGISTER_MODE1, (byte) MODE1_AUTO_INCREMENT);
+        sleep();
+        device.write(REGISTER_MODE1, (byte) (MODE1_RESTART | MODE1_AUTO_INCREMENT));
+    }
+
+    @Override
+    public void write(int[] offCounts, int dirtyMask) throws IOException {
+        if (dirtyMask == 0) {
+            return;
+        }
+        int remaining = dirtyMask & ((1 << CHANNELS) - 1);
+        while (remaining != 0) {
+            final int first = Integer.numberOfTrailingZeros(remaining);
+            final int run = Integer.numberOfTrailingZeros(~(remaining >>> first));
+            int length = 0;
+            for (int channel = first; channel < first + run; channel++) {
+                int off = offCounts[channel];
+                buffer[length++] = 0;
+                buffer[length++] = 0;
+                buffer[length++] = (byte) (off & 0xFF);
+                buffer[length++] = (byte) ((off >> 8) & 0x0F);
+            }
+            device.write(REGISTER_LED0_ON_L + first * BYTES_PER_CHANNEL, buffer, 0, length);
+            remaining &= ~(((1 << run) - 1) << first);
+        }
+    }
+
+    private void sleep() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
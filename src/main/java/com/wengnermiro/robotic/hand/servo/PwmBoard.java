@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.servo;
+
+import java.io.IOException;
+
+/**
+ * PwmBoard represents 16 channel PWM board able to write several channels at once
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public interface PwmBoard {
+
+    int CHANNELS = 16;
+
+    /**
+     * writes all marked channels as one output, unmarked channels keep their output
+     *
+     * @param offCounts  pwm off counts indexed by channel
+     * @param dirtyMask  bit mask of the channels to be written
+     * @throws IOException exception
+     */
+    void write(int[] offCounts, int dirtyMask) throws IOException;
+}
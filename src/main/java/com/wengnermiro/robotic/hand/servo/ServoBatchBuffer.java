@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.wengnermiro.robotic.hand.servo;
+
+/**
+ * ServoBatchBuffer double buffer of the {@link ServoBatchMessage}s sent by the control loop.
+ * The tick fills the message released by the receiver, when both messages are still in flight
+ * the values are kept pending and sent by the next tick. Filling does not allocate.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class ServoBatchBuffer {
+
+    private final ServoBatchMessage[] messages = new ServoBatchMessage[2];
+    private int next;
+    private boolean pending;
+
+    public ServoBatchBuffer(String[] joints) {
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = new ServoBatchMessage(joints, new float[joints.length]);
+        }
+    }
+
+    /**
+     * @return true when the last values have not been sent yet
+     */
+    public boolean isPending() {
+        return pending;
+    }
+
+    /**
+     * @return released message to be filled by the joint values or null when both messages are in flight
+     */
+    public ServoBatchMessage acquire() {
+        for (int i = 0; i < messages.length; i++) {
+            final ServoBatchMessage message = messages[next];
+            next = (next + 1) % messages.length;
+            if (message.acquire()) {
+                pending = false;
+                return message;
+            }
+        }
+        pending = true;
+        return null;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.servo;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ServoBatchMessage carries one control tick worth of joint targets.
+ * Joint names array is shared between messages and must not be modified.
+ * Messages of the {@link ServoBatchBuffer} are reused, the receiver releases them when processed.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public class ServoBatchMessage {
+
+    private final String[] joints;
+    private final float[] values;
+    private final AtomicBoolean inFlight = new AtomicBoolean();
+
+    public ServoBatchMessage(String[] joints, float[] values) {
+        this.joints = joints;
+        this.values = values;
+    }
+
+    public String[] getJoints() {
+        return joints;
+    }
+
+    public float[] getValues() {
+        return values;
+    }
+
+    /**
+     * @return true when the message has been released by the receiver and can be filled
+     */
+    boolean acquire() {
+        return inFlight.compareAndSet(false, true);
+    }
+
+    /**
+     * called by the receiver when the values have been processed
+     */
+    public void release() {
+        inFlight.set(false);
+    }
+
+    @Override
+    public String toString() {
+        return "ServoBatchMessage{" +
+                "joints=" + joints.length +
+                ", values=" + values.length +
+                '}';
+    }
+}
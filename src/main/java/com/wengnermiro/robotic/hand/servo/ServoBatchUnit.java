@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.servo;
+
+import com.robo4j.AttributeDescriptor;
+import com.robo4j.ConfigurationException;
+import com.robo4j.CriticalSectionTrait;
+import com.robo4j.DefaultAttributeDescriptor;
+import com.robo4j.RoboContext;
+import com.robo4j.RoboUnit;
+import com.robo4j.configuration.Configuration;
+import com.robo4j.logging.SimpleLoggingUtil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ServoBatchUnit receives one tick of joint targets by {@link ServoBatchMessage}.
+ * Changes smaller than the deadband are skipped, remaining channels are written
+ * to each PWM board as one batched output.
+ *
+ * The unit replaces {@link com.robo4j.units.rpi.pwm.PCA9685ServoUnit}s
+ * configured for the same bus and keeps their trim, dualRate and inverted semantics.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+@CriticalSectionTrait
+public class ServoBatchUnit extends RoboUnit<ServoBatchMessage> {
+
+    public static final String PROP_BUS = "bus";
+    public static final String PROP_FREQUENCY = "frequency";
+    public static final String PROP_DEADBAND = "deadband";
+    public static final String PROP_SERVOS = "servos";
+    public static final String PROP_ADDRESS = "address";
+    public static final String PROP_CHANNEL = "channel";
+    public static final String PROP_TRIM = "trim";
+    public static final String PROP_DUAL_RATE = "dualRate";
+    public static final String PROP_INVERTED = "inverted";
+    public static final String ATTR_WRITES = "writes";
+    public static final String ATTR_SKIPPED = "skipped";
+
+    public static final DefaultAttributeDescriptor<Long> DESCRIPTOR_WRITES = DefaultAttributeDescriptor.create(Long.class, ATTR_WRITES);
+    public static final DefaultAttributeDescriptor<Long> DESCRIPTOR_SKIPPED = DefaultAttributeDescriptor.create(Long.class, ATTR_SKIPPED);
+    private static final Collection<AttributeDescriptor<?>> KNOWN_ATTRIBUTES = Collections
+            .unmodifiableCollection(Arrays.asList(DESCRIPTOR_WRITES, DESCRIPTOR_SKIPPED));
+
+    private static final int DEFAULT_BUS = 1;
+    private static final int DEFAULT_ADDRESS = 0x40;
+    private static final int DEFAULT_FREQUENCY = 50;
+    private static final float DEFAULT_DEADBAND = 0.002f;
+    private static final int PWM_NEUTRAL = 307;
+    private static final int PWM_RANGE = 102;
+    private static final int PWM_MAX = 4095;
+
+    private String[] servoNames;
+    private int[] servoBoards;
+    private int[] servoChannels;
+    private float[] servoTrims;
+    private float[] servoDualRates;
+    private boolean[] servoInverted;
+    private float[] lastValues;
+    private boolean[] written;
+
+    private PwmBoard[] boards;
+    private int[][] boardCounts;
+    private int[] boardDirty;
+
+    private float deadband;
+    private String[] mappedJoints;
+    private int[] jointServos;
+    private volatile long writes;
+    private volatile long skipped;
+
+    public ServoBatchUnit(RoboContext context, String id) {
+        super(ServoBatchMessage.class, context, id);
+    }
+
+    @Override
+    protected void onInitialization(Configuration configuration) throws ConfigurationException {
+        final int bus = configuration.getInteger(PROP_BUS, DEFAULT_BUS);
+        final int frequency = configuration.getInteger(PROP_FREQUENCY, DEFAULT_FREQUENCY);
+        deadband = configuration.getFloat(PROP_DEADBAND, DEFAULT_DEADBAND);
+        final String servos = configuration.getString(PROP_SERVOS, null);
+        if (servos == null) {
+            throw ConfigurationException.createMissingConfigNameException(PROP_SERVOS);
+        }
+
+        servoNames = servos.trim().split("\\s*,\\s*");
+        final int size = servoNames.length;
+        servoBoards = new int[size];
+        servoChannels = new int[size];
+        servoTrims = new float[size];
+        servoDualRates = new float[size];
+        servoInverted = new boolean[size];
+        lastValues = new float[size];
+        written = new boolean[size];
+
+        final List<Integer> addresses = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            final Configuration servoConfiguration = configuration.getChildConfiguration(servoNames[i]);
+            if (servoConfiguration == null) {
+                throw ConfigurationException.createMissingConfigNameException(servoNames[i]);
+            }
+            final int address = servoConfiguration.getInteger(PROP_ADDRESS, DEFAULT_ADDRESS);
+            final int channel = servoConfiguration.getInteger(PROP_CHANNEL, -1);
+            if (channel < 0 || channel >= PwmBoard.CHANNELS) {
+                throw new ConfigurationException(String.format("servo: %s, invalid channel: %d", servoNames[i], channel));
+            }
+            if (!addresses.contains(address)) {
+                addresses.add(address);
+            }
+            servoBoards[i] = addresses.indexOf(address);
+            servoChannels[i] = channel;
+            servoTrims[i] = servoConfiguration.getFloat(PROP_TRIM, 0f);
+            servoDualRates[i] = servoConfiguration.getFloat(PROP_DUAL_RATE, 1f);
+            servoInverted[i] = servoConfiguration.getBoolean(PROP_INVERTED, false);
+        }
+
+        boards = new PwmBoard[addresses.size()];
+        boardCounts = new int[addresses.size()][PwmBoard.CHANNELS];
+        boardDirty = new int[addresses.size()];
+        for (int i = 0; i < boards.length; i++) {
+            try {
+                boards[i] = createBoard(bus, addresses.get(i), frequency);
+            } catch (IOException e) {
+                throw new ConfigurationException(String.format("failed to initialize board: %d", addresses.get(i)));
+            }
+            Arrays.fill(boardCounts[i], PWM_NEUTRAL);
+        }
+    }
+
+    @Override
+    public void onMessage(ServoBatchMessage message) {
+        try {
+            writeMessage(message);
+        } finally {
+            message.release();
+        }
+    }
+
+    private void writeMessage(ServoBatchMessage message) {
+        final float[] values = message.getValues();
+        final int[] servoIndexes = mapJoints(message.getJoints());
+        for (int i = 0; i < servoIndexes.length; i++) {
+            final int servo = servoIndexes[i];
+            if (servo < 0) {
+                continue;
+            }
+            final float value = values[i];
+            if (written[servo] && Math.abs(value - lastValues[servo]) < deadband) {
+                skipped++;
+                continue;
+            }
+            lastValues[servo] = value;
+            written[servo] = true;
+            final int board = servoBoards[servo];
+            boardCounts[board][servoChannels[servo]] = toPwm(servo, value);
+            boardDirty[board] |= 1 << servoChannels[servo];
+        }
+
+        for (int i = 0; i < boards.length; i++) {
+            if (boardDirty[i] != 0) {
+                try {
+                    boards[i].write(boardCounts[i], boardDirty[i]);
+                    writes++;
+                } catch (IOException e) {
+                    SimpleLoggingUtil.error(getClass(), "write failed", e);
+                }
+                boardDirty[i] = 0;
+            }
+        }
+    }
+
+    @Override
+    public Collection<AttributeDescriptor<?>> getKnownAttributes() {
+        return KNOWN_ATTRIBUTES;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected <R> R onGetAttribute(AttributeDescriptor<R> descriptor) {
+        if (descriptor.getAttributeType() == Long.class) {
+            if (descriptor.getAttributeName().equals(ATTR_WRITES)) {
+                return (R) Long.valueOf(writes);
+            }
+            if (descriptor.getAttributeName().equals(ATTR_SKIPPED)) {
+                return (R) Long.valueOf(skipped);
+            }
+        }
+        return super.onGetAttribute(descriptor);
+    }
+
+    protected PwmBoard createBoard(int bus, int address, int frequency) throws IOException {
+        return PCA9685Board.open(bus, address, frequency);
+    }
+
+    private int[] mapJoints(String[] joints) {
+        if (joints != mappedJoints) {
+            final int[] indexes = new int[joints.length];
+            for (int i = 0; i < joints.length; i++) {
+                indexes[i] = Arrays.asList(servoNames).indexOf(joints[i]);
+            }
+            jointServos = indexes;
+            mappedJoints = joints;
+        }
+        return jointServos;
+    }
+
+    private int toPwm(int servo, float value) {
+        float input = servoInverted[servo] ? -value : value;
+        int pwm = PWM_NEUTRAL + Math.round(servoTrims[servo] + input * servoDualRates[servo] * PWM_RANGE);
+        return Math.max(0, Math.min(PWM_MAX, pwm));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.sim;
+
+import com.robo4j.AttributeDescriptor;
+import com.robo4j.ConfigurationException;
+import com.robo4j.DefaultAttributeDescriptor;
+import com.robo4j.RoboContext;
+import com.robo4j.RoboUnit;
+import com.robo4j.configuration.Configuration;
+import com.robo4j.hw.rpi.i2c.adafruitbackpack.BiColor;
+import com.robo4j.hw.rpi.i2c.adafruitbackpack.PackElement;
+import com.robo4j.units.rpi.led.LEDBackpackMessage;
+import com.robo4j.units.rpi.led.LEDBackpackMessageType;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * SimLedMatrixUnit simulated replacement of {@link com.robo4j.units.rpi.led.Adafruit8x8MatrixUnit}
+ * keeping the matrix in the in-memory framebuffer
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public class SimLedMatrixUnit extends RoboUnit<LEDBackpackMessage> {
+
+    public static final String PROP_SIZE = "size";
+    public static final String ATTR_FRAMEBUFFER = "framebuffer";
+    public static final String ATTR_FRAMES = "frames";
+    public static final String ATTR_PIXEL_WRITES = "pixelWrites";
+
+    public static final DefaultAttributeDescriptor<String> DESCRIPTOR_FRAMEBUFFER = DefaultAttributeDescriptor.create(String.class, ATTR_FRAMEBUFFER);
+    public static final DefaultAttributeDescriptor<Long> DESCRIPTOR_FRAMES = DefaultAttributeDescriptor.create(Long.class, ATTR_FRAMES);
+    public static final DefaultAttributeDescriptor<Long> DESCRIPTOR_PIXEL_WRITES = DefaultAttributeDescriptor.create(Long.class, ATTR_PIXEL_WRITES);
+    private static final Collection<AttributeDescriptor<?>> KNOWN_ATTRIBUTES = Collections
+            .unmodifiableCollection(Arrays.asList(DESCRIPTOR_FRAMEBUFFER, DESCRIPTOR_FRAMES, DESCRIPTOR_PIXEL_WRITES));
+    private static final int DEFAULT_SIZE = 8;
+
+    private int size;
+    private BiColor[] framebuffer;
+    private long frames;
+    private long pixelWrites;
+
+    public SimLedMatrixUnit(RoboContext context, String id) {
+        super(LEDBackpackMessage.class, context, id);
+    }
+
+    @Override
+    protected void onInitialization(Configuration configuration) throws ConfigurationException {
+        size = configuration.getInteger(PROP_SIZE, DEFAULT_SIZE);
+        framebuffer = new BiColor[size * size];
+        Arrays.fill(framebuffer, BiColor.OFF);
+    }
+
+    @Override
+    public synchronized void onMessage(LEDBackpackMessage message) {
+        if (message.getType() == LEDBackpackMessageType.CLEAR) {
+            Arrays.fill(framebuffer, BiColor.OFF);
+            frames++;
+            return;
+        }
+        if (message.getElements() != null) {
+            for (PackElement element : message.getElements()) {
+                int x = element.getX();
+                int y = element.getY();
+                if (x >= 0 && x < size && y >= 0 && y < size) {
+                    framebuffer[y * size + x] = element.getColor();
+                    pixelWrites++;
+                }
+            }
+        }
+        if (message.getType() == LEDBackpackMessageType.DISPLAY) {
+            frames++;
+        }
+    }
+
+    public synchronized BiColor getPixel(int x, int y) {
+        return framebuffer[y * size + x];
+    }
+
+    @Override
+    public Collection<AttributeDescriptor<?>> getKnownAttributes() {
+        return KNOWN_ATTRIBUTES;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected synchronized <R> R onGetAttribute(AttributeDescriptor<R> descriptor) {
+        switch (descriptor.getAttributeName()) {
+            case ATTR_FRAMEBUFFER:
+                return (R) render();
+            case ATTR_FRAMES:
+                return (R) Long.valueOf(frames);
+            case ATTR_PIXEL_WRITES:
+                return (R) Long.valueOf(pixelWrites);
+            default:
+                return super.onGetAttribute(descriptor);
+        }
+    }
+
+    private String render() {
+        StringBuilder sb = new StringBuilder(size * (size + 1));
+        for (int y = 0; y < size; y++) {
+            if (y > 0) {
+                sb.append(',');
+            }
+            for (int x = 0; x < size; x++) {
+                sb.append(framebuffer[y * size + x].getValue());
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.sim;
+
+import com.robo4j.ConfigurationException;
+import com.robo4j.RoboContext;
+import com.robo4j.RoboReference;
+import com.robo4j.RoboUnit;
+import com.robo4j.configuration.Configuration;
+import com.robo4j.hw.rpi.pad.LF710Button;
+import com.robo4j.hw.rpi.pad.LF710Input;
+import com.robo4j.hw.rpi.pad.LF710JoystickButton;
+import com.robo4j.hw.rpi.pad.LF710Message;
+import com.robo4j.hw.rpi.pad.LF710Part;
+import com.robo4j.hw.rpi.pad.LF710State;
+import com.robo4j.logging.SimpleLoggingUtil;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * SimPadUnit simulated replacement of {@link com.robo4j.units.rpi.pad.LF710PadUnit}
+ * fed by the scripted input stream. Script is the file path or the classpath resource,
+ * each line: delayMillis INPUT PRESSED|RELEASED amount, '#' starts the comment.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public class SimPadUnit extends RoboUnit<Object> {
+
+    public static final String PROP_TARGET = "target";
+    public static final String PROP_SCRIPT = "script";
+    public static final String PROP_SPEED = "speed";
+    public static final String PROP_LOOP = "loop";
+    private static final String COMMENT = "#";
+
+    private final AtomicBoolean active = new AtomicBoolean();
+    private final List<ScriptEvent> events = new ArrayList<>();
+    private RoboReference<LF710Message> targetReference;
+    private String target;
+    private float speed;
+    private boolean loop;
+
+    public SimPadUnit(RoboContext context, String id) {
+        super(Object.class, context, id);
+    }
+
+    @Override
+    protected void onInitialization(Configuration configuration) throws ConfigurationException {
+        target = configuration.getString(PROP_TARGET, null);
+        if (target == null) {
+            throw ConfigurationException.createMissingConfigNameException(PROP_TARGET);
+        }
+        String script = configuration.getString(PROP_SCRIPT, null);
+        if (script == null) {
+            throw ConfigurationException.createMissingConfigNameException(PROP_SCRIPT);
+        }
+        speed = configuration.getFloat(PROP_SPEED, 1f);
+        if (speed <= 0) {
+            throw new ConfigurationException(PROP_SPEED);
+        }
+        loop = configuration.getBoolean(PROP_LOOP, true);
+        events.clear();
+        try (InputStream is = openScript(script)) {
+            if (is == null) {
+                throw new ConfigurationException("script not found: " + script);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith(COMMENT)) {
+                    events.add(parseEvent(line, number));
+                }
+            }
+        } catch (IOException e) {
+            throw new ConfigurationException("script: " + e.getMessage());
+        }
+        if (events.isEmpty()) {
+            throw new ConfigurationException("empty script: " + script);
+        }
+    }
+
+    @Override
+    public void start() {
+        super.start();
+        targetReference = getContext().getReference(target);
+        if (active.compareAndSet(false, true)) {
+            scheduleEvent(0);
+        }
+    }
+
+    @Override
+    public void stop() {
+        active.set(false);
+        super.stop();
+    }
+
+    private void scheduleEvent(int index) {
+        if (!active.get()) {
+            return;
+        }
+        final ScriptEvent event = events.get(index);
+        final long delayMicros = (long) (event.delayMillis * 1000 / speed);
+        getContext().getScheduler().schedule(() -> {
+            if (active.get()) {
+                targetReference.sendMessage(new LF710Message(System.currentTimeMillis(), event.amount, event.part,
+                        event.input, event.state));
+                int next = index + 1;
+                if (next < events.size()) {
+                    scheduleEvent(next);
+                } else if (loop) {
+                    scheduleEvent(0);
+                } else {
+                    SimpleLoggingUtil.info(getClass(), "script finished");
+                }
+            }
+        }, delayMicros, TimeUnit.MICROSECONDS);
+    }
+
+    private InputStream openScript(String script) throws IOException {
+        Path path = Paths.get(script);
+        if (Files.isRegularFile(path)) {
+            return Files.newInputStream(path);
+        }
+        return Thread.currentThread().getContextClassLoader().getResourceAsStream(script);
+    }
+
+    private static ScriptEvent parseEvent(String line, int number) throws ConfigurationException {
+        String[] parts = line.split("\\s+");
+        if (parts.length != 4) {
+            throw new ConfigurationException(String.format("line: %d, expected: delayMillis INPUT STATE amount", number));
+        }
+        try {
+            long delay = Long.parseLong(parts[0]);
+            LF710State state = LF710State.valueOf(parts[2]);
+            short amount = Short.parseShort(parts[3]);
+            for (LF710JoystickButton joystick : LF710JoystickButton.values()) {
+                if (joystick.name().equals(parts[1])) {
+                    return new ScriptEvent(delay, LF710Part.JOYSTICK, joystick, state, amount);
+                }
+            }
+            return new ScriptEvent(delay, LF710Part.BUTTON, LF710Button.valueOf(parts[1]), state, amount);
+        } catch (IllegalArgumentException e) {
+            throw new ConfigurationException(String.format("line: %d, %s", number, e.getMessage()));
+        }
+    }
+
+    private static final class ScriptEvent {
+        private final long delayMillis;
+        private final LF710Part part;
+        private final LF710Input input;
+        private final LF710State state;
+        private final short amount;
+
+        private ScriptEvent(long delayMillis, LF710Part part, LF710Input input, LF710State state, short amount) {
+            this.delayMillis = delayMillis;
+            this.part = part;
+            this.input = input;
+            this.state = state;
+            this.amount = amount;
+        }
+    }
+}
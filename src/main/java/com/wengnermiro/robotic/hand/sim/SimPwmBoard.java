@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.sim;
+
+import com.wengnermiro.robotic.hand.servo.PwmBoard;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SimPwmBoard in-memory {@link PwmBoard} keeping the last written counts
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public class SimPwmBoard implements PwmBoard {
+
+    private final int address;
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(CHANNELS);
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong channelWrites = new AtomicLong();
+
+    public SimPwmBoard(int address) {
+        this.address = address;
+    }
+
+    @Override
+    public void write(int[] offCounts, int dirtyMask) {
+        if (dirtyMask == 0) {
+            return;
+        }
+        int remaining = dirtyMask & ((1 << CHANNELS) - 1);
+        channelWrites.addAndGet(Integer.bitCount(remaining));
+        while (remaining != 0) {
+            final int channel = Integer.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            counts.set(channel, offCounts[channel]);
+        }
+        writes.incrementAndGet();
+    }
+
+    public int getAddress() {
+        return address;
+    }
+
+    public int getCount(int channel) {
+        return counts.get(channel);
+    }
+
+    public long getWrites() {
+        return writes.get();
+    }
+
+    public long getChannelWrites() {
+        return channelWrites.get();
+    }
+}
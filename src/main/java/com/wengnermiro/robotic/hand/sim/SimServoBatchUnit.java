@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.sim;
+
+import com.robo4j.RoboContext;
+import com.wengnermiro.robotic.hand.servo.PwmBoard;
+import com.wengnermiro.robotic.hand.servo.ServoBatchUnit;
+
+/**
+ * SimServoBatchUnit {@link ServoBatchUnit} writing to in-memory boards
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public class SimServoBatchUnit extends ServoBatchUnit {
+
+    public SimServoBatchUnit(RoboContext context, String id) {
+        super(context, id);
+    }
+
+    @Override
+    protected PwmBoard createBoard(int bus, int address, int frequency) {
+        return new SimPwmBoard(address);
+    }
+}
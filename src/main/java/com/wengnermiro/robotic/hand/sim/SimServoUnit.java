@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.sim;
+
+import com.robo4j.AttributeDescriptor;
+import com.robo4j.ConfigurationException;
+import com.robo4j.DefaultAttributeDescriptor;
+import com.robo4j.RoboContext;
+import com.robo4j.RoboUnit;
+import com.robo4j.configuration.Configuration;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * SimServoUnit simulated replacement of {@link com.robo4j.units.rpi.pwm.PCA9685ServoUnit}.
+ * The position follows the received target with the limited slew rate.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public class SimServoUnit extends RoboUnit<Float> {
+
+    public static final String PROP_SLEW_RATE = "slewRate";
+    public static final String ATTR_POSITION = "position";
+    public static final String ATTR_TARGET = "target";
+    public static final String ATTR_MESSAGES = "messages";
+
+    public static final DefaultAttributeDescriptor<Float> DESCRIPTOR_POSITION = DefaultAttributeDescriptor.create(Float.class, ATTR_POSITION);
+    public static final DefaultAttributeDescriptor<Float> DESCRIPTOR_TARGET = DefaultAttributeDescriptor.create(Float.class, ATTR_TARGET);
+    public static final DefaultAttributeDescriptor<Long> DESCRIPTOR_MESSAGES = DefaultAttributeDescriptor.create(Long.class, ATTR_MESSAGES);
+    private static final Collection<AttributeDescriptor<?>> KNOWN_ATTRIBUTES = Collections
+            .unmodifiableCollection(Arrays.asList(DESCRIPTOR_POSITION, DESCRIPTOR_TARGET, DESCRIPTOR_MESSAGES));
+
+    // normalized units per second, full range in 0.5s
+    private static final float DEFAULT_SLEW_RATE = 4f;
+    private static final float NANOS_PER_SECOND = 1_000_000_000f;
+
+    private final SlewModel model = new SlewModel();
+
+    public SimServoUnit(RoboContext context, String id) {
+        super(Float.class, context, id);
+    }
+
+    @Override
+    protected void onInitialization(Configuration configuration) throws ConfigurationException {
+        model.slewRate = configuration.getFloat(PROP_SLEW_RATE, DEFAULT_SLEW_RATE);
+        if (model.slewRate <= 0) {
+            throw new ConfigurationException(PROP_SLEW_RATE);
+        }
+    }
+
+    @Override
+    public void onMessage(Float message) {
+        model.setTarget(message, System.nanoTime());
+    }
+
+    @Override
+    public Collection<AttributeDescriptor<?>> getKnownAttributes() {
+        return KNOWN_ATTRIBUTES;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected <R> R onGetAttribute(AttributeDescriptor<R> descriptor) {
+        switch (descriptor.getAttributeName()) {
+            case ATTR_POSITION:
+                return (R) Float.valueOf(model.getPosition(System.nanoTime()));
+            case ATTR_TARGET:
+                return (R) Float.valueOf(model.getTarget());
+            case ATTR_MESSAGES:
+                return (R) Long.valueOf(model.getMessages());
+            default:
+                return super.onGetAttribute(descriptor);
+        }
+    }
+
+    static final class SlewModel {
+        private float slewRate = DEFAULT_SLEW_RATE;
+        private float position;
+        private float target;
+        private long updated = System.nanoTime();
+        private long messages;
+
+        synchronized void setTarget(float value, long now) {
+            update(now);
+            target = Math.max(-1f, Math.min(1f, value));
+            messages++;
+        }
+
+        synchronized float getPosition(long now) {
+            update(now);
+            return position;
+        }
+
+        synchronized float getTarget() {
+            return target;
+        }
+
+        synchronized long getMessages() {
+            return messages;
+        }
+
+        private void update(long now) {
+            final float maxStep = slewRate * (now - updated) / NANOS_PER_SECOND;
+            final float diff = target - position;
+            position = Math.abs(diff) <= maxStep ? target : position + Math.signum(diff) * maxStep;
+            updated = now;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.telemetry;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JointTelemetryRing fixed size off-heap ring of the joint values recorded every control tick.
+ * Record: sequence, nanoTime and the values of all joints. The single writer marks the record
+ * as being written before it is changed and publishes the sequence afterwards, readers do not
+ * lock and drop records changed while being read.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class JointTelemetryRing {
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final long WRITING = -1;
+    private static final int NANOS_OFFSET = Long.BYTES;
+    private static final int VALUES_OFFSET = 2 * Long.BYTES;
+
+    private final String[] jointNames;
+    private final int capacity;
+    private final int recordSize;
+    private final ByteBuffer buffer;
+    private final AtomicLong head = new AtomicLong();
+
+    public JointTelemetryRing(String[] jointNames, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity: " + capacity);
+        }
+        this.jointNames = jointNames.clone();
+        this.capacity = capacity;
+        final int size = VALUES_OFFSET + jointNames.length * Float.BYTES;
+        this.recordSize = (size + Long.BYTES - 1) & ~(Long.BYTES - 1);
+        this.buffer = ByteBuffer.allocateDirect(capacity * recordSize).order(ByteOrder.nativeOrder());
+        for (int i = 0; i < capacity; i++) {
+            LONGS.setRelease(buffer, i * recordSize, WRITING);
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int jointCount() {
+        return jointNames.length;
+    }
+
+    /**
+     * @return total number of recorded ticks
+     */
+    public long getRecorded() {
+        return head.get();
+    }
+
+    /**
+     * single writer
+     */
+    public void record(long nanoTime, float[] values) {
+        final long sequence = head.get();
+        final int offset = (int) (sequence % capacity) * recordSize;
+        LONGS.setOpaque(buffer, offset, WRITING);
+        VarHandle.storeStoreFence();
+        buffer.putLong(offset + NANOS_OFFSET, nanoTime);
+        for (int i = 0; i < jointNames.length; i++) {
+            buffer.putFloat(offset + VALUES_OFFSET + i * Float.BYTES, values[i]);
+        }
+        LONGS.setRelease(buffer, offset, sequence);
+        head.lazySet(sequence + 1);
+    }
+
+    /**
+     * reads the record into the array, the record nanoTime is returned
+     *
+     * @param sequence record sequence
+     * @param values   array of joint values
+     * @return nanoTime of the record or {@link Long#MIN_VALUE} when the record is not available
+     */
+    public long read(long sequence, float[] values) {
+        final int offset = (int) (sequence % capacity) * recordSize;
+        if ((long) LONGS.getAcquire(buffer, offset) != sequence) {
+            return Long.MIN_VALUE;
+        }
+        final long nanoTime = buffer.getLong(offset + NANOS_OFFSET);
+        for (int i = 0; i < jointNames.length; i++) {
+            values[i] = buffer.getFloat(offset + VALUES_OFFSET + i * Float.BYTES);
+        }
+        VarHandle.loadLoadFence();
+        return (long) LONGS.getOpaque(buffer, offset) == sequence ? nanoTime : Long.MIN_VALUE;
+    }
+
+    /**
+     * averages of the joint values over the window ending now split to the points, e.g.
+     * {"joints":["servo1"],"points":[{"time":-5000,"values":[0.1]}]}, time in millis relative to now
+     *
+     * @param windowMillis window length
+     * @param points       max number of points
+     * @return JSON summary
+     */
+    public String query(long windowMillis, int points) {
+        final long end = System.nanoTime();
+        final long window = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        final long start = end - window;
+        final double[] sums = new double[points * jointNames.length];
+        final int[] counts = new int[points];
+        final float[] values = new float[jointNames.length];
+        final long newest = head.get() - 1;
+        final long oldest = Math.max(0, newest - capacity + 1);
+        for (long sequence = newest; sequence >= oldest; sequence--) {
+            final long nanoTime = read(sequence, values);
+            if (nanoTime == Long.MIN_VALUE) {
+                continue;
+            }
+            if (nanoTime - start < 0) {
+                break;
+            }
+            final int point = (int) Math.min(points - 1, (nanoTime - start) * points / window);
+            counts[point]++;
+            for (int i = 0; i < values.length; i++) {
+                sums[point * values.length + i] += values[i];
+            }
+        }
+
+        final StringBuilder sb = new StringBuilder("{\"joints\":[");
+        for (int i = 0; i < jointNames.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append('"').append(jointNames[i]).append('"');
+        }
+        sb.append("],\"points\":[");
+        boolean first = true;
+        for (int p = 0; p < points; p++) {
+            if (counts[p] == 0) {
+                continue;
+            }
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            sb.append("{\"time\":").append(TimeUnit.NANOSECONDS.toMillis(p * window / points - window))
+                    .append(",\"values\":[");
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append((float) (sums[p * values.length + i] / counts[p]));
+            }
+            sb.append("]}");
+        }
+        return sb.append("]}").toString();
+    }
+}
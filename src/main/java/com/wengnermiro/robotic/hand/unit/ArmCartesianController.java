@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.unit;
+
+import com.robo4j.AttributeDescriptor;
+import com.robo4j.ConfigurationException;
+import com.robo4j.DefaultAttributeDescriptor;
+import com.robo4j.RoboContext;
+import com.robo4j.RoboUnit;
+import com.robo4j.configuration.Configuration;
+import com.robo4j.logging.SimpleLoggingUtil;
+import com.wengnermiro.robotic.hand.codec.ArmCartesianMessage;
+import com.wengnermiro.robotic.hand.control.ArmControlRegistry;
+import com.wengnermiro.robotic.hand.control.ArmTickEngine;
+import com.wengnermiro.robotic.hand.control.CartesianTracker;
+import com.wengnermiro.robotic.hand.kinematics.ArmGeometry;
+import com.wengnermiro.robotic.hand.kinematics.ArmKinematics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+
+import static com.wengnermiro.robotic.hand.unit.UnitsUtil.validateProperty;
+
+/**
+ * ArmCartesianController submits the received gripper tip position to the control loop
+ * of the {@link ArmController}, joints are solved by the inverse kinematics inside the loop.
+ * The position attribute is the current tip position (forward kinematics) with the solver status.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public class ArmCartesianController extends RoboUnit<ArmCartesianMessage> {
+
+    public static final String NAME = "armCartesianController";
+    public static final String ATTR_TARGET = "target";
+    public static final String ATTR_POSITION = "position";
+    public static final DefaultAttributeDescriptor<String> DESCRIPTOR_POSITION = DefaultAttributeDescriptor.create(String.class, ATTR_POSITION);
+    private static final Collection<AttributeDescriptor<?>> KNOWN_ATTRIBUTES = Collections.singletonList(DESCRIPTOR_POSITION);
+
+    private final float[] values = new float[ArmGeometry.JOINTS];
+    private final double[] position = new double[3];
+    private String target;
+    private ArmKinematics kinematics;
+
+    public ArmCartesianController(RoboContext context, String id) {
+        super(ArmCartesianMessage.class, context, id);
+    }
+
+    @Override
+    protected void onInitialization(Configuration configuration) throws ConfigurationException {
+        target = configuration.getString(ATTR_TARGET, null);
+        validateProperty(target, ATTR_TARGET);
+    }
+
+    @Override
+    public void onMessage(ArmCartesianMessage message) {
+        if (!isValid(message.getX()) || !isValid(message.getY()) || !isValid(message.getZ())) {
+            SimpleLoggingUtil.error(getClass(), "rejected target: " + message);
+            return;
+        }
+        final ArmTickEngine engine = ArmControlRegistry.get(getContext(), target);
+        if (engine == null) {
+            SimpleLoggingUtil.info(getClass(), String.format("control loop not running: %s", target));
+            return;
+        }
+        if (!engine.moveTo(message.getX(), message.getY(), message.getZ())) {
+            SimpleLoggingUtil.info(getClass(), String.format("kinematics disabled: %s", target));
+        }
+    }
+
+    @Override
+    public Collection<AttributeDescriptor<?>> getKnownAttributes() {
+        return KNOWN_ATTRIBUTES;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected <R> R onGetAttribute(AttributeDescriptor<R> descriptor) {
+        if (ATTR_POSITION.equals(descriptor.getAttributeName())) {
+            final ArmTickEngine engine = ArmControlRegistry.get(getContext(), target);
+            final CartesianTracker cartesian = engine == null ? null : engine.getCartesianTracker();
+            return cartesian == null ? null : (R) getPosition(engine, cartesian);
+        }
+        return super.onGetAttribute(descriptor);
+    }
+
+    private synchronized String getPosition(ArmTickEngine engine, CartesianTracker cartesian) {
+        if (kinematics == null || kinematics.getGeometry() != cartesian.getGeometry()) {
+            kinematics = new ArmKinematics(cartesian.getGeometry());
+        }
+        for (int i = 0; i < values.length; i++) {
+            values[i] = engine.getJointValue(cartesian.getJoint(i));
+        }
+        kinematics.forward(values, position);
+        return String.format(Locale.US, "{\"x\":%.1f,\"y\":%.1f,\"z\":%.1f,\"status\":\"%s\",\"iterations\":%d,\"seeded\":%b}",
+                position[0], position[1], position[2], cartesian.getStatus().getName(), cartesian.getIterations(),
+                cartesian.isSeeded());
+    }
+
+    private static boolean isValid(Float value) {
+        return value != null && Float.isFinite(value);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.wengnermiro.robotic.hand.unit;
+
+import com.robo4j.ConfigurationException;
+import com.robo4j.RoboContext;
+import com.robo4j.RoboReference;
+import com.robo4j.configuration.Configuration;
+import com.robo4j.logging.SimpleLoggingUtil;
+import com.wengnermiro.robotic.hand.control.ArmState;
+import com.wengnermiro.robotic.hand.control.ArmTickEngine;
+import com.wengnermiro.robotic.hand.control.ControlLoopRunner;
+import com.wengnermiro.robotic.hand.control.ExecutionLane;
+import com.wengnermiro.robotic.hand.control.JointOutput;
+import com.wengnermiro.robotic.hand.control.MissedDeadlinePolicy;
+import com.wengnermiro.robotic.hand.jfr.JfrLoopStatistics;
+import com.wengnermiro.robotic.hand.servo.ServoBatchBuffer;
+import com.wengnermiro.robotic.hand.servo.ServoBatchMessage;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ArmControlLanes runs the {@link ArmTickEngine} of the {@link ArmController} on the servo and the display
+ * {@link ExecutionLane}. The servo lane sends the joint values to the servo units or to the servo batch unit,
+ * the display lane publishes the {@link ArmState} to the animation unit when it is configured.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class ArmControlLanes {
+
+    public static final String PROP_DELAY = "delay";
+    public static final String PROP_SPIN_NANOS = "spinNanos";
+    public static final String PROP_DISPLAY_DELAY = "displayDelay";
+    public static final String PROP_MISSED_DEADLINE_POLICY = "missedDeadlinePolicy";
+    public static final String PROP_TARGET_SERVO_BATCH = "targetServoBatch";
+    public static final String PROP_TARGET_ANIMATION = "targetAnimation";
+    private static final long DEFAULT_DELAY_MILLS = 200;
+    private static final long DEFAULT_SPIN_NANOS = 200_000;
+    private static final long DEFAULT_DISPLAY_DELAY_MILLS = 50;
+    private static final String SERVO_LANE_THREAD_NAME = "ArmController Servo Lane";
+    private static final String DISPLAY_LANE_THREAD_NAME = "ArmController Display Lane";
+
+    private final long delay;
+    private final long spinNanos;
+    private final long displayDelay;
+    private final MissedDeadlinePolicy missedDeadlinePolicy;
+    private final String targetServoBatch;
+    private final String targetAnimation;
+    private volatile ControlLoopRunner servoRunner;
+    private volatile ControlLoopRunner displayRunner;
+    private JfrLoopStatistics servoStatistics;
+    private JfrLoopStatistics displayStatistics;
+
+    private ArmControlLanes(long delay, long spinNanos, long displayDelay, MissedDeadlinePolicy missedDeadlinePolicy,
+                            String targetServoBatch, String targetAnimation) {
+        this.delay = delay;
+        this.spinNanos = spinNanos;
+        this.displayDelay = displayDelay;
+        this.missedDeadlinePolicy = missedDeadlinePolicy;
+        this.targetServoBatch = targetServoBatch;
+        this.targetAnimation = targetAnimation;
+    }
+
+    public static ArmControlLanes create(Configuration configuration) throws ConfigurationException {
+        final long displayDelay = configuration.getLong(PROP_DISPLAY_DELAY, DEFAULT_DISPLAY_DELAY_MILLS);
+        if (displayDelay <= 0) {
+            throw new ConfigurationException(PROP_DISPLAY_DELAY);
+        }
+        return new ArmControlLanes(configuration.getLong(PROP_DELAY, DEFAULT_DELAY_MILLS),
+                configuration.getLong(PROP_SPIN_NANOS, DEFAULT_SPIN_NANOS), displayDelay,
+                MissedDeadlinePolicy.getByName(configuration.getString(PROP_MISSED_DEADLINE_POLICY,
+                        MissedDeadlinePolicy.SKIP.name())),
+                configuration.getString(PROP_TARGET_SERVO_BATCH, null),
+                configuration.getString(PROP_TARGET_ANIMATION, null));
+    }
+
+    /**
+     * @return period of the servo lane in millis
+     */
+    public long getDelay() {
+        return delay;
+    }
+
+    /**
+     * @return true when the display lane publishes the state to the animation unit
+     */
+    public boolean isAnimated() {
+        return targetAnimation != null;
+    }
+
+    /**
+     * @param gripper name of the gripper joint, used by the published state
+     */
+    public void start(RoboContext context, ArmTickEngine tickEngine, String gripper) {
+        final RoboReference<ServoBatchMessage> servoBatch = targetServoBatch == null ? null : context.getReference(targetServoBatch);
+        if (targetServoBatch != null && servoBatch == null) {
+            SimpleLoggingUtil.error(getClass(), "servo batch unit not found, joint values sent to the servo units: "
+                    + targetServoBatch);
+        }
+        final Runnable tick;
+        if (servoBatch == null) {
+            tick = tickEngine::tick;
+            tickEngine.setJointOutput(createServoOutput(context, tickEngine));
+        } else {
+            final ServoBatchBuffer batchBuffer = new ServoBatchBuffer(tickEngine.getJointNames());
+            tick = () -> {
+                if (tickEngine.tick() | batchBuffer.isPending()) {
+                    final ServoBatchMessage message = batchBuffer.acquire();
+                    if (message != null) {
+                        tickEngine.copyJointValues(message.getValues());
+                        servoBatch.sendMessage(message);
+                    }
+                }
+            };
+        }
+        final RoboReference<ArmState> animation = targetAnimation == null ? null : context.getReference(targetAnimation);
+        final Runnable displayTick = animation == null ? tickEngine::tickDisplay : new ArmStateTick(tickEngine, animation, gripper);
+        final ControlLoopRunner servo = new ControlLoopRunner(SERVO_LANE_THREAD_NAME, tick, delay, TimeUnit.MILLISECONDS,
+                spinNanos, missedDeadlinePolicy, ExecutionLane.SERVO.getPriority());
+        final ControlLoopRunner display = new ControlLoopRunner(DISPLAY_LANE_THREAD_NAME, displayTick, displayDelay,
+                TimeUnit.MILLISECONDS, 0, MissedDeadlinePolicy.SKIP, ExecutionLane.DISPLAY.getPriority());
+        servoStatistics = JfrLoopStatistics.register(servo, tickEngine);
+        displayStatistics = JfrLoopStatistics.register(display, null);
+        servo.start();
+        display.start();
+        servoRunner = servo;
+        displayRunner = display;
+    }
+
+    public void stop() {
+        final ControlLoopRunner servo = servoRunner;
+        final ControlLoopRunner display = displayRunner;
+        servoRunner = null;
+        displayRunner = null;
+        if (servo != null) {
+            servo.stop();
+            servoStatistics.unregister();
+        }
+        if (display != null) {
+            display.stop();
+            displayStatistics.unregister();
+        }
+    }
+
+    /**
+     * @return JSON statistics of both lanes or null when the lanes are not running
+     */
+    public String getSummary() {
+        final ControlLoopRunner servo = servoRunner;
+        final ControlLoopRunner display = displayRunner;
+        return servo == null || display == null ? null : "{\"" + ExecutionLane.SERVO.getName() + "\":"
+                + servo.getSummary() + ",\"" + ExecutionLane.DISPLAY.getName() + "\":" + display.getSummary() + "}";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JointOutput createServoOutput(RoboContext context, ArmTickEngine tickEngine) {
+        final RoboReference<Float>[] servos = (RoboReference<Float>[]) new RoboReference<?>[tickEngine.jointCount()];
+        for (int i = 0; i < servos.length; i++) {
+            RoboReference<?> reference = context.getReference(tickEngine.getJointName(i));
+            if (reference != null && Float.class.equals(reference.getMessageType())) {
+                servos[i] = (RoboReference<Float>) reference;
+            }
+        }
+        return (joint, value) -> {
+            if (servos[joint] != null) {
+                servos[joint].sendMessage(value);
+            }
+        };
+    }
+}
@@ -17,27 +17,39 @@
 
 package com.wengnermiro.robotic.hand.unit;
 
+import com.robo4j.AttributeDescriptor;
 import com.robo4j.ConfigurationException;
 import com.robo4j.CriticalSectionTrait;
+import com.robo4j.DefaultAttributeDescriptor;
 import com.robo4j.RoboContext;
 import com.robo4j.RoboUnit;
 import com.robo4j.configuration.Configuration;
 import com.robo4j.hw.rpi.pad.LF710Input;
 import com.robo4j.hw.rpi.pad.LF710Message;
 import com.robo4j.hw.rpi.pad.LF710State;
+import com.wengnermiro.robotic.hand.control.ArmAxes;
+import com.wengnermiro.robotic.hand.control.ArmControlRegistry;
+import com.wengnermiro.robotic.hand.control.ArmTickEngine;
+import com.wengnermiro.robotic.hand.control.CollisionGuard;
+import com.wengnermiro.robotic.hand.control.ExecutionLane;
+import com.wengnermiro.robotic.hand.control.InputSource;
+import com.wengnermiro.robotic.hand.control.TimedPadMessage;
 import com.wengnermiro.robotic.hand.listener.ArmGripperHeadServoListenerImpl;
 import com.wengnermiro.robotic.hand.listener.ArmListener;
 import com.wengnermiro.robotic.hand.listener.ArmPlatformServoListenerImpl;
+import com.wengnermiro.robotic.hand.listener.AbstractFaceListenerImpl;
 import com.wengnermiro.robotic.hand.listener.FaceNeutralListenerImpl;
 import com.wengnermiro.robotic.hand.listener.FaceSadListenerImpl;
 import com.wengnermiro.robotic.hand.listener.FaceSmileListenerImpl;
-
+import com.wengnermiro.robotic.hand.telemetry.JointTelemetryRing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
 
 import static com.robo4j.hw.rpi.pad.LF710Button.BLUE;
 import static com.robo4j.hw.rpi.pad.LF710Button.FRONT_DOWN_LEFT;
@@ -55,6 +67,10 @@ import static com.wengnermiro.robotic.hand.unit.UnitsUtil.validateProperty;
 
 /**
  * ArmController reacts on event produced by {@link com.robo4j.units.rpi.pad.LF710PadUnit}
+ * Servo listeners run on the high priority servo lane, display listeners, the bargraph and
+ * the animation state on the lower priority display lane, see {@link ExecutionLane}.
+ * The lanes, the motion profiles, the kinematics and the pad recording are configured by
+ * {@link ArmControlLanes}, {@link ArmMotionProfiles}, {@link ArmKinematicsSupport} and {@link ArmPadRecorder}.
  *
  * @author Miroslav Wengner (@miragemiko)
  */
@@ -62,7 +78,7 @@ import static com.wengnermiro.robotic.hand.unit.UnitsUtil.validateProperty;
 public class ArmController extends RoboUnit<LF710Message> {
 
     private static final int DEFAULT_JOYSTICK_POS = 32767;
-    private static final long DEFAULT_DELAY_MILLS = 200;
+    private static final int DEFAULT_TELEMETRY_CAPACITY = 3000;
     public static final String PROP_ABS_RIGHT_JOYSTICK_POS = "absRightJoystickPos";
     public static final String PROP_ABS_LEFT_JOYSTICK_POS = "absLeftJoystickPos";
     public static final String PROP_ABS_PAD_JOYSTICK_POS = "absPadJoystickPos";
@@ -76,18 +92,32 @@ public class ArmController extends RoboUnit<LF710Message> {
     public static final String PROP_TARGET_HEAD_ROTATION = "targetHeadRotation";
     public static final String PROP_TARGET_GRIPPER = "targetGripper";
     public static final String PROP_SERVO_ROTATION_HEAD_LEFT_RIGHT_STEP = "servoRotationHeadRightLeftStep";
-    public static final String PROP_DELAY = "delay";
     public static final String PROP_TARGET_DISPLAY = "targetDisplay";
-
-    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(1, (r) -> {
-        Thread t = new Thread(r, "ArmController Internal Executor-1");
-        t.setDaemon(true);
-        return t;
-    });
-
-    private final Map<LF710Input, ArmListener> listeners = new ConcurrentHashMap<>();
-    private final AtomicReference<LF710Input> activeKey = new AtomicReference<>();
-    private final Map<String, Float> currentListenersValues = new ConcurrentHashMap<>();
+    public static final String PROP_MULTI_AXIS = "multiAxis";
+    public static final String PROP_TELEMETRY_CAPACITY = "telemetryCapacity";
+    public static final String AXIS_PLATFORM_X = "platformX";
+    public static final String AXIS_ARM_YX = "armYX";
+    public static final String AXIS_ARM_Y = "armY";
+    public static final String AXIS_HEAD_X = "headX";
+    public static final String AXIS_HEAD_Y = "headY";
+    public static final String AXIS_HEAD_ROTATION = "headRotation";
+    public static final String AXIS_GRIPPER = "gripper";
+    public static final String ATTR_LATENCY = "latency";
+    public static final DefaultAttributeDescriptor<String> DESCRIPTOR_LATENCY = DefaultAttributeDescriptor.create(String.class, ATTR_LATENCY);
+    public static final String ATTR_COLLISIONS = "collisions";
+    public static final DefaultAttributeDescriptor<Long> DESCRIPTOR_COLLISIONS = DefaultAttributeDescriptor.create(Long.class, ATTR_COLLISIONS);
+    public static final String ATTR_COLLISION_LATCHED = "collisionLatched";
+    public static final DefaultAttributeDescriptor<Boolean> DESCRIPTOR_COLLISION_LATCHED = DefaultAttributeDescriptor.create(Boolean.class, ATTR_COLLISION_LATCHED);
+    public static final String ATTR_LANES = "lanes";
+    public static final DefaultAttributeDescriptor<String> DESCRIPTOR_LANES = DefaultAttributeDescriptor.create(String.class, ATTR_LANES);
+    private static final Collection<AttributeDescriptor<?>> KNOWN_ATTRIBUTES = Collections
+            .unmodifiableCollection(Arrays.asList(DESCRIPTOR_LATENCY, DESCRIPTOR_COLLISIONS, DESCRIPTOR_COLLISION_LATCHED,
+                    DESCRIPTOR_LANES));
+
+    private final Map<LF710Input, ArmListener> listeners = new LinkedHashMap<>();
+    private final List<String> joints = new ArrayList<>();
+    private volatile ArmTickEngine engine;
+    private volatile ArmAxes axes;
 
     private Short absRightJoystickPos;
     private Short absLeftJoystickPos;
@@ -104,7 +134,12 @@ public class ArmController extends RoboUnit<LF710Message> {
     private Float servoRotationHeadRightLeftStep;
     private Float servoPlatformXStep;
     private Float servoPlatformYXStep;
-    private long delay;
+    private boolean multiAxis;
+    private int telemetryCapacity;
+    private ArmMotionProfiles motionProfiles;
+    private ArmKinematicsSupport kinematics;
+    private ArmControlLanes lanes;
+    private ArmPadRecorder recorder;
 
     public ArmController(RoboContext context, String id) {
         super(LF710Message.class, context, id);
@@ -123,13 +158,22 @@ public class ArmController extends RoboUnit<LF710Message> {
         targetHeadY = initTargetListenerByConfiguration(PROP_TARGET_HEAD_Y, configuration);
         targetHeadRotation = initTargetListenerByConfiguration(PROP_TARGET_HEAD_ROTATION, configuration);
         targetGripper = initTargetListenerByConfiguration(PROP_TARGET_GRIPPER, configuration);
-        targetDisplay = initTargetListenerByConfiguration(PROP_TARGET_DISPLAY, configuration);
+        targetDisplay = configuration.getString(PROP_TARGET_DISPLAY, null);
+        validateProperty(targetDisplay, PROP_TARGET_DISPLAY);
 
         servoPlatformXStep = initFloatConfiguration(PROP_SERVO_PLATFORM_X_STEP, configuration);
         servoPlatformYXStep = initFloatConfiguration(PROP_SERVO_PLATFORM_YX_STEP, configuration);
         servoRotationHeadRightLeftStep = initFloatConfiguration(PROP_SERVO_ROTATION_HEAD_LEFT_RIGHT_STEP, configuration);
 
-        delay = configuration.getLong(PROP_DELAY, DEFAULT_DELAY_MILLS);
+        multiAxis = configuration.getBoolean(PROP_MULTI_AXIS, false);
+        telemetryCapacity = configuration.getInteger(PROP_TELEMETRY_CAPACITY, DEFAULT_TELEMETRY_CAPACITY);
+        if (telemetryCapacity < 0) {
+            throw new ConfigurationException(PROP_TELEMETRY_CAPACITY);
+        }
+        motionProfiles = ArmMotionProfiles.create(configuration, joints);
+        kinematics = ArmKinematicsSupport.create(configuration);
+        lanes = ArmControlLanes.create(configuration);
+        recorder = ArmPadRecorder.create(configuration);
     }
 
     @Override
@@ -178,26 +222,101 @@ public class ArmController extends RoboUnit<LF710Message> {
         addListener(listenerHeadGripperRotationOpen);
 
         //targetDisplay Neutral
-        final ArmListener listenerFaceNeutral = new FaceNeutralListenerImpl(targetDisplay, getContext(), BLUE);
-        final ArmListener listenerFaceSmile = new FaceSmileListenerImpl(targetDisplay, getContext(), GREEN);
-        final ArmListener listenerFaceSad = new FaceSadListenerImpl(targetDisplay, getContext(), YELLOW);
+        final AbstractFaceListenerImpl listenerFaceNeutral = new FaceNeutralListenerImpl(targetDisplay, getContext(), BLUE);
+        final AbstractFaceListenerImpl listenerFaceSmile = new FaceSmileListenerImpl(targetDisplay, getContext(), GREEN);
+        final AbstractFaceListenerImpl listenerFaceSad = new FaceSadListenerImpl(targetDisplay, getContext(), YELLOW);
+        //faces are shown by the animation unit when configured, only one unit drives the display
+        final boolean animated = lanes.isAnimated();
+        listenerFaceNeutral.setAnimated(animated);
+        listenerFaceSmile.setAnimated(animated);
+        listenerFaceSad.setAnimated(animated);
         addListeners(listenerFaceNeutral, listenerFaceSmile, listenerFaceSad);
 
-        System.out.println("listeners ADDED");
+        final ArmTickEngine tickEngine = new ArmTickEngine(new ArrayList<>(listeners.values()), joints);
+        if (telemetryCapacity > 0) {
+            tickEngine.setTelemetry(new JointTelemetryRing(tickEngine.getJointNames(), telemetryCapacity));
+        }
+        for (int joint = 0; joint < tickEngine.jointCount(); joint++) {
+            tickEngine.getInterpolator().setMaxVelocity(joint,
+                    motionProfiles.getLimits(tickEngine.getJointName(joint)).getMaxVelocity());
+        }
+        if (kinematics != null) {
+            final int[] kinematicJoints = {tickEngine.jointIndex(targetPlatformX), tickEngine.jointIndex(targetPlatformYX),
+                    tickEngine.jointIndex(targetPlatformY), tickEngine.jointIndex(targetHeadY),
+                    tickEngine.jointIndex(targetHeadX), tickEngine.jointIndex(targetHeadRotation)};
+            kinematics.install(tickEngine, kinematicJoints, getContext().getScheduler());
+        }
+        engine = tickEngine;
+        lanes.start(getContext(), tickEngine, targetGripper);
+        ArmControlRegistry.register(getContext(), getId(), tickEngine);
+        final ArmAxes armAxes = createAxes();
+        ArmControlRegistry.registerAxes(getContext(), getId(), armAxes);
+        axes = armAxes;
+        if (recorder != null) {
+            recorder.open();
+        }
+    }
+
+    /**
+     * @return axes by the pad inputs of the listeners created by {@link #start()}
+     */
+    public static ArmAxes createAxes() {
+        return new ArmAxes()
+                .joystick(AXIS_PLATFORM_X, RIGHT_X)
+                .joystick(AXIS_ARM_YX, LEFT_X)
+                .joystick(AXIS_ARM_Y, LEFT_Y)
+                .joystick(AXIS_HEAD_X, PAD_X)
+                .joystick(AXIS_HEAD_Y, PAD_Y)
+                .button(AXIS_HEAD_ROTATION, FRONT_UP_RIGHT, FRONT_DOWN_RIGHT)
+                .button(AXIS_GRIPPER, FRONT_UP_LEFT, FRONT_DOWN_LEFT);
+    }
 
-        executor.scheduleAtFixedRate(() -> {
-            for (ArmListener l : listeners.values()) {
-                if (l.isActive()) {
-                    float value = l.process();
-                    currentListenersValues.replace(l.getName(), value);
-                }
-            }
-        }, 0, delay, TimeUnit.MILLISECONDS);
+    @Override
+    public void stop() {
+        if (recorder != null) {
+            recorder.close();
+        }
+        if (engine != null) {
+            ArmControlRegistry.unregister(getContext(), getId(), engine);
+        }
+        if (axes != null) {
+            ArmControlRegistry.unregisterAxes(getContext(), getId(), axes);
+        }
+        lanes.stop();
+        super.stop();
     }
 
     @Override
     public void onMessage(LF710Message message) {
-        processPadMessage(message);
+        final long receivedNanos = System.nanoTime();
+        if (recorder != null) {
+            recorder.append(message, receivedNanos);
+        }
+        processPadMessage(message, receivedNanos);
+    }
+
+    @Override
+    public Collection<AttributeDescriptor<?>> getKnownAttributes() {
+        return KNOWN_ATTRIBUTES;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected <R> R onGetAttribute(AttributeDescriptor<R> descriptor) {
+        final ArmTickEngine tickEngine = engine;
+        switch (descriptor.getAttributeName()) {
+            case ATTR_LATENCY:
+                return tickEngine == null ? null : (R) tickEngine.getLatencyRecorder().getSummary();
+            case ATTR_COLLISIONS:
+                final CollisionGuard guard = tickEngine == null ? null : tickEngine.getCollisionGuard();
+                return guard == null ? null : (R) Long.valueOf(guard.getRejectedTicks());
+            case ATTR_COLLISION_LATCHED:
+                return tickEngine == null ? null : (R) Boolean.valueOf(tickEngine.getLatchedSlots() != 0);
+            case ATTR_LANES:
+                return (R) lanes.getSummary();
+            default:
+                return super.onGetAttribute(descriptor);
+        }
     }
 
     private Float initFloatConfiguration(String propertyName, Configuration configuration) throws ConfigurationException {
@@ -209,33 +328,44 @@ public class ArmController extends RoboUnit<LF710Message> {
     private String initTargetListenerByConfiguration(String propertyTarget, Configuration configuration) throws ConfigurationException {
         String property = configuration.getString(propertyTarget, null);
         validateProperty(property, propertyTarget);
-        currentListenersValues.put(property, 0F);
+        if (!joints.contains(property)) {
+            joints.add(property);
+        }
         return property;
     }
 
-    private void processPadMessage(LF710Message message) {
-        if (listeners.containsKey(message.getInput())) {
-            final ArmListener listener = listeners.get(message.getInput());
-            if (activeKey.get() == null && message.getState().equals(LF710State.PRESSED)) {
-                System.out.println("currentHeadRotation PRESSED : " + message);
-                listener.setAmount(message.getAmount());
-                listener.setValue(currentListenersValues.get(listener.getName()));
-                listener.setActive(true);
-                activeKey.set(listener.getInput());
-            } else if (activeKey.get() != null && activeKey.get().equals(message.getInput()) && message.getState().equals(LF710State.RELEASED)) {
-                System.out.println("currentHeadRotation RELEASED : " + message);
-                listener.setActive(false);
-                activeKey.set(null);
+    /**
+     * @param receivedNanos used as the input time of messages not carrying it
+     */
+    private void processPadMessage(LF710Message message, long receivedNanos) {
+        final ArmTickEngine tickEngine = engine;
+        if (tickEngine == null) {
+            return;
+        }
+        final int slot = tickEngine.slotOf(message.getInput());
+        if (slot != ArmTickEngine.NO_SLOT) {
+            if (message.getState().equals(LF710State.PRESSED)) {
+                if (message instanceof TimedPadMessage) {
+                    final TimedPadMessage timedMessage = (TimedPadMessage) message;
+                    tickEngine.press(slot, message.getAmount(), !multiAxis, timedMessage.getSource(),
+                            timedMessage.getInputNanos());
+                } else {
+                    tickEngine.press(slot, message.getAmount(), !multiAxis, InputSource.PAD, receivedNanos);
+                }
+            } else if (message.getState().equals(LF710State.RELEASED)) {
+                tickEngine.release(slot);
             }
         }
     }
 
     private ArmListener createJoystickPadServoListener(String id, LF710Input input, short absPos, float servoStep) {
-        return new ArmPlatformServoListenerImpl(id, getContext(), input, absPos, servoStep);
+        return new ArmPlatformServoListenerImpl(id, getContext(), input, absPos, servoStep,
+                motionProfiles.isProportional(), motionProfiles.createProfile(id), lanes.getDelay() / 1000f);
     }
 
     private ArmListener createButtonServoListener(String id, LF710Input input, boolean positive, float servoStep) {
-        return new ArmGripperHeadServoListenerImpl(id, getContext(), input, positive, servoStep);
+        return new ArmGripperHeadServoListenerImpl(id, getContext(), input, positive, servoStep,
+                motionProfiles.createProfile(id), lanes.getDelay() / 1000f);
     }
 
     private void addListeners(ArmListener... listeners) {
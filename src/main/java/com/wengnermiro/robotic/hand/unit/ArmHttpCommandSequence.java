@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.unit;
+
+import com.robo4j.hw.rpi.pad.LF710Message;
+import com.wengnermiro.robotic.hand.codec.ArmHttpCommand;
+import com.wengnermiro.robotic.hand.codec.ArmHttpMessage;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ArmHttpCommandSequence commands of the {@link ArmHttpMessage} resolved to the pad messages
+ * of the {@link ArmController} axes. Messages are created when the sequence is compiled,
+ * dispatching the sequence doesn't allocate. The input time of every command is the receive time of the message
+ * shifted by the planned waits of the previous commands, so the queue wait is part of the measured latency.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class ArmHttpCommandSequence {
+    private final LF710Message[] starts;
+    private final LF710Message[] stops;
+    private final short[] amounts;
+
+    private ArmHttpCommandSequence(LF710Message[] starts, LF710Message[] stops, short[] amounts) {
+        this.starts = starts;
+        this.stops = stops;
+        this.amounts = amounts;
+    }
+
+    /**
+     * @param table         dispatch table of the target
+     * @param receivedNanos {@link System#nanoTime()} when the message has been received
+     * @return sequence resolved by the dispatch table or null when any command is not valid
+     */
+    public static ArmHttpCommandSequence compile(ArmHttpMessage message, ArmHttpDispatchTable table, long receivedNanos) {
+        final List<ArmHttpCommand> commands = message == null ? null : message.getCommands();
+        if (commands == null) {
+            return null;
+        }
+        final LF710Message[] starts = new LF710Message[commands.size()];
+        final LF710Message[] stops = new LF710Message[commands.size()];
+        final short[] amounts = new short[commands.size()];
+        long plannedNanos = receivedNanos;
+        for (int i = 0; i < amounts.length; i++) {
+            final ArmHttpCommand command = commands.get(i);
+            final ArmHttpDispatchTable.Entry entry = table.get(command);
+            if (entry == null) {
+                return null;
+            }
+            amounts[i] = command.getAmount();
+            starts[i] = entry.start(amounts[i], plannedNanos);
+            stops[i] = entry.stop(amounts[i]);
+            /* press and release wait the amount each */
+            plannedNanos += TimeUnit.MILLISECONDS.toNanos(2L * Math.abs(amounts[i]));
+        }
+        return new ArmHttpCommandSequence(starts, stops, amounts);
+    }
+
+    public int size() {
+        return amounts.length;
+    }
+
+    public LF710Message getStart(int index) {
+        return starts[index];
+    }
+
+    public LF710Message getStop(int index) {
+        return stops[index];
+    }
+
+    public short getAmount(int index) {
+        return amounts[index];
+    }
+}
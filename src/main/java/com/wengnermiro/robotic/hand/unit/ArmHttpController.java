@@ -17,86 +17,65 @@
 
 package com.wengnermiro.robotic.hand.unit;
 
+import com.robo4j.AttributeDescriptor;
 import com.robo4j.ConfigurationException;
+import com.robo4j.DefaultAttributeDescriptor;
 import com.robo4j.RoboContext;
+import com.robo4j.RoboReference;
 import com.robo4j.RoboUnit;
 import com.robo4j.configuration.Configuration;
-import com.robo4j.hw.rpi.pad.LF710Button;
-import com.robo4j.hw.rpi.pad.LF710JoystickButton;
 import com.robo4j.hw.rpi.pad.LF710Message;
-import com.robo4j.hw.rpi.pad.LF710Part;
-import com.robo4j.hw.rpi.pad.LF710State;
 import com.robo4j.logging.SimpleLoggingUtil;
-import com.wengnermiro.robotic.hand.codec.ArmHttpCommand;
+import com.wengnermiro.robotic.hand.codec.ArmHttpAdmission;
 import com.wengnermiro.robotic.hand.codec.ArmHttpMessage;
+import com.wengnermiro.robotic.hand.control.ArmAxes;
+import com.wengnermiro.robotic.hand.control.ArmControlRegistry;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
 
 
 /**
+ * ArmHttpController executes the received command sequences one after another.
+ * The waits are scheduled and no thread is blocked, steps don't block and run on the scheduler.
+ *
  * @author Miroslav Wengner (@miragemiko)
  */
 public class ArmHttpController extends RoboUnit<ArmHttpMessage> {
-    private static class CommandPair {
-        private LF710Message start;
-        private LF710Message stop;
-
-        public CommandPair(ArmHttpCommand command) {
-            createStartCommand(command);
-        }
-
-        private void createStartCommand(ArmHttpCommand command) {
-            switch (command.getTarget()) {
-                case "platformX":
-                    start = new LF710Message(System.currentTimeMillis(), command.getAmount(),
-                            LF710Part.JOYSTICK, LF710JoystickButton.RIGHT_X, LF710State.PRESSED);
-                    stop = new LF710Message(System.currentTimeMillis(), (short) 0,
-                            LF710Part.JOYSTICK, LF710JoystickButton.RIGHT_X, LF710State.RELEASED);
-                    break;
-                case "armYX":
-                    start = new LF710Message(System.currentTimeMillis(), command.getAmount(),
-                            LF710Part.JOYSTICK, LF710JoystickButton.LEFT_X, LF710State.PRESSED);
-                    stop = new LF710Message(System.currentTimeMillis(), (short) 0,
-                            LF710Part.JOYSTICK, LF710JoystickButton.LEFT_X, LF710State.RELEASED);
-                    break;
-                case "armY":
-                    start = new LF710Message(System.currentTimeMillis(), command.getAmount(),
-                            LF710Part.JOYSTICK, LF710JoystickButton.LEFT_Y, LF710State.PRESSED);
-                    stop = new LF710Message(System.currentTimeMillis(), (short) 0,
-                            LF710Part.JOYSTICK, LF710JoystickButton.LEFT_Y, LF710State.RELEASED);
-                    break;
-                case "headX":
-                    start = new LF710Message(System.currentTimeMillis(), command.getAmount(),
-                            LF710Part.JOYSTICK, LF710JoystickButton.PAD_X, LF710State.PRESSED);
-                    stop = new LF710Message(System.currentTimeMillis(), (short) 0,
-                            LF710Part.JOYSTICK, LF710JoystickButton.PAD_X, LF710State.RELEASED);
-                    break;
-                case "headY":
-                    start = new LF710Message(System.currentTimeMillis(), command.getAmount(),
-                            LF710Part.JOYSTICK, LF710JoystickButton.PAD_Y, LF710State.PRESSED);
-                    stop = new LF710Message(System.currentTimeMillis(), (short) 0,
-                            LF710Part.JOYSTICK, LF710JoystickButton.PAD_Y, LF710State.RELEASED);
-                    break;
-
-                case "headRotation":
-                    LF710Button br = command.getAmount() > 0 ? LF710Button.FRONT_UP_RIGHT : LF710Button.FRONT_DOWN_RIGHT;
-                    start = new LF710Message(System.currentTimeMillis(), command.getAmount(),
-                            LF710Part.BUTTON, br, LF710State.PRESSED);
-                    stop = new LF710Message(System.currentTimeMillis(), command.getAmount(),
-                            LF710Part.BUTTON, br, LF710State.RELEASED);
-                    break;
-
-
-            }
-        }
-
-    }
-
     public static final String NAME = "armHttpController";
     public static final String ATTR_TARGET = "target";
-    
+    public static final String ATTR_QUEUE_CAPACITY = "queueCapacity";
+    public static final String ATTR_QUEUE_DEPTH = "queueDepth";
+    public static final String ATTR_ACCEPTED = "accepted";
+    public static final String ATTR_REJECTED = "rejected";
+
+    public static final DefaultAttributeDescriptor<Integer> DESCRIPTOR_QUEUE_DEPTH = DefaultAttributeDescriptor.create(Integer.class, ATTR_QUEUE_DEPTH);
+    public static final DefaultAttributeDescriptor<Integer> DESCRIPTOR_QUEUE_CAPACITY = DefaultAttributeDescriptor.create(Integer.class, ATTR_QUEUE_CAPACITY);
+    public static final DefaultAttributeDescriptor<Long> DESCRIPTOR_ACCEPTED = DefaultAttributeDescriptor.create(Long.class, ATTR_ACCEPTED);
+    public static final DefaultAttributeDescriptor<Long> DESCRIPTOR_REJECTED = DefaultAttributeDescriptor.create(Long.class, ATTR_REJECTED);
+    private static final Collection<AttributeDescriptor<?>> KNOWN_ATTRIBUTES = Collections.unmodifiableCollection(
+            Arrays.asList(DESCRIPTOR_QUEUE_DEPTH, DESCRIPTOR_QUEUE_CAPACITY, DESCRIPTOR_ACCEPTED, DESCRIPTOR_REJECTED));
+    private static final int DEFAULT_QUEUE_CAPACITY = 32;
 
+    private final AtomicBoolean executing = new AtomicBoolean();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final BooleanSupplier queueFull = this::isQueueFull;
+    private BlockingQueue<ArmHttpCommandSequence> commandQueue;
+    private int queueCapacity;
     private String target;
+    private volatile RoboReference<LF710Message> targetReference;
+    private volatile ArmHttpDispatchTable dispatchTable;
+    private volatile CommandRunner activeRunner;
+    private volatile boolean stopped;
 
     public ArmHttpController(RoboContext context, String id) {
         super(ArmHttpMessage.class, context, id);
@@ -108,31 +87,170 @@ public class ArmHttpController extends RoboUnit<ArmHttpMessage> {
         if (target == null) {
             throw new ConfigurationException(ATTR_TARGET);
         }
+        queueCapacity = configuration.getInteger(ATTR_QUEUE_CAPACITY, DEFAULT_QUEUE_CAPACITY);
+        if (queueCapacity <= 0) {
+            throw new ConfigurationException(ATTR_QUEUE_CAPACITY);
+        }
+        commandQueue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @Override
+    public void start() {
+        super.start();
+        targetReference = getContext().getReference(target);
+        dispatchTable = null;
+        stopped = false;
+        ArmHttpAdmission.register(queueFull);
+    }
+
+    /**
+     * queued sequences are dropped, the scheduled step is cancelled and the held input released,
+     * the step already running doesn't schedule the next one
+     */
+    @Override
+    public void stop() {
+        ArmHttpAdmission.unregister(queueFull);
+        stopped = true;
+        commandQueue.clear();
+        final CommandRunner runner = activeRunner;
+        if (runner != null) {
+            runner.cancel();
+        }
+        super.stop();
     }
 
     @Override
     public void onMessage(ArmHttpMessage message) {
-        System.out.println("RECEIVED MESSAGE:" + message + "target: " + target);
-
-        getContext().getScheduler().execute(() -> {
-            for (ArmHttpCommand command : message.getCommands()) {
-                CommandPair pair = new CommandPair(command);
-                try {
-                    getContext().getReference(target).sendMessage(pair.start);
-                    commandExecution(command.getAmount());
-                } finally {
-                    getContext().getReference(target).sendMessage(pair.stop);
-                }
-                commandExecution(command.getAmount());
+        final long receivedNanos = System.nanoTime();
+        final ArmHttpDispatchTable table = getDispatchTable();
+        final ArmHttpCommandSequence sequence = table == null ? null : ArmHttpCommandSequence.compile(message, table, receivedNanos);
+        if (sequence == null) {
+            rejected.incrementAndGet();
+            SimpleLoggingUtil.info(getClass(), "not valid message: " + message);
+        } else if (commandQueue.offer(sequence)) {
+            accepted.incrementAndGet();
+            executeNext();
+        } else {
+            rejected.incrementAndGet();
+            SimpleLoggingUtil.info(getClass(), String.format("queue full: %d, rejected: %s", queueCapacity, message));
+        }
+    }
+
+    @Override
+    public Collection<AttributeDescriptor<?>> getKnownAttributes() {
+        return KNOWN_ATTRIBUTES;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected <R> R onGetAttribute(AttributeDescriptor<R> descriptor) {
+        switch (descriptor.getAttributeName()) {
+            case ATTR_QUEUE_DEPTH:
+                return (R) Integer.valueOf(commandQueue.size());
+            case ATTR_QUEUE_CAPACITY:
+                return (R) Integer.valueOf(queueCapacity);
+            case ATTR_ACCEPTED:
+                return (R) Long.valueOf(accepted.get());
+            case ATTR_REJECTED:
+                return (R) Long.valueOf(rejected.get());
+            default:
+                return super.onGetAttribute(descriptor);
+        }
+    }
+
+    /**
+     * the table is built from the axes of the target once the target is running
+     *
+     * @return dispatch table or null
+     */
+    private ArmHttpDispatchTable getDispatchTable() {
+        ArmHttpDispatchTable table = dispatchTable;
+        if (table == null) {
+            final ArmAxes axes = ArmControlRegistry.getAxes(getContext(), target);
+            if (axes != null) {
+                table = new ArmHttpDispatchTable(axes);
+                dispatchTable = table;
             }
-        });
+        }
+        return table;
+    }
+
+    private boolean isQueueFull() {
+        return commandQueue.remainingCapacity() == 0;
+    }
+
+    /**
+     * only one sequence is executed at the time for the target, others wait in the queue
+     */
+    private void executeNext() {
+        while (!stopped && executing.compareAndSet(false, true)) {
+            ArmHttpCommandSequence next = commandQueue.poll();
+            if (next != null) {
+                final CommandRunner runner = new CommandRunner(next);
+                activeRunner = runner;
+                getContext().getScheduler().execute(runner);
+                return;
+            }
+            executing.set(false);
+            if (commandQueue.isEmpty()) {
+                return;
+            }
+        }
     }
 
-    private void commandExecution(short amount) {
-        try {
-            TimeUnit.MILLISECONDS.sleep(Math.abs(amount));
-        } catch (InterruptedException e) {
-            SimpleLoggingUtil.error(getClass(), e.getMessage());
+    /**
+     * CommandRunner sends the press immediately and schedules the release
+     * and the following command, no thread is blocked while waiting.
+     * Held input is released when the unit has been stopped.
+     */
+    private final class CommandRunner implements Runnable {
+        private final ArmHttpCommandSequence sequence;
+        private volatile ScheduledFuture<?> scheduledStep;
+        private int index;
+        private boolean pressed;
+
+        private CommandRunner(ArmHttpCommandSequence sequence) {
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            if (stopped) {
+                if (pressed) {
+                    targetReference.sendMessage(sequence.getStop(index));
+                    pressed = false;
+                }
+                executing.set(false);
+                return;
+            }
+            if (!pressed) {
+                if (index >= sequence.size()) {
+                    executing.set(false);
+                    executeNext();
+                    return;
+                }
+                targetReference.sendMessage(sequence.getStart(index));
+                pressed = true;
+                scheduleNext(sequence.getAmount(index));
+            } else {
+                targetReference.sendMessage(sequence.getStop(index));
+                pressed = false;
+                scheduleNext(sequence.getAmount(index++));
+            }
+        }
+
+        private void scheduleNext(short amount) {
+            scheduledStep = getContext().getScheduler().schedule(this, Math.abs(amount), TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * the cancelled step is run by the caller, it releases the held input
+         */
+        private void cancel() {
+            final ScheduledFuture<?> step = scheduledStep;
+            if (step != null && step.cancel(false)) {
+                run();
+            }
         }
     }
 
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.wengnermiro.robotic.hand.unit;
+
+import com.robo4j.hw.rpi.pad.LF710Input;
+import com.robo4j.hw.rpi.pad.LF710Message;
+import com.robo4j.hw.rpi.pad.LF710Part;
+import com.robo4j.hw.rpi.pad.LF710State;
+import com.wengnermiro.robotic.hand.codec.ArmHttpCommand;
+import com.wengnermiro.robotic.hand.control.ArmAxes;
+import com.wengnermiro.robotic.hand.control.InputSource;
+import com.wengnermiro.robotic.hand.control.TimedPadMessage;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ArmHttpDispatchTable maps {@link ArmHttpCommand} targets to the pad inputs of the {@link ArmAxes}
+ * published by the {@link ArmController}. Positive amount presses the positive input, zero and negative
+ * amount the negative one. Release messages are allocated once per entry.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class ArmHttpDispatchTable {
+
+    static final class Entry {
+        private final LF710Part part;
+        private final LF710Input positive;
+        private final LF710Input negative;
+        private final LF710Message stopPositive;
+        private final LF710Message stopNegative;
+
+        private Entry(ArmAxes.Axis axis) {
+            this.part = axis.getPart();
+            this.positive = axis.getPositive();
+            this.negative = axis.getNegative();
+            this.stopPositive = new LF710Message(0L, (short) 0, part, positive, LF710State.RELEASED);
+            this.stopNegative = negative == positive ? stopPositive :
+                    new LF710Message(0L, (short) 0, part, negative, LF710State.RELEASED);
+        }
+
+        LF710Message start(short amount, long inputNanos) {
+            return new TimedPadMessage(System.currentTimeMillis(), amount, part, amount > 0 ? positive : negative,
+                    LF710State.PRESSED, InputSource.HTTP, inputNanos);
+        }
+
+        LF710Message stop(short amount) {
+            return amount > 0 ? stopPositive : stopNegative;
+        }
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    public ArmHttpDispatchTable(ArmAxes axes) {
+        for (ArmAxes.Axis axis : axes.getAxes()) {
+            entries.put(axis.getName(), new Entry(axis));
+        }
+    }
+
+    /**
+     * @return entry or null when the command is not valid
+     */
+    Entry get(ArmHttpCommand command) {
+        if (command == null || command.getAmount() == null || command.getTarget() == null) {
+            return null;
+        }
+        return entries.get(command.getTarget());
+    }
+}
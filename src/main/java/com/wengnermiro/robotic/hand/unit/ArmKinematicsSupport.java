@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.wengnermiro.robotic.hand.unit;
+
+import com.robo4j.ConfigurationException;
+import com.robo4j.configuration.Configuration;
+import com.robo4j.logging.SimpleLoggingUtil;
+import com.robo4j.scheduler.Scheduler;
+import com.wengnermiro.robotic.hand.control.ArmTickEngine;
+import com.wengnermiro.robotic.hand.control.CartesianTracker;
+import com.wengnermiro.robotic.hand.control.CollisionGuard;
+import com.wengnermiro.robotic.hand.kinematics.ArmGeometry;
+import com.wengnermiro.robotic.hand.kinematics.ArmKinematics;
+import com.wengnermiro.robotic.hand.kinematics.CollisionEnvelope;
+import com.wengnermiro.robotic.hand.kinematics.WorkspaceTable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ArmKinematicsSupport optional Cartesian control and collision check of the {@link ArmController}.
+ * The workspace table and the collision envelope are prepared by the scheduler after the start.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class ArmKinematicsSupport {
+
+    public static final String PROP_KINEMATICS = "kinematics";
+    public static final String PROP_GEOMETRY = "geometry";
+    public static final String PROP_BASE_HEIGHT = "baseHeight";
+    public static final String PROP_UPPER_ARM = "upperArm";
+    public static final String PROP_FOREARM = "forearm";
+    public static final String PROP_WRIST = "wrist";
+    public static final String PROP_TOOL = "tool";
+    public static final String PROP_ZERO_ANGLE = "zeroAngle";
+    public static final String PROP_RANGE = "range";
+    public static final String PROP_INVERTED = "inverted";
+    public static final String PROP_CARTESIAN_MAX_STEP = "cartesianMaxStep";
+    public static final String PROP_IK_ITERATIONS_PER_TICK = "ikIterationsPerTick";
+    public static final String PROP_IK_MAX_ITERATIONS = "ikMaxIterations";
+    public static final String PROP_IK_TOLERANCE = "ikTolerance";
+    public static final String PROP_IK_DAMPING = "ikDamping";
+    public static final String PROP_WORKSPACE_FILE = "workspaceFile";
+    public static final String PROP_WORKSPACE_DIRECTORY = "workspaceDirectory";
+    public static final String PROP_WORKSPACE_CELL_SIZE = "workspaceCellSize";
+    public static final String PROP_COLLISION_CHECK = "collisionCheck";
+    public static final String PROP_BASE_RADIUS = "baseRadius";
+    public static final String PROP_ARM_RADIUS = "armRadius";
+    public static final String PROP_GROUND_CLEARANCE = "groundClearance";
+    private static final float DEFAULT_CARTESIAN_MAX_STEP = 0.02f;
+    private static final int DEFAULT_IK_ITERATIONS_PER_TICK = 10;
+    private static final int DEFAULT_IK_MAX_ITERATIONS = 200;
+
+    private ArmGeometry geometry;
+    private float cartesianMaxStep;
+    private int ikIterationsPerTick;
+    private int ikMaxIterations;
+    private float ikTolerance;
+    private float ikDamping;
+    private Path workspaceFile;
+    private float workspaceCellSize;
+    private boolean collisionCheck;
+    private float baseRadius = CollisionEnvelope.DEFAULT_BASE_RADIUS;
+    private float armRadius = CollisionEnvelope.DEFAULT_ARM_RADIUS;
+    private float groundClearance = CollisionEnvelope.DEFAULT_GROUND_CLEARANCE;
+
+    private ArmKinematicsSupport() {
+    }
+
+    /**
+     * @return kinematics support or null when the kinematics is off
+     */
+    public static ArmKinematicsSupport create(Configuration configuration) throws ConfigurationException {
+        if (!configuration.getBoolean(PROP_KINEMATICS, false)) {
+            return null;
+        }
+        final ArmKinematicsSupport result = new ArmKinematicsSupport();
+        result.init(configuration);
+        return result;
+    }
+
+    /**
+     * @param tickEngine      engine of the arm
+     * @param kinematicJoints engine joint indexes in the order of the {@link ArmGeometry} joints
+     * @param scheduler       prepares the workspace table and the collision envelope
+     */
+    public void install(ArmTickEngine tickEngine, int[] kinematicJoints, Scheduler scheduler) {
+        final ArmKinematics kinematics = new ArmKinematics(geometry, ikDamping, ikTolerance, ArmKinematics.DEFAULT_MAX_STEP);
+        final CartesianTracker cartesian = new CartesianTracker(kinematics, kinematicJoints, cartesianMaxStep,
+                ikIterationsPerTick, ikMaxIterations);
+        tickEngine.setCartesianTracker(cartesian);
+        if (workspaceFile != null) {
+            scheduler.execute(() -> loadWorkspaceTable(cartesian));
+        }
+        if (collisionCheck) {
+            final CollisionGuard guard = new CollisionGuard(kinematicJoints);
+            tickEngine.setCollisionGuard(guard);
+            scheduler.execute(() -> buildCollisionEnvelope(guard));
+        }
+    }
+
+    private void init(Configuration configuration) throws ConfigurationException {
+        final Configuration geometryConfiguration = configuration.getChildConfiguration(PROP_GEOMETRY);
+        if (geometryConfiguration == null) {
+            geometry = ArmGeometry.sainSmart();
+        } else {
+            final float[] zeroAngles = new float[ArmGeometry.JOINTS];
+            final float[] ranges = new float[ArmGeometry.JOINTS];
+            for (int joint = 0; joint < ArmGeometry.JOINTS; joint++) {
+                initJointCalibration(geometryConfiguration.getChildConfiguration(ArmGeometry.getJointName(joint)),
+                        joint, zeroAngles, ranges);
+            }
+            geometry = ArmGeometry.sainSmart(
+                    geometryConfiguration.getFloat(PROP_BASE_HEIGHT, ArmGeometry.DEFAULT_BASE_HEIGHT),
+                    geometryConfiguration.getFloat(PROP_UPPER_ARM, ArmGeometry.DEFAULT_UPPER_ARM),
+                    geometryConfiguration.getFloat(PROP_FOREARM, ArmGeometry.DEFAULT_FOREARM),
+                    geometryConfiguration.getFloat(PROP_WRIST, ArmGeometry.DEFAULT_WRIST),
+                    geometryConfiguration.getFloat(PROP_TOOL, ArmGeometry.DEFAULT_TOOL), zeroAngles, ranges);
+            baseRadius = geometryConfiguration.getFloat(PROP_BASE_RADIUS, baseRadius);
+            armRadius = geometryConfiguration.getFloat(PROP_ARM_RADIUS, armRadius);
+            groundClearance = geometryConfiguration.getFloat(PROP_GROUND_CLEARANCE, groundClearance);
+        }
+        collisionCheck = configuration.getBoolean(PROP_COLLISION_CHECK, false);
+        cartesianMaxStep = configuration.getFloat(PROP_CARTESIAN_MAX_STEP, DEFAULT_CARTESIAN_MAX_STEP);
+        ikIterationsPerTick = configuration.getInteger(PROP_IK_ITERATIONS_PER_TICK, DEFAULT_IK_ITERATIONS_PER_TICK);
+        ikMaxIterations = configuration.getInteger(PROP_IK_MAX_ITERATIONS, DEFAULT_IK_MAX_ITERATIONS);
+        ikTolerance = configuration.getFloat(PROP_IK_TOLERANCE, ArmKinematics.DEFAULT_TOLERANCE);
+        ikDamping = configuration.getFloat(PROP_IK_DAMPING, ArmKinematics.DEFAULT_DAMPING);
+        if (cartesianMaxStep <= 0) {
+            throw new ConfigurationException(PROP_CARTESIAN_MAX_STEP);
+        }
+        if (ikIterationsPerTick <= 0 || ikMaxIterations < ikIterationsPerTick) {
+            throw new ConfigurationException(PROP_IK_MAX_ITERATIONS);
+        }
+        if (ikTolerance <= 0 || ikDamping <= 0) {
+            throw new ConfigurationException(PROP_IK_TOLERANCE);
+        }
+        final String workspaceFileName = configuration.getString(PROP_WORKSPACE_FILE, null);
+        if (workspaceFileName != null) {
+            workspaceFile = Paths.get(configuration.getString(PROP_WORKSPACE_DIRECTORY, System.getProperty("user.home")))
+                    .resolve(workspaceFileName).toAbsolutePath();
+        }
+        workspaceCellSize = configuration.getFloat(PROP_WORKSPACE_CELL_SIZE, WorkspaceTable.DEFAULT_CELL_SIZE);
+        if (workspaceCellSize <= 0) {
+            throw new ConfigurationException(PROP_WORKSPACE_CELL_SIZE);
+        }
+    }
+
+    /**
+     * joint angles are configured in degrees, the range is the angle of the normalized value 1
+     */
+    private static void initJointCalibration(Configuration jointConfiguration, int joint, float[] zeroAngles, float[] ranges)
+            throws ConfigurationException {
+        float zeroAngle = 0;
+        float range = ArmGeometry.DEFAULT_RANGE_DEGREES;
+        boolean inverted = false;
+        if (jointConfiguration != null) {
+            zeroAngle = jointConfiguration.getFloat(PROP_ZERO_ANGLE, zeroAngle);
+            range = jointConfiguration.getFloat(PROP_RANGE, range);
+            inverted = jointConfiguration.getBoolean(PROP_INVERTED, inverted);
+        }
+        if (range <= 0) {
+            throw new ConfigurationException(ArmGeometry.getJointName(joint) + "." + PROP_RANGE);
+        }
+        zeroAngles[joint] = (float) Math.toRadians(zeroAngle);
+        ranges[joint] = (float) Math.toRadians(inverted ? -range : range);
+    }
+
+    /**
+     * the table is generated on the first start, Cartesian targets are seeded by the current joints until it is loaded
+     */
+    private void loadWorkspaceTable(CartesianTracker cartesian) {
+        try {
+            final long start = System.nanoTime();
+            final WorkspaceTable table = WorkspaceTable.open(workspaceFile, geometry, workspaceCellSize);
+            cartesian.setWorkspaceTable(table);
+            SimpleLoggingUtil.info(getClass(), String.format("workspace table: %s, cells: %d, %d ms", workspaceFile,
+                    table.getFilledCells(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        } catch (IOException e) {
+            SimpleLoggingUtil.error(getClass(), "workspace table: " + workspaceFile, e);
+        }
+    }
+
+    /**
+     * ticks are not checked until the envelope is built
+     */
+    private void buildCollisionEnvelope(CollisionGuard guard) {
+        final long start = System.nanoTime();
+        final CollisionEnvelope envelope = new CollisionEnvelope(geometry, CollisionEnvelope.DEFAULT_CELLS,
+                CollisionEnvelope.DEFAULT_YAW_CELLS, baseRadius, armRadius, groundClearance);
+        guard.setEnvelope(envelope);
+        SimpleLoggingUtil.info(getClass(), String.format("collision envelope blocked cells: %d/%d, margin: %.1f mm, %d ms",
+                envelope.getBlockedCells(), envelope.getCellCount(), envelope.getMargin(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.wengnermiro.robotic.hand.unit;
+
+import com.robo4j.configuration.Configuration;
+import com.wengnermiro.robotic.hand.motion.MotionLimits;
+import com.wengnermiro.robotic.hand.motion.MotionProfile;
+import com.wengnermiro.robotic.hand.motion.MotionProfileType;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ArmMotionProfiles motion profile type and limits of the {@link ArmController} joints,
+ * the limits of a joint are overridden by the child configuration named by the joint
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class ArmMotionProfiles {
+
+    public static final String PROP_MOTION_PROFILE = "motionProfile";
+    public static final String PROP_MAX_VELOCITY = "maxVelocity";
+    public static final String PROP_MAX_ACCELERATION = "maxAcceleration";
+    public static final String PROP_MAX_JERK = "maxJerk";
+    private static final float DEFAULT_MAX_VELOCITY = 1f;
+    private static final float DEFAULT_MAX_ACCELERATION = 4f;
+    private static final float DEFAULT_MAX_JERK = 40f;
+
+    private final MotionProfileType type;
+    private final MotionLimits defaultLimits;
+    private final Map<String, MotionLimits> jointLimits;
+
+    private ArmMotionProfiles(MotionProfileType type, MotionLimits defaultLimits, Map<String, MotionLimits> jointLimits) {
+        this.type = type;
+        this.defaultLimits = defaultLimits;
+        this.jointLimits = jointLimits;
+    }
+
+    public static ArmMotionProfiles create(Configuration configuration, List<String> joints) {
+        final MotionProfileType type = MotionProfileType.getByName(configuration.getString(PROP_MOTION_PROFILE,
+                MotionProfileType.NONE.name()));
+        final MotionLimits defaultLimits = initMotionLimits(configuration, null);
+        final Map<String, MotionLimits> jointLimits = new HashMap<>();
+        for (String joint : joints) {
+            Configuration jointConfiguration = configuration.getChildConfiguration(joint);
+            if (jointConfiguration != null) {
+                jointLimits.put(joint, initMotionLimits(jointConfiguration, defaultLimits));
+            }
+        }
+        return new ArmMotionProfiles(type, defaultLimits, jointLimits);
+    }
+
+    public MotionProfileType getType() {
+        return type;
+    }
+
+    /**
+     * @return true when the constant step is scaled by the deflection of the joystick
+     */
+    public boolean isProportional() {
+        return type == MotionProfileType.PROPORTIONAL;
+    }
+
+    public MotionLimits getLimits(String joint) {
+        return jointLimits.getOrDefault(joint, defaultLimits);
+    }
+
+    /**
+     * @return new profile of the joint or null for the constant step
+     */
+    public MotionProfile createProfile(String joint) {
+        if (type == MotionProfileType.NONE || type == MotionProfileType.PROPORTIONAL) {
+            return null;
+        }
+        return new MotionProfile(type, getLimits(joint));
+    }
+
+    private static MotionLimits initMotionLimits(Configuration configuration, MotionLimits defaults) {
+        float maxVelocity = configuration.getFloat(PROP_MAX_VELOCITY, defaults == null ? DEFAULT_MAX_VELOCITY : defaults.getMaxVelocity());
+        float maxAcceleration = configuration.getFloat(PROP_MAX_ACCELERATION, defaults == null ? DEFAULT_MAX_ACCELERATION : defaults.getMaxAcceleration());
+        float maxJerk = configuration.getFloat(PROP_MAX_JERK, defaults == null ? DEFAULT_MAX_JERK : defaults.getMaxJerk());
+        return new MotionLimits(maxVelocity, maxAcceleration, maxJerk);
+    }
+}
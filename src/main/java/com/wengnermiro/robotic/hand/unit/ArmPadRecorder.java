@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.wengnermiro.robotic.hand.unit;
+
+import com.robo4j.configuration.Configuration;
+import com.robo4j.hw.rpi.pad.LF710Message;
+import com.robo4j.logging.SimpleLoggingUtil;
+import com.wengnermiro.robotic.hand.capture.PadLogWriter;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * ArmPadRecorder records the pad input received by the {@link ArmController} to the binary log,
+ * the recording stops on the first failed write
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class ArmPadRecorder {
+
+    public static final String PROP_RECORD_FILE = "recordFile";
+
+    private final String recordFile;
+    private volatile PadLogWriter writer;
+
+    private ArmPadRecorder(String recordFile) {
+        this.recordFile = recordFile;
+    }
+
+    /**
+     * @return recorder or null when the record file is not configured
+     */
+    public static ArmPadRecorder create(Configuration configuration) {
+        final String recordFile = configuration.getString(PROP_RECORD_FILE, null);
+        return recordFile == null ? null : new ArmPadRecorder(recordFile);
+    }
+
+    public void open() {
+        try {
+            writer = PadLogWriter.create(Paths.get(recordFile));
+        } catch (IOException e) {
+            SimpleLoggingUtil.error(getClass(), "recorder: " + recordFile, e);
+        }
+    }
+
+    public void append(LF710Message message, long receivedNanos) {
+        final PadLogWriter padLogWriter = writer;
+        if (padLogWriter != null) {
+            try {
+                padLogWriter.append(message, receivedNanos);
+            } catch (IOException e) {
+                SimpleLoggingUtil.error(getClass(), "recorder: " + recordFile, e);
+                close();
+            }
+        }
+    }
+
+    public void close() {
+        final PadLogWriter padLogWriter = writer;
+        writer = null;
+        if (padLogWriter != null) {
+            try {
+                padLogWriter.close();
+            } catch (IOException e) {
+                SimpleLoggingUtil.error(getClass(), "recorder: " + recordFile, e);
+            }
+        }
+    }
+}
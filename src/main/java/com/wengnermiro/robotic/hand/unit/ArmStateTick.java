@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.wengnermiro.robotic.hand.unit;
+
+import com.robo4j.RoboReference;
+import com.wengnermiro.robotic.hand.control.ArmState;
+import com.wengnermiro.robotic.hand.control.ArmTickEngine;
+import com.wengnermiro.robotic.hand.control.CartesianTracker;
+import com.wengnermiro.robotic.hand.control.ExecutionLane;
+import com.wengnermiro.robotic.hand.listener.AbstractFaceListenerImpl;
+import com.wengnermiro.robotic.hand.listener.ArmListener;
+
+/**
+ * ArmStateTick runs the display lane and publishes the changed {@link ArmState},
+ * the pressed face is kept until the arm moves
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+final class ArmStateTick implements Runnable {
+    private final ArmTickEngine tickEngine;
+    private final RoboReference<ArmState> animation;
+    private final long motionSlots;
+    private final long gripperSlots;
+    private final long faceSlots;
+    private final ArmState[] slotFaces;
+    private ArmState state;
+
+    /**
+     * @param gripper name of the gripper joint
+     */
+    ArmStateTick(ArmTickEngine tickEngine, RoboReference<ArmState> animation, String gripper) {
+        this.tickEngine = tickEngine;
+        this.animation = animation;
+        this.motionSlots = tickEngine.getLaneSlots(ExecutionLane.SERVO);
+        this.slotFaces = new ArmState[tickEngine.size()];
+        long gripperSlots = 0;
+        long faces = 0;
+        for (int slot = 0; slot < tickEngine.size(); slot++) {
+            final ArmListener listener = tickEngine.getListener(slot);
+            if (listener.getName().equals(gripper)) {
+                gripperSlots |= 1L << slot;
+            }
+            if (listener instanceof AbstractFaceListenerImpl) {
+                faces |= 1L << slot;
+                slotFaces[slot] = ((AbstractFaceListenerImpl) listener).getFace();
+            }
+        }
+        this.gripperSlots = gripperSlots & motionSlots;
+        this.faceSlots = faces;
+    }
+
+    @Override
+    public void run() {
+        tickEngine.tickDisplay();
+        final ArmState current = evalState();
+        if (current != state) {
+            state = current;
+            animation.sendMessage(current);
+        }
+    }
+
+    private ArmState evalState() {
+        final CartesianTracker cartesian = tickEngine.getCartesianTracker();
+        if (tickEngine.getInterpolator().isActive() || (cartesian != null && cartesian.isActive())) {
+            return ArmState.TRAJECTORY;
+        }
+        final long active = tickEngine.getActiveSlots();
+        if ((active & gripperSlots) != 0) {
+            return ArmState.GRIPPING;
+        }
+        if ((active & motionSlots) != 0) {
+            return ArmState.MOVING;
+        }
+        final long face = active & faceSlots;
+        if (face != 0) {
+            return slotFaces[Long.numberOfTrailingZeros(face)];
+        }
+        return state != null && state.isFace() ? state : ArmState.IDLE;
+    }
+}
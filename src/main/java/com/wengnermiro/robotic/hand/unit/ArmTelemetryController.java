@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.unit;
+
+import com.robo4j.AttributeDescriptor;
+import com.robo4j.ConfigurationException;
+import com.robo4j.DefaultAttributeDescriptor;
+import com.robo4j.RoboContext;
+import com.robo4j.RoboUnit;
+import com.robo4j.configuration.Configuration;
+import com.robo4j.logging.SimpleLoggingUtil;
+import com.wengnermiro.robotic.hand.codec.ArmTelemetryQuery;
+import com.wengnermiro.robotic.hand.control.ArmControlRegistry;
+import com.wengnermiro.robotic.hand.control.ArmTickEngine;
+import com.wengnermiro.robotic.hand.telemetry.JointTelemetryRing;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import static com.wengnermiro.robotic.hand.unit.UnitsUtil.validateProperty;
+
+/**
+ * ArmTelemetryController serves the joint history recorded by the control loop of the {@link ArmController}.
+ * The telemetry attribute is the configured window ending at the time of the request. The received
+ * {@link ArmTelemetryQuery} is evaluated with its own window and points, the result is the query attribute
+ * together with the id and the window of the query. Queries don't change the configured window.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public class ArmTelemetryController extends RoboUnit<ArmTelemetryQuery> {
+
+    public static final String NAME = "armTelemetryController";
+    public static final String ATTR_TARGET = "target";
+    public static final String ATTR_WINDOW_MILLIS = "windowMillis";
+    public static final String ATTR_POINTS = "points";
+    public static final String ATTR_TELEMETRY = "telemetry";
+    public static final String ATTR_QUERY = "query";
+
+    public static final DefaultAttributeDescriptor<String> DESCRIPTOR_TELEMETRY = DefaultAttributeDescriptor.create(String.class, ATTR_TELEMETRY);
+    public static final DefaultAttributeDescriptor<Integer> DESCRIPTOR_WINDOW_MILLIS = DefaultAttributeDescriptor.create(Integer.class, ATTR_WINDOW_MILLIS);
+    public static final DefaultAttributeDescriptor<Integer> DESCRIPTOR_POINTS = DefaultAttributeDescriptor.create(Integer.class, ATTR_POINTS);
+    public static final DefaultAttributeDescriptor<String> DESCRIPTOR_QUERY = DefaultAttributeDescriptor.create(String.class, ATTR_QUERY);
+    private static final Collection<AttributeDescriptor<?>> KNOWN_ATTRIBUTES = Collections
+            .unmodifiableCollection(Arrays.asList(DESCRIPTOR_TELEMETRY, DESCRIPTOR_WINDOW_MILLIS, DESCRIPTOR_POINTS, DESCRIPTOR_QUERY));
+    private static final int DEFAULT_WINDOW_MILLIS = 5000;
+    private static final int DEFAULT_POINTS = 100;
+    private static final int MAX_POINTS = 10000;
+
+    private String target;
+    private int windowMillis;
+    private int points;
+    private volatile String queryResult;
+
+    public ArmTelemetryController(RoboContext context, String id) {
+        super(ArmTelemetryQuery.class, context, id);
+    }
+
+    @Override
+    protected void onInitialization(Configuration configuration) throws ConfigurationException {
+        target = configuration.getString(ATTR_TARGET, null);
+        validateProperty(target, ATTR_TARGET);
+        windowMillis = configuration.getInteger(ATTR_WINDOW_MILLIS, DEFAULT_WINDOW_MILLIS);
+        if (windowMillis <= 0) {
+            throw new ConfigurationException(ATTR_WINDOW_MILLIS);
+        }
+        points = configuration.getInteger(ATTR_POINTS, DEFAULT_POINTS);
+        if (points <= 0 || points > MAX_POINTS) {
+            throw new ConfigurationException(ATTR_POINTS);
+        }
+    }
+
+    /**
+     * evaluates the query, missing values are taken from the configuration
+     */
+    @Override
+    public void onMessage(ArmTelemetryQuery message) {
+        final int queryWindowMillis = message.getWindowMillis() != null && message.getWindowMillis() > 0
+                ? message.getWindowMillis() : windowMillis;
+        final int queryPoints = message.getPoints() != null && message.getPoints() > 0
+                ? Math.min(MAX_POINTS, message.getPoints()) : points;
+        final String telemetry = query(queryWindowMillis, queryPoints);
+        if (telemetry == null) {
+            SimpleLoggingUtil.info(getClass(), "no telemetry, query: " + message);
+            return;
+        }
+        queryResult = "{\"id\":" + message.getId() + ",\"windowMillis\":" + queryWindowMillis
+                + ",\"points\":" + queryPoints + ",\"telemetry\":" + telemetry + "}";
+    }
+
+    @Override
+    public Collection<AttributeDescriptor<?>> getKnownAttributes() {
+        return KNOWN_ATTRIBUTES;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected <R> R onGetAttribute(AttributeDescriptor<R> descriptor) {
+        switch (descriptor.getAttributeName()) {
+            case ATTR_TELEMETRY:
+                return (R) query(windowMillis, points);
+            case ATTR_QUERY:
+                return (R) queryResult;
+            case ATTR_WINDOW_MILLIS:
+                return (R) Integer.valueOf(windowMillis);
+            case ATTR_POINTS:
+                return (R) Integer.valueOf(points);
+            default:
+                return super.onGetAttribute(descriptor);
+        }
+    }
+
+    private String query(int queryWindowMillis, int queryPoints) {
+        final ArmTickEngine engine = ArmControlRegistry.get(getContext(), target);
+        final JointTelemetryRing telemetry = engine == null ? null : engine.getTelemetry();
+        return telemetry == null ? null : telemetry.query(queryWindowMillis, queryPoints);
+    }
+}
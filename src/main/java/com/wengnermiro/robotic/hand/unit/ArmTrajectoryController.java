@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.unit;
+
+import com.robo4j.AttributeDescriptor;
+import com.robo4j.ConfigurationException;
+import com.robo4j.DefaultAttributeDescriptor;
+import com.robo4j.RoboContext;
+import com.robo4j.RoboUnit;
+import com.robo4j.configuration.Configuration;
+import com.robo4j.logging.SimpleLoggingUtil;
+import com.wengnermiro.robotic.hand.codec.ArmTrajectoryJoint;
+import com.wengnermiro.robotic.hand.codec.ArmTrajectoryMessage;
+import com.wengnermiro.robotic.hand.codec.ArmTrajectoryPoint;
+import com.wengnermiro.robotic.hand.control.ArmControlRegistry;
+import com.wengnermiro.robotic.hand.control.ArmTickEngine;
+import com.wengnermiro.robotic.hand.control.Trajectory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.wengnermiro.robotic.hand.unit.UnitsUtil.validateProperty;
+
+/**
+ * ArmTrajectoryController compiles received trajectory segments and submits them
+ * to the control loop of the {@link ArmController}. Every waypoint of the segment
+ * must contain the same joints and the joint must not move between the waypoints faster
+ * than its max velocity. Rejected segments are counted and the reason is available
+ * by the {@link #ATTR_LAST_ERROR} attribute.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public class ArmTrajectoryController extends RoboUnit<ArmTrajectoryMessage> {
+
+    public static final String NAME = "armTrajectoryController";
+    public static final String ATTR_TARGET = "target";
+    public static final String ATTR_ACCEPTED = "accepted";
+    public static final String ATTR_REJECTED = "rejected";
+    public static final String ATTR_LAST_ERROR = "lastError";
+
+    public static final DefaultAttributeDescriptor<Long> DESCRIPTOR_ACCEPTED = DefaultAttributeDescriptor.create(Long.class, ATTR_ACCEPTED);
+    public static final DefaultAttributeDescriptor<Long> DESCRIPTOR_REJECTED = DefaultAttributeDescriptor.create(Long.class, ATTR_REJECTED);
+    public static final DefaultAttributeDescriptor<String> DESCRIPTOR_LAST_ERROR = DefaultAttributeDescriptor.create(String.class, ATTR_LAST_ERROR);
+    private static final Collection<AttributeDescriptor<?>> KNOWN_ATTRIBUTES = Collections.unmodifiableCollection(
+            Arrays.asList(DESCRIPTOR_ACCEPTED, DESCRIPTOR_REJECTED, DESCRIPTOR_LAST_ERROR));
+
+    private static final float VELOCITY_TOLERANCE = 1e-4f;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile String lastError;
+    private String target;
+
+    public ArmTrajectoryController(RoboContext context, String id) {
+        super(ArmTrajectoryMessage.class, context, id);
+    }
+
+    @Override
+    protected void onInitialization(Configuration configuration) throws ConfigurationException {
+        target = configuration.getString(ATTR_TARGET, null);
+        validateProperty(target, ATTR_TARGET);
+    }
+
+    @Override
+    public void onMessage(ArmTrajectoryMessage message) {
+        final ArmTickEngine engine = ArmControlRegistry.get(getContext(), target);
+        if (engine == null) {
+            reject(String.format("control loop not running: %s", target));
+            return;
+        }
+        try {
+            final Trajectory trajectory = compile(engine, message);
+            engine.submitTrajectory(trajectory, Boolean.TRUE.equals(message.getAppend()));
+            accepted.incrementAndGet();
+        } catch (IllegalArgumentException e) {
+            reject(e.getMessage());
+        }
+    }
+
+    @Override
+    public Collection<AttributeDescriptor<?>> getKnownAttributes() {
+        return KNOWN_ATTRIBUTES;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected <R> R onGetAttribute(AttributeDescriptor<R> descriptor) {
+        switch (descriptor.getAttributeName()) {
+            case ATTR_ACCEPTED:
+                return (R) Long.valueOf(accepted.get());
+            case ATTR_REJECTED:
+                return (R) Long.valueOf(rejected.get());
+            case ATTR_LAST_ERROR:
+                return (R) lastError;
+            default:
+                return super.onGetAttribute(descriptor);
+        }
+    }
+
+    private void reject(String reason) {
+        lastError = reason;
+        rejected.incrementAndGet();
+        SimpleLoggingUtil.error(getClass(), "rejected trajectory: " + reason);
+    }
+
+    /**
+     * the first waypoint is reached from the current joint value, the step of the joint
+     * is limited by the interpolator
+     */
+    static Trajectory compile(ArmTickEngine engine, ArmTrajectoryMessage message) {
+        final List<ArmTrajectoryPoint> points = message == null ? null : message.getPoints();
+        if (points == null || points.isEmpty()) {
+            throw new IllegalArgumentException("no points");
+        }
+        final List<String> names = new ArrayList<>();
+        for (ArmTrajectoryJoint joint : getJoints(points, 0)) {
+            if (joint == null || joint.getTarget() == null) {
+                throw new IllegalArgumentException("invalid joint: " + joint + ", point: 0");
+            }
+            if (names.contains(joint.getTarget())) {
+                throw new IllegalArgumentException("duplicate joint: " + joint.getTarget());
+            }
+            names.add(joint.getTarget());
+        }
+
+        final int[] joints = new int[names.size()];
+        for (int i = 0; i < joints.length; i++) {
+            joints[i] = engine.jointIndex(names.get(i));
+            if (joints[i] == ArmTickEngine.NO_SLOT) {
+                throw new IllegalArgumentException("unknown joint: " + names.get(i));
+            }
+        }
+
+        final long[] times = new long[points.size()];
+        final float[] values = new float[points.size() * joints.length];
+        for (int p = 0; p < points.size(); p++) {
+            final List<ArmTrajectoryJoint> pointJoints = getJoints(points, p);
+            final Integer time = points.get(p).getTime();
+            if (time == null || time < 0) {
+                throw new IllegalArgumentException("invalid time, point: " + p);
+            }
+            if (pointJoints.size() != joints.length) {
+                throw new IllegalArgumentException("joints don't match the first point, point: " + p);
+            }
+            times[p] = TimeUnit.MILLISECONDS.toNanos(time);
+            if (p > 0 && times[p] < times[p - 1]) {
+                throw new IllegalArgumentException("time must not decrease, point: " + p);
+            }
+            for (ArmTrajectoryJoint joint : pointJoints) {
+                final int index = joint == null ? -1 : names.indexOf(joint.getTarget());
+                if (index < 0 || joint.getValue() == null) {
+                    throw new IllegalArgumentException("invalid joint: " + joint + ", point: " + p);
+                }
+                values[p * joints.length + index] = Math.max(-1f, Math.min(1f, joint.getValue()));
+            }
+            if (p > 0) {
+                validateVelocity(engine, joints, times, values, p);
+            }
+        }
+        return new Trajectory(joints, times, values);
+    }
+
+    private static List<ArmTrajectoryJoint> getJoints(List<ArmTrajectoryPoint> points, int point) {
+        final ArmTrajectoryPoint trajectoryPoint = points.get(point);
+        if (trajectoryPoint == null || trajectoryPoint.getJoints() == null || trajectoryPoint.getJoints().isEmpty()) {
+            throw new IllegalArgumentException("no joints, point: " + point);
+        }
+        return trajectoryPoint.getJoints();
+    }
+
+    private static void validateVelocity(ArmTickEngine engine, int[] joints, long[] times, float[] values, int point) {
+        final float seconds = (times[point] - times[point - 1]) / (float) TimeUnit.SECONDS.toNanos(1);
+        for (int i = 0; i < joints.length; i++) {
+            final float distance = Math.abs(values[point * joints.length + i] - values[(point - 1) * joints.length + i]);
+            final float maxVelocity = engine.getInterpolator().getMaxVelocity(joints[i]);
+            if (distance > maxVelocity * seconds + VELOCITY_TOLERANCE) {
+                throw new IllegalArgumentException(String.format("joint: %s exceeds max velocity: %.2f, point: %d",
+                        engine.getJointName(joints[i]), maxVelocity, point));
+            }
+        }
+    }
+}
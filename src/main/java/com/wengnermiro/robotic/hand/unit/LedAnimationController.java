@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.unit;
+
+import com.robo4j.AttributeDescriptor;
+import com.robo4j.ConfigurationException;
+import com.robo4j.DefaultAttributeDescriptor;
+import com.robo4j.RoboContext;
+import com.robo4j.RoboReference;
+import com.robo4j.RoboUnit;
+import com.robo4j.configuration.Configuration;
+import com.wengnermiro.robotic.hand.control.ArmState;
+import com.wengnermiro.robotic.hand.display.SpriteSequence;
+import com.wengnermiro.robotic.hand.display.SpriteSheet;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.wengnermiro.robotic.hand.unit.UnitsUtil.validateProperty;
+
+/**
+ * LedAnimationController plays the sprite sheet sequences assigned to the {@link ArmState}s on the
+ * {@link LedMatrixController}. Frames are prepared at initialization and played by one timer task
+ * at the capped frame rate. State without sequence stops the animation.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public class LedAnimationController extends RoboUnit<ArmState> {
+
+    public static final String NAME = "ledAnimationController";
+    public static final String PROP_TARGET = "target";
+    public static final String PROP_SPRITE_SHEET = "spriteSheet";
+    public static final String PROP_MAX_FRAME_RATE = "maxFrameRate";
+    public static final String PROP_SEQUENCES = "sequences";
+    public static final String ATTR_STATE = "state";
+    public static final String ATTR_FRAMES = "frames";
+
+    public static final DefaultAttributeDescriptor<String> DESCRIPTOR_STATE = DefaultAttributeDescriptor.create(String.class, ATTR_STATE);
+    public static final DefaultAttributeDescriptor<Long> DESCRIPTOR_FRAMES = DefaultAttributeDescriptor.create(Long.class, ATTR_FRAMES);
+    private static final Collection<AttributeDescriptor<?>> KNOWN_ATTRIBUTES = Collections
+            .unmodifiableCollection(Arrays.asList(DESCRIPTOR_STATE, DESCRIPTOR_FRAMES));
+    private static final int DEFAULT_MAX_FRAME_RATE = 10;
+    private static final Animation STOP = new Animation(new LedMatrixMessage[0], 1, false);
+
+    private final Animation[] animations = new Animation[ArmState.values().length];
+    private final AtomicReference<Animation> requested = new AtomicReference<>();
+    private String target;
+    private int maxFrameRate;
+    private RoboReference<LedMatrixMessage> targetReference;
+    private ScheduledFuture<?> timerFuture;
+    private volatile ArmState state = ArmState.IDLE;
+    private volatile long frames;
+
+    private Animation playing;
+    private int frame;
+    private int countdown;
+
+    public LedAnimationController(RoboContext context, String id) {
+        super(ArmState.class, context, id);
+    }
+
+    @Override
+    protected void onInitialization(Configuration configuration) throws ConfigurationException {
+        target = configuration.getString(PROP_TARGET, null);
+        validateProperty(target, PROP_TARGET);
+        maxFrameRate = configuration.getInteger(PROP_MAX_FRAME_RATE, DEFAULT_MAX_FRAME_RATE);
+        if (maxFrameRate <= 0 || maxFrameRate > 1000) {
+            throw new ConfigurationException(PROP_MAX_FRAME_RATE);
+        }
+        final String spriteSheet = configuration.getString(PROP_SPRITE_SHEET, null);
+        validateProperty(spriteSheet, PROP_SPRITE_SHEET);
+        final SpriteSheet sheet;
+        try (InputStream is = openSpriteSheet(spriteSheet)) {
+            if (is == null) {
+                throw new ConfigurationException("sprite sheet not found: " + spriteSheet);
+            }
+            sheet = SpriteSheet.load(is);
+        } catch (IOException e) {
+            throw new ConfigurationException("sprite sheet: " + e.getMessage());
+        }
+        final LedMatrixMessage[] sheetFrames = new LedMatrixMessage[sheet.getFrameCount()];
+        for (int i = 0; i < sheetFrames.length; i++) {
+            sheetFrames[i] = new LedMatrixMessage(sheet.getFrame(i));
+        }
+        final Configuration sequencesConfiguration = configuration.getChildConfiguration(PROP_SEQUENCES);
+        for (ArmState armState : ArmState.values()) {
+            final String name = sequencesConfiguration == null ? null : sequencesConfiguration.getString(armState.getName(), null);
+            if (name == null) {
+                continue;
+            }
+            final SpriteSequence sequence = sheet.getSequence(name);
+            if (sequence == null) {
+                throw new ConfigurationException("sequence not found: " + name);
+            }
+            final LedMatrixMessage[] sequenceFrames = new LedMatrixMessage[sequence.length()];
+            for (int i = 0; i < sequenceFrames.length; i++) {
+                sequenceFrames[i] = sheetFrames[sequence.getFrame(i)];
+            }
+            final int frameTicks = Math.max(1, Math.round((float) maxFrameRate / sequence.getFrameRate()));
+            animations[armState.ordinal()] = new Animation(sequenceFrames, frameTicks, sequence.isLoop());
+        }
+    }
+
+    @Override
+    public void start() {
+        super.start();
+        targetReference = getContext().getReference(target);
+        final long period = TimeUnit.SECONDS.toMicros(1) / maxFrameRate;
+        timerFuture = getContext().getScheduler().scheduleAtFixedRate(this::onFrame, period, period, TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (timerFuture != null) {
+            timerFuture.cancel(false);
+            timerFuture = null;
+        }
+        super.stop();
+    }
+
+    @Override
+    public void onMessage(ArmState message) {
+        if (message != state) {
+            state = message;
+            final Animation animation = animations[message.ordinal()];
+            requested.set(animation == null ? STOP : animation);
+        }
+    }
+
+    @Override
+    public Collection<AttributeDescriptor<?>> getKnownAttributes() {
+        return KNOWN_ATTRIBUTES;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected <R> R onGetAttribute(AttributeDescriptor<R> descriptor) {
+        switch (descriptor.getAttributeName()) {
+            case ATTR_STATE:
+                return (R) state.getName();
+            case ATTR_FRAMES:
+                return (R) Long.valueOf(frames);
+            default:
+                return super.onGetAttribute(descriptor);
+        }
+    }
+
+    /**
+     * timer task, the only one touching the playing animation
+     */
+    private void onFrame() {
+        final Animation next = requested.getAndSet(null);
+        if (next != null) {
+            playing = next == STOP ? null : next;
+            frame = 0;
+            countdown = 0;
+        }
+        if (playing == null || targetReference == null) {
+            return;
+        }
+        if (countdown > 0) {
+            countdown--;
+            return;
+        }
+        targetReference.sendMessage(playing.frames[frame]);
+        frames++;
+        countdown = playing.frameTicks - 1;
+        if (++frame == playing.frames.length) {
+            if (playing.loop) {
+                frame = 0;
+            } else {
+                playing = null;
+            }
+        }
+    }
+
+    private InputStream openSpriteSheet(String spriteSheet) throws IOException {
+        Path path = Paths.get(spriteSheet);
+        if (Files.isRegularFile(path)) {
+            return Files.newInputStream(path);
+        }
+        return Thread.currentThread().getContextClassLoader().getResourceAsStream(spriteSheet);
+    }
+
+    private static final class Animation {
+        private final LedMatrixMessage[] frames;
+        private final int frameTicks;
+        private final boolean loop;
+
+        private Animation(LedMatrixMessage[] frames, int frameTicks, boolean loop) {
+            this.frames = frames;
+            this.frameTicks = frameTicks;
+            this.loop = loop;
+        }
+    }
+}
@@ -17,25 +17,47 @@
 
 package com.wengnermiro.robotic.hand.unit;
 
+import com.robo4j.AttributeDescriptor;
 import com.robo4j.ConfigurationException;
+import com.robo4j.CriticalSectionTrait;
+import com.robo4j.DefaultAttributeDescriptor;
 import com.robo4j.RoboContext;
+import com.robo4j.RoboReference;
 import com.robo4j.RoboUnit;
 import com.robo4j.configuration.Configuration;
 import com.robo4j.units.rpi.led.LEDBackpackMessage;
-import com.robo4j.units.rpi.led.LEDBackpackMessageType;
+import com.wengnermiro.robotic.hand.display.MatrixFramebuffer;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 
 import static com.wengnermiro.robotic.hand.unit.UnitsUtil.validateProperty;
 
 /**
+ * LedMatrixController displays {@link LedMatrixMessage} on the matrix. Frames identical
+ * to the displayed one are dropped, otherwise only changed pixels are sent.
+ *
  * @author Miroslav Wengner (@miragemiko)
  */
+@CriticalSectionTrait
 public class LedMatrixController extends RoboUnit<LedMatrixMessage> {
 
     public static final String TARGET = "target";
+    public static final String PROP_SIZE = "size";
+    public static final String ATTR_RENDERED_FRAMES = "renderedFrames";
+    public static final String ATTR_DROPPED_FRAMES = "droppedFrames";
+
+    public static final DefaultAttributeDescriptor<Long> DESCRIPTOR_RENDERED_FRAMES = DefaultAttributeDescriptor.create(Long.class, ATTR_RENDERED_FRAMES);
+    public static final DefaultAttributeDescriptor<Long> DESCRIPTOR_DROPPED_FRAMES = DefaultAttributeDescriptor.create(Long.class, ATTR_DROPPED_FRAMES);
+    private static final Collection<AttributeDescriptor<?>> KNOWN_ATTRIBUTES = Collections
+            .unmodifiableCollection(Arrays.asList(DESCRIPTOR_RENDERED_FRAMES, DESCRIPTOR_DROPPED_FRAMES));
+    private static final int DEFAULT_SIZE = 8;
     private final LEDBackpackMessage clearMessage = new LEDBackpackMessage();
     private String target;
+    private MatrixFramebuffer framebuffer;
+    private RoboReference<LEDBackpackMessage> targetReference;
+    private boolean cleared;
 
     public LedMatrixController(RoboContext context, String id) {
         super(LedMatrixMessage.class, context, id);
@@ -45,13 +67,46 @@ public class LedMatrixController extends RoboUnit<LedMatrixMessage> {
     protected void onInitialization(Configuration configuration) throws ConfigurationException {
         target = configuration.getString(TARGET, null);
         validateProperty(target, TARGET);
+        framebuffer = new MatrixFramebuffer(configuration.getInteger(PROP_SIZE, DEFAULT_SIZE));
+    }
+
+    @Override
+    public void start() {
+        super.start();
+        targetReference = getContext().getReference(target);
     }
 
     @Override
     public void onMessage(LedMatrixMessage message) {
-        getContext().getReference(target).sendMessage(clearMessage);
-        LEDBackpackMessage addMessage = new LEDBackpackMessage(LEDBackpackMessageType.DISPLAY);
-        addMessage.setElements(Arrays.asList(message.getElements()));
-        getContext().getReference(target).sendMessage(addMessage);
+        if (targetReference == null) {
+            return;
+        }
+        if (!cleared) {
+            framebuffer.reset();
+            targetReference.sendMessage(clearMessage);
+            cleared = true;
+        }
+        final LEDBackpackMessage delta = framebuffer.render(message.getElements());
+        if (delta != null) {
+            targetReference.sendMessage(delta);
+        }
+    }
+
+    @Override
+    public Collection<AttributeDescriptor<?>> getKnownAttributes() {
+        return KNOWN_ATTRIBUTES;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected <R> R onGetAttribute(AttributeDescriptor<R> descriptor) {
+        switch (descriptor.getAttributeName()) {
+            case ATTR_RENDERED_FRAMES:
+                return (R) Long.valueOf(framebuffer.getRenderedFrames());
+            case ATTR_DROPPED_FRAMES:
+                return (R) Long.valueOf(framebuffer.getDroppedFrames());
+            default:
+                return super.onGetAttribute(descriptor);
+        }
     }
 }
@@ -22,23 +22,26 @@ import com.robo4j.hw.rpi.i2c.adafruitbackpack.PackElement;
 
 /**
  * LedMatrixMessage provides message that can be displayed on
- * Led Matrix
+ * Led Matrix. Frames of animations are created once and reused.
  *
  * @author Miroslav Wengner (@miragemiko)
  */
-public enum LedMatrixMessage {
+public final class LedMatrixMessage {
 
     //@formatter:off
-    FACE_SMILE      ("00333300,03000030,30300303,30000003,30300303,30033003,03000030,00333300".toCharArray()),
-    FACE_NEUTRAL    ("00222200,02000020,20200202,20000002,20222202,20000002,02000020,00222200".toCharArray() ),
-    FACE_SAD        ("00111100,01000010,10100101,10000001,10011001,10100101,01000010,00111100".toCharArray())
-    ;
+    public static final LedMatrixMessage FACE_SMILE     = new LedMatrixMessage("00333300,03000030,30300303,30000003,30300303,30033003,03000030,00333300".toCharArray());
+    public static final LedMatrixMessage FACE_NEUTRAL   = new LedMatrixMessage("00222200,02000020,20200202,20000002,20222202,20000002,02000020,00222200".toCharArray());
+    public static final LedMatrixMessage FACE_SAD       = new LedMatrixMessage("00111100,01000010,10100101,10000001,10011001,10100101,01000010,00111100".toCharArray());
     //@formatter:on
 
     private static final int MATRIX_SIZE = 8;
     private final PackElement[] elements;
 
-    LedMatrixMessage(char[] elements) {
+    public LedMatrixMessage(PackElement[] elements) {
+        this.elements = elements;
+    }
+
+    private LedMatrixMessage(char[] elements) {
         this.elements = createArray(elements);
     }
 
@@ -46,7 +49,7 @@ public enum LedMatrixMessage {
         return elements;
     }
 
-    private PackElement[] createArray(char[] array) {
+    private static PackElement[] createArray(char[] array) {
         final byte[] byteArray = LEDBackpackUtils.createMatrixBiColorArrayByCharSequence(MATRIX_SIZE, ',',
                 array);
         return LEDBackpackUtils.createMatrixByBiColorByteArray(MATRIX_SIZE, byteArray);
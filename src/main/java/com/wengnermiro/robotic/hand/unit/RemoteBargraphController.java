@@ -22,23 +22,34 @@ import com.robo4j.RoboContext;
 import com.robo4j.RoboReference;
 import com.robo4j.RoboUnit;
 import com.robo4j.configuration.Configuration;
-import com.robo4j.hw.rpi.i2c.adafruitbackpack.BiColor;
-import com.robo4j.hw.rpi.i2c.adafruitbackpack.PackElement;
 import com.robo4j.logging.SimpleLoggingUtil;
+import com.robo4j.net.LookupService;
 import com.robo4j.net.LookupServiceProvider;
+import com.robo4j.net.RoboContextDescriptor;
 import com.robo4j.units.rpi.led.LEDBackpackMessage;
-import com.robo4j.units.rpi.led.LEDBackpackMessageType;
+import com.wengnermiro.robotic.hand.concurrent.BlockingExecutor;
+import com.wengnermiro.robotic.hand.concurrent.LatestValueMailbox;
+import com.wengnermiro.robotic.hand.display.BargraphRenderer;
 import com.wengnermiro.robotic.hand.jfr.JfrBargraphEvent;
+import com.wengnermiro.robotic.hand.jfr.JfrSampler;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
 
 /**
  * RemoteBargraphController send the proper information to the
  * {@link com.robo4j.units.rpi.led.Adafruit24BargraphUnit} by message {@link com.robo4j.units.rpi.led.LEDBackpackMessage}
  *
+ * Only the latest bargraph state waits for the delivery, older not delivered states are dropped.
+ * The remote reference is cached and resolved again when the discovered context changes.
+ * Only changed segments are sent, the bargraph is cleared when the reference is resolved again.
+ * Remote sends are done by the {@link BlockingExecutor}, nothing is sent after the unit is stopped.
+ * The discovered remote context is checked every discoveryPeriod millis.
+ *
  * @author Marcus Hirt (@hirt)
  * @author Miroslav Wengner (@miragemiko)
  */
@@ -48,14 +59,26 @@ public class RemoteBargraphController extends RoboUnit<Float> {
 
     public static final String ATTR_TARGET_SYSTEM = "targetSystem";
     public static final String ATTR_TARGET = "target";
+    public static final String ATTR_DISCOVERY_PERIOD = "discoveryPeriod";
     private static final LEDBackpackMessage CLEAR_MESSAGE = new LEDBackpackMessage();
-    private final BlockingQueue<LEDBackpackMessage> eventQueue = new LinkedBlockingQueue<>();
-    private final AtomicBoolean active = new AtomicBoolean(true);
+    private static final long DEFAULT_DISCOVERY_PERIOD = 1000;
+    private final LatestValueMailbox mailbox = new LatestValueMailbox();
     private final AtomicInteger bargraphCounter = new AtomicInteger(0);
     private final AtomicBoolean isIncrement = new AtomicBoolean(true);
+    private final BargraphRenderer renderer = new BargraphRenderer();
+    private final JfrSampler jfrSampler = new JfrSampler();
+    private final IntConsumer renderTask = this::render;
+    private final Runnable drainTask = () -> mailbox.drain(renderTask);
     private String targetSystem;
     private String target;
-    private RoboContext remoteContext;
+    private long discoveryPeriod;
+    private LookupService lookupService;
+    private ScheduledFuture<?> discoveryFuture;
+    private volatile BlockingExecutor drainExecutor;
+    private volatile RoboContextDescriptor remoteDescriptor;
+    private volatile RoboReference<LEDBackpackMessage> remoteReference;
+    private volatile RoboReference<LEDBackpackMessage> renderedReference;
+    private volatile boolean stopped;
 
     public RemoteBargraphController(RoboContext context, String id) {
         super(Float.class, context, id);
@@ -65,50 +88,115 @@ public class RemoteBargraphController extends RoboUnit<Float> {
     protected void onInitialization(Configuration configuration) throws ConfigurationException {
         targetSystem = configuration.getString(ATTR_TARGET_SYSTEM, null);
         target = configuration.getString(ATTR_TARGET, null);
+        discoveryPeriod = configuration.getLong(ATTR_DISCOVERY_PERIOD, DEFAULT_DISCOVERY_PERIOD);
+        if (discoveryPeriod <= 0) {
+            throw new ConfigurationException(ATTR_DISCOVERY_PERIOD);
+        }
+        lookupService = LookupServiceProvider.getDefaultLookupService();
     }
 
     @Override
     public void start() {
-        getContext().getScheduler().execute(() -> {
-            while (active.get()) {
-                try {
-                    LEDBackpackMessage message = eventQueue.take();
-                    System.out.println("EMITTED MESSAGE:" + message);
-                    RoboContext remoteContext = LookupServiceProvider.getDefaultLookupService().getContext(targetSystem);
-                    if (remoteContext != null) {
-                        RoboReference<LEDBackpackMessage> roboReference = remoteContext.getReference(target);
-                        if (roboReference != null) {
-                            roboReference.sendMessage(message);
-                        }
-                    } else {
-                        SimpleLoggingUtil.info(getClass(), String.format("context not found: %s", targetSystem));
-                    }
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }
-        });
+        super.start();
+        mailbox.clear();
+        drainExecutor = BlockingExecutor.create(getContext(), NAME);
+        stopped = false;
+        discoveryFuture = getContext().getScheduler().scheduleAtFixedRate(this::checkDiscovery, discoveryPeriod,
+                discoveryPeriod, TimeUnit.MILLISECONDS);
     }
 
     @Override
-    public void shutdown() {
-        active.set(false);
-        super.shutdown();
+    public void stop() {
+        stopped = true;
+        if (discoveryFuture != null) {
+            discoveryFuture.cancel(false);
+            discoveryFuture = null;
+        }
+        if (drainExecutor != null) {
+            drainExecutor.shutdown();
+        }
+        remoteReference = null;
+        super.stop();
     }
 
-
     @Override
     public void onMessage(Float message) {
-        eventQueue.add(CLEAR_MESSAGE);
-        LEDBackpackMessage addMessage = new LEDBackpackMessage(LEDBackpackMessageType.DISPLAY);
-        for (int i = 0; i < bargraphCounter.get(); i++) {
-            PackElement element = new PackElement(i, BiColor.GREEN);
-            addMessage.addElement(element);
+        if (stopped) {
+            return;
+        }
+        final int counter = bargraphCounter.get();
+        emitJfrEvent(message, counter, isIncrement.get());
+        if (mailbox.offer(counter)) {
+            try {
+                drainExecutor.execute(drainTask);
+            } catch (RejectedExecutionException e) {
+                // stopped in the meantime, the mailbox is cleared by the start
+            }
         }
-        emitJfrEvent(message, bargraphCounter.get(), isIncrement.get());
-        eventQueue.add(addMessage);
         evalBargraphState();
+    }
+
+    private void render(int counter) {
+        if (stopped) {
+            return;
+        }
+        final RoboReference<LEDBackpackMessage> reference = getRemoteReference();
+        if (reference == null) {
+            return;
+        }
+        if (reference != renderedReference) {
+            renderer.reset();
+            renderedReference = reference;
+            if (!send(reference, CLEAR_MESSAGE)) {
+                return;
+            }
+        }
+        final LEDBackpackMessage delta = renderer.render(counter);
+        if (delta != null) {
+            send(reference, delta);
+        }
+    }
+
+    private boolean send(RoboReference<LEDBackpackMessage> reference, LEDBackpackMessage message) {
+        try {
+            reference.sendMessage(message);
+            return true;
+        } catch (RuntimeException e) {
+            SimpleLoggingUtil.error(getClass(), "send failed: " + targetSystem, e);
+            remoteReference = null;
+            renderedReference = null;
+            return false;
+        }
+    }
+
+    private RoboReference<LEDBackpackMessage> getRemoteReference() {
+        RoboReference<LEDBackpackMessage> reference = remoteReference;
+        if (reference == null && lookupService != null) {
+            RoboContext remoteContext = lookupService.getContext(targetSystem);
+            if (remoteContext != null) {
+                reference = remoteContext.getReference(target);
+                remoteReference = reference;
+            }
+        }
+        return reference;
+    }
 
+    /**
+     * changed or lost descriptor of the remote context invalidates the cached reference
+     */
+    private void checkDiscovery() {
+        if (lookupService == null) {
+            return;
+        }
+        RoboContextDescriptor descriptor = lookupService.getDescriptor(targetSystem);
+        if (descriptor != remoteDescriptor) {
+            if (descriptor == null) {
+                SimpleLoggingUtil.info(getClass(), String.format("context not found: %s", targetSystem));
+            }
+            remoteDescriptor = descriptor;
+            remoteReference = null;
+            renderedReference = null;
+        }
     }
 
     private void evalBargraphState() {
@@ -127,8 +215,16 @@ public class RemoteBargraphController extends RoboUnit<Float> {
         }
     }
 
+    /**
+     * messages are received by several threads, the event is created only for the sample
+     */
     private void emitJfrEvent(float amount, int bargraphCounter, boolean inc) {
-        JfrBargraphEvent event = new JfrBargraphEvent(amount, bargraphCounter, inc, Thread.currentThread().getName());
-        event.commit();
+        if (jfrSampler.sample(System.nanoTime())) {
+            JfrBargraphEvent event = new JfrBargraphEvent();
+            if (event.isEnabled()) {
+                event.set(amount, bargraphCounter, inc);
+                event.commit();
+            }
+        }
     }
 }
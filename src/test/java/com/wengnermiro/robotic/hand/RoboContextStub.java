@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.wengnermiro.robotic.hand;
+
+import com.robo4j.RoboContext;
+import com.robo4j.RoboReference;
+import com.robo4j.scheduler.Scheduler;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RoboContextStub {@link RoboContext} of the tests. References are created on demand and record
+ * the received messages, the scheduler does not run any task.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+public final class RoboContextStub {
+
+    public static final String ID = "testContext";
+
+    private final Map<String, RoboReference<?>> references = new ConcurrentHashMap<>();
+    private final Map<String, List<Object>> messages = new ConcurrentHashMap<>();
+    private final RoboContext context;
+
+    public RoboContextStub() {
+        this.context = proxy(RoboContext.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getReference":
+                    return args == null || args.length == 0 ? null : references.computeIfAbsent((String) args[0], this::createReference);
+                case "getScheduler":
+                    return proxy(Scheduler.class, (p, m, a) -> defaultValue(m));
+                case "getId":
+                    return ID;
+                default:
+                    return defaultValue(method);
+            }
+        });
+    }
+
+    public RoboContext getContext() {
+        return context;
+    }
+
+    /**
+     * @return messages received by the reference
+     */
+    public List<Object> getMessages(String id) {
+        return messages.getOrDefault(id, Collections.emptyList());
+    }
+
+    private RoboReference<?> createReference(String id) {
+        final List<Object> received = Collections.synchronizedList(new ArrayList<>());
+        messages.put(id, received);
+        return proxy(RoboReference.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "sendMessage":
+                    received.add(args[0]);
+                    return null;
+                case "getId":
+                    return id;
+                default:
+                    return defaultValue(method);
+            }
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(RoboContextStub.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object defaultValue(Method method) {
+        final Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == void.class || !type.isPrimitive()) {
+            return null;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        return 0;
+    }
+}
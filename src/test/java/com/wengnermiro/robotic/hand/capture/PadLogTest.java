@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.capture;
+
+import com.robo4j.hw.rpi.pad.LF710Button;
+import com.robo4j.hw.rpi.pad.LF710JoystickButton;
+import com.robo4j.hw.rpi.pad.LF710Message;
+import com.robo4j.hw.rpi.pad.LF710Part;
+import com.robo4j.hw.rpi.pad.LF710State;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Miroslav Wengner (@miragemiko)
+ */
+class PadLogTest {
+
+    private static final long STEP_NANOS = 20_000_000L;
+
+    private final LF710Message[] messages = {
+            new LF710Message(0L, (short) 16000, LF710Part.JOYSTICK, LF710JoystickButton.RIGHT_X, LF710State.PRESSED),
+            new LF710Message(0L, (short) -32767, LF710Part.JOYSTICK, LF710JoystickButton.LEFT_Y, LF710State.PRESSED),
+            new LF710Message(0L, (short) 0, LF710Part.JOYSTICK, LF710JoystickButton.RIGHT_X, LF710State.RELEASED),
+            new LF710Message(0L, (short) 1, LF710Part.BUTTON, LF710Button.FRONT_UP_LEFT, LF710State.PRESSED),
+            new LF710Message(0L, (short) 0, LF710Part.BUTTON, LF710Button.FRONT_UP_LEFT, LF710State.RELEASED)};
+    private Path path;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        path = Files.createTempFile("padLog", ".log");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void writtenEntriesAreReadAcrossChunks() throws IOException {
+        final long start = System.nanoTime();
+        try (PadLogWriter writer = PadLogWriter.create(path, 2)) {
+            for (int i = 0; i < messages.length; i++) {
+                writer.append(messages[i], start + i * STEP_NANOS);
+            }
+            assertEquals(messages.length, writer.getCount());
+        }
+        assertEquals(PadLogFormat.HEADER_SIZE + messages.length * PadLogFormat.ENTRY_SIZE, Files.size(path));
+
+        final PadLogReader reader = PadLogReader.open(path);
+        assertEquals(messages.length, reader.size());
+        for (int i = 0; i < messages.length; i++) {
+            final LF710Message message = reader.createMessage(i, 42L);
+            assertEquals(42L, message.getTime());
+            assertEquals(messages[i].getAmount(), message.getAmount());
+            assertEquals(messages[i].getPart(), message.getPart());
+            assertEquals(messages[i].getInput(), message.getInput());
+            assertEquals(messages[i].getState(), message.getState());
+            if (i > 0) {
+                assertEquals(STEP_NANOS, reader.getNanos(i) - reader.getNanos(i - 1));
+            }
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> reader.getNanos(messages.length));
+    }
+
+    @Test
+    void logIsReadableWhileRecording() throws IOException {
+        try (PadLogWriter writer = PadLogWriter.create(path, 4)) {
+            writer.append(messages[0], System.nanoTime());
+            writer.append(messages[1], System.nanoTime());
+
+            final PadLogReader reader = PadLogReader.open(path);
+
+            assertEquals(2, reader.size());
+            assertEquals(messages[1].getInput(), reader.createMessage(1, 0L).getInput());
+        }
+    }
+
+    @Test
+    void closedWriterRejectsEntries() throws IOException {
+        final PadLogWriter writer = PadLogWriter.create(path);
+        writer.close();
+
+        assertThrows(IOException.class, () -> writer.append(messages[0], System.nanoTime()));
+        assertEquals(0, PadLogReader.open(path).size());
+    }
+
+    @Test
+    void notValidLogIsRejected() throws IOException {
+        Files.write(path, new byte[PadLogFormat.HEADER_SIZE]);
+        assertThrows(IOException.class, () -> PadLogReader.open(path));
+
+        Files.write(path, new byte[4]);
+        assertThrows(IOException.class, () -> PadLogReader.open(path));
+    }
+
+    @Test
+    void notValidEntryIsSkipped() throws IOException {
+        try (PadLogWriter writer = PadLogWriter.create(path)) {
+            writer.append(messages[0], System.nanoTime());
+        }
+        final byte[] bytes = Files.readAllBytes(path);
+        bytes[PadLogFormat.HEADER_SIZE + PadLogFormat.INPUT_OFFSET] = Byte.MAX_VALUE;
+        Files.write(path, bytes);
+
+        assertNull(PadLogReader.open(path).createMessage(0, 0L));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.wengnermiro.robotic.hand.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Miroslav Wengner (@miragemiko)
+ */
+class ArmHttpAdmissionTest {
+
+    @Test
+    void fullQueueRejectsTheRequest() {
+        AtomicBoolean full = new AtomicBoolean(true);
+        BooleanSupplier queueFull = full::get;
+        ArmHttpAdmission.register(queueFull);
+        try {
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> new ArmHttpMessageCodec().decode("{}"));
+            assertEquals(ArmHttpMessageCodec.MESSAGE_QUEUE_FULL, e.getMessage());
+            full.set(false);
+            assertFalse(ArmHttpAdmission.isQueueFull());
+        } finally {
+            ArmHttpAdmission.unregister(queueFull);
+        }
+    }
+
+    @Test
+    void unregisterKeepsTheNewerRegistration() {
+        BooleanSupplier old = () -> true;
+        BooleanSupplier current = () -> true;
+        ArmHttpAdmission.register(old);
+        ArmHttpAdmission.register(current);
+        ArmHttpAdmission.unregister(old);
+        assertTrue(ArmHttpAdmission.isQueueFull());
+        ArmHttpAdmission.unregister(current);
+        assertFalse(ArmHttpAdmission.isQueueFull());
+    }
+}
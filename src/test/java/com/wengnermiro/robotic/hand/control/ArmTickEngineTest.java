@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.wengnermiro.robotic.hand.control;
+
+import com.robo4j.hw.rpi.pad.LF710Button;
+import com.robo4j.hw.rpi.pad.LF710JoystickButton;
+import com.wengnermiro.robotic.hand.RoboContextStub;
+import com.wengnermiro.robotic.hand.kinematics.ArmGeometry;
+import com.wengnermiro.robotic.hand.kinematics.CollisionEnvelope;
+import com.wengnermiro.robotic.hand.listener.ArmGripperHeadServoListenerImpl;
+import com.wengnermiro.robotic.hand.listener.ArmListener;
+import com.wengnermiro.robotic.hand.listener.ArmPlatformServoListenerImpl;
+import com.wengnermiro.robotic.hand.listener.FaceSmileListenerImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Miroslav Wengner (@miragemiko)
+ */
+class ArmTickEngineTest {
+
+    private static final short FULL = ArmPlatformServoListenerImpl.MAX_AMOUNT;
+    private static final float STEP = 0.1f;
+    private static final int[] GUARDED_JOINTS = new int[ArmGeometry.JOINTS];
+
+    private final RoboContextStub context = new RoboContextStub();
+    private ArmTickEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        final ArmListener platform = new ArmPlatformServoListenerImpl("servo1", context.getContext(),
+                LF710JoystickButton.RIGHT_X, FULL, STEP);
+        final ArmListener gripper = new ArmGripperHeadServoListenerImpl("servo2", context.getContext(),
+                LF710Button.FRONT_UP_LEFT, true, STEP);
+        final ArmListener face = new FaceSmileListenerImpl("ledMatrixController", context.getContext(), LF710Button.GREEN);
+        engine = new ArmTickEngine(Arrays.asList(platform, gripper, face), Arrays.asList("servo1", "servo2"));
+    }
+
+    @Test
+    void stepIsConstantWithoutProfile() {
+        assertTrue(engine.press(0, (short) (FULL / 4), false));
+        engine.tick();
+        assertEquals(STEP, engine.getJointValue(0), 1e-4f);
+
+        assertFalse(engine.press(0, (short) -FULL, false));
+        engine.tick();
+        assertEquals(0f, engine.getJointValue(0), 1e-4f);
+    }
+
+    @Test
+    void proportionalStepScalesWithTheJoystickDeflection() {
+        final ArmTickEngine proportional = new ArmTickEngine(Collections.singletonList(new ArmPlatformServoListenerImpl(
+                "servo1", context.getContext(), LF710JoystickButton.RIGHT_X, FULL, STEP, true, null, 0)),
+                Collections.singletonList("servo1"));
+
+        assertTrue(proportional.press(0, (short) (FULL / 4), false));
+        proportional.tick();
+        assertEquals(STEP / 4, proportional.getJointValue(0), 1e-4f);
+
+        assertFalse(proportional.press(0, FULL, false));
+        proportional.tick();
+        assertEquals(STEP / 4 + STEP, proportional.getJointValue(0), 1e-4f);
+
+        proportional.press(0, (short) -FULL, false);
+        proportional.tick();
+        assertEquals(STEP / 4, proportional.getJointValue(0), 1e-4f);
+    }
+
+    @Test
+    void exclusivePressKeepsOtherListenersIdle() {
+        assertTrue(engine.press(0, FULL, true));
+        assertFalse(engine.press(1, FULL, true));
+
+        engine.tick();
+
+        assertEquals(0f, engine.getJointValue(1));
+    }
+
+    @Test
+    void displayTargetIsNotAJoint() {
+        assertEquals(2, engine.jointCount());
+        assertEquals(ArmTickEngine.NO_SLOT, engine.jointIndex("ledMatrixController"));
+
+        engine.press(2, (short) 1, false);
+        engine.tick();
+        assertTrue(context.getMessages("ledMatrixController").isEmpty());
+
+        engine.tickDisplay();
+        assertEquals(1, context.getMessages("ledMatrixController").size());
+    }
+
+    @Test
+    void notConfiguredJointIsRejected() {
+        final ArmListener gripper = new ArmGripperHeadServoListenerImpl("servo9", context.getContext(),
+                LF710Button.FRONT_UP_LEFT, true, STEP);
+
+        assertThrows(IllegalArgumentException.class, () -> new ArmTickEngine(Collections.singletonList(gripper),
+                Collections.singletonList("servo1")));
+    }
+
+    @Test
+    void tickPassesWhileEnvelopeIsBuilt() {
+        engine.setCollisionGuard(new CollisionGuard(GUARDED_JOINTS));
+
+        engine.press(0, FULL, false);
+        assertTrue(engine.tick());
+        assertEquals(STEP, engine.getJointValue(0), 1e-4f);
+        assertEquals(0L, engine.getLatchedSlots());
+    }
+
+    @Test
+    void rejectedInputIsLatchedUntilReleased() {
+        final CollisionEnvelope envelope = new CollisionEnvelope(ArmGeometry.sainSmart(), 32, 8,
+                CollisionEnvelope.DEFAULT_BASE_RADIUS, CollisionEnvelope.DEFAULT_ARM_RADIUS,
+                CollisionEnvelope.DEFAULT_GROUND_CLEARANCE);
+        engine.setCollisionGuard(new CollisionGuard(envelope, GUARDED_JOINTS));
+
+        engine.press(0, FULL, false);
+        float safe = 0f;
+        while (engine.tick()) {
+            safe = engine.getJointValue(0);
+            assertTrue(safe < 1f);
+        }
+        assertEquals(1L, engine.getLatchedSlots());
+        assertTrue(envelope.isBlocked(safe + STEP, safe + STEP, safe + STEP, safe + STEP));
+        assertFalse(engine.tick());
+        assertEquals(safe, engine.getJointValue(0));
+        assertTrue(engine.isActive(0));
+
+        assertTrue(engine.release(0));
+        assertEquals(0L, engine.getLatchedSlots());
+        engine.press(0, (short) -FULL, false);
+        assertTrue(engine.tick());
+        assertEquals(safe - STEP, engine.getJointValue(0), 1e-4f);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.wengnermiro.robotic.hand.control;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Miroslav Wengner (@miragemiko)
+ */
+class ControlLoopRunnerTest {
+
+    @Test
+    void stopWaitsForTheRunningTick() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicInteger finished = new AtomicInteger();
+        final ControlLoopRunner runner = new ControlLoopRunner("stopTest", () -> {
+            started.countDown();
+            sleep(50);
+            finished.incrementAndGet();
+        }, 5, TimeUnit.MILLISECONDS, 0, MissedDeadlinePolicy.SKIP);
+        runner.start();
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        runner.stop();
+        final int ticks = finished.get();
+
+        assertFalse(runner.isRunning());
+        assertEquals(1, ticks);
+        sleep(30);
+        assertEquals(ticks, finished.get());
+    }
+
+    @Test
+    void longTickIsOverrunAndSkipsMissedTicks() throws Exception {
+        final CountDownLatch ticks = new CountDownLatch(3);
+        final AtomicInteger overrunListenerCalls = new AtomicInteger();
+        final ControlLoopRunner runner = new ControlLoopRunner("overrunTest", () -> {
+            sleep(25);
+            ticks.countDown();
+        }, 10, TimeUnit.MILLISECONDS, 0, MissedDeadlinePolicy.SKIP);
+        runner.setOverrunListener((lateness, duration, skipped) -> {
+            if (lateness > 0) {
+                overrunListenerCalls.incrementAndGet();
+            }
+        });
+        runner.start();
+        assertTrue(ticks.await(2, TimeUnit.SECONDS));
+        runner.stop();
+
+        assertTrue(runner.getOverruns() >= 2);
+        assertTrue(runner.getSkippedTicks() >= runner.getOverruns());
+        assertEquals(runner.getOverruns(), overrunListenerCalls.get());
+    }
+
+    @Test
+    void failingTickDoesNotStopTheLoop() throws Exception {
+        final CountDownLatch ticks = new CountDownLatch(3);
+        final ControlLoopRunner runner = new ControlLoopRunner("failureTest", () -> {
+            ticks.countDown();
+            throw new IllegalStateException("tick failure");
+        }, 2, TimeUnit.MILLISECONDS, 0, MissedDeadlinePolicy.SKIP);
+        runner.start();
+
+        assertTrue(ticks.await(2, TimeUnit.SECONDS));
+        runner.stop();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
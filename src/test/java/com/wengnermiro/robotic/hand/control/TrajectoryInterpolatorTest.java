@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.control;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Miroslav Wengner (@miragemiko)
+ */
+class TrajectoryInterpolatorTest {
+
+    private static final long START = TimeUnit.SECONDS.toNanos(10);
+
+    private final float[] jointValues = new float[2];
+
+    @Test
+    void maxVelocityLimitsTheStepOfTheFirstPoint() {
+        final TrajectoryInterpolator interpolator = new TrajectoryInterpolator(jointValues.length);
+        interpolator.setMaxVelocity(0, 1f);
+        interpolator.submit(new Trajectory(new int[]{0}, new long[]{0}, new float[]{1f}), false);
+
+        assertFalse(interpolator.interpolate(START, jointValues, JointOutput.NONE));
+        assertEquals(0f, jointValues[0]);
+        assertTrue(interpolator.isActive());
+
+        assertTrue(interpolator.interpolate(START + millis(100), jointValues, JointOutput.NONE));
+        assertEquals(0.1f, jointValues[0], 1e-4f);
+        assertTrue(interpolator.isActive());
+
+        interpolator.interpolate(START + millis(1100), jointValues, JointOutput.NONE);
+        assertEquals(1f, jointValues[0]);
+        assertFalse(interpolator.isActive());
+    }
+
+    @Test
+    void jointWithoutLimitFollowsTheInterpolation() {
+        final TrajectoryInterpolator interpolator = new TrajectoryInterpolator(jointValues.length);
+        interpolator.submit(new Trajectory(new int[]{1}, new long[]{0, millis(1000)}, new float[]{0f, 1f}), false);
+
+        interpolator.interpolate(START, jointValues, JointOutput.NONE);
+        interpolator.interpolate(START + millis(500), jointValues, JointOutput.NONE);
+
+        assertEquals(0.5f, jointValues[1], 1e-4f);
+    }
+
+    @Test
+    void appendedSegmentStartsAtTheEndOfThePreviousOne() {
+        final TrajectoryInterpolator interpolator = new TrajectoryInterpolator(jointValues.length);
+        interpolator.setMaxVelocity(0, 1f);
+        interpolator.submit(new Trajectory(new int[]{0}, new long[]{0}, new float[]{0.5f}), false);
+        interpolator.submit(new Trajectory(new int[]{0}, new long[]{millis(1000)}, new float[]{1f}), true);
+
+        interpolator.interpolate(START, jointValues, JointOutput.NONE);
+        interpolator.interpolate(START + millis(200), jointValues, JointOutput.NONE);
+
+        assertEquals(0.2f, jointValues[0], 1e-4f);
+    }
+
+    @Test
+    void cancelStopsTheLimitedJoint() {
+        final TrajectoryInterpolator interpolator = new TrajectoryInterpolator(jointValues.length);
+        interpolator.setMaxVelocity(0, 1f);
+        interpolator.submit(new Trajectory(new int[]{0}, new long[]{0}, new float[]{1f}), false);
+        interpolator.interpolate(START, jointValues, JointOutput.NONE);
+        interpolator.interpolate(START + millis(100), jointValues, JointOutput.NONE);
+
+        interpolator.cancel();
+
+        assertFalse(interpolator.interpolate(START + millis(200), jointValues, JointOutput.NONE));
+        assertEquals(0.1f, jointValues[0], 1e-4f);
+        assertFalse(interpolator.isActive());
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.wengnermiro.robotic.hand.display;
+
+import com.robo4j.hw.rpi.i2c.adafruitbackpack.BiColor;
+import com.robo4j.hw.rpi.i2c.adafruitbackpack.PackElement;
+import com.robo4j.units.rpi.led.LEDBackpackMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * @author Miroslav Wengner (@miragemiko)
+ */
+class BargraphRendererTest {
+
+    @Test
+    void onlyChangedSegmentsAreRendered() {
+        final BargraphRenderer renderer = new BargraphRenderer();
+
+        assertSegments(renderer.render(3), 0, 3, BiColor.GREEN);
+        assertNull(renderer.render(3));
+        assertSegments(renderer.render(5), 3, 5, BiColor.GREEN);
+        assertSegments(renderer.render(1), 1, 5, BiColor.OFF);
+        assertSegments(renderer.render(BargraphRenderer.SEGMENTS + 10), 1, BargraphRenderer.SEGMENTS, BiColor.GREEN);
+        assertSegments(renderer.render(-1), 0, BargraphRenderer.SEGMENTS, BiColor.OFF);
+    }
+
+    @Test
+    void resetRendersFromTheClearedBargraph() {
+        final BargraphRenderer renderer = new BargraphRenderer();
+        renderer.render(10);
+        renderer.reset();
+
+        assertSegments(renderer.render(2), 0, 2, BiColor.GREEN);
+    }
+
+    @Test
+    void deltaMessagesAreReused() {
+        final BargraphRenderer renderer = new BargraphRenderer();
+        final LEDBackpackMessage first = renderer.render(4);
+        renderer.render(0);
+
+        assertSame(first, renderer.render(4));
+        assertSame(first, new BargraphRenderer().render(4));
+    }
+
+    private static void assertSegments(LEDBackpackMessage message, int from, int to, BiColor color) {
+        final List<PackElement> elements = message.getElements();
+        assertEquals(to - from, elements.size());
+        for (int i = 0; i < elements.size(); i++) {
+            assertEquals(from + i, elements.get(i).getX());
+            assertEquals(color, elements.get(i).getColor());
+        }
+    }
+}
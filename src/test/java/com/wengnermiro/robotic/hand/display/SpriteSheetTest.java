@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.wengnermiro.robotic.hand.display;
+
+import com.robo4j.hw.rpi.i2c.adafruitbackpack.BiColor;
+import com.robo4j.hw.rpi.i2c.adafruitbackpack.PackElement;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Miroslav Wengner (@miragemiko)
+ */
+class SpriteSheetTest {
+
+    private static final Path ARM_SOURCE = Paths.get("src/main/sprites/arm.txt");
+    private static final String ARM_SHEET = "animation/arm.sprite";
+
+    private static final String SHEET = String.join("\n",
+            "# test sheet",
+            "size 4",
+            "",
+            "frame corner",
+            "R...",
+            "....",
+            "....",
+            "...Y",
+            "frame bar",
+            "....",
+            ".GG.",
+            "....",
+            "....",
+            "sequence blink 2 loop corner bar corner",
+            "sequence once 1 once bar");
+
+    @Test
+    void compiledSheetIsDecoded() throws IOException {
+        final SpriteSheet sheet = load(SpriteSheetCompiler.compile(new StringReader(SHEET)));
+
+        assertEquals(4, sheet.getSize());
+        assertEquals(2, sheet.getFrameCount());
+        final PackElement[] corner = sheet.getFrame(0);
+        assertEquals(2, corner.length);
+        assertPixel(corner[0], 0, 0, BiColor.RED);
+        assertPixel(corner[1], 3, 3, BiColor.YELLOW);
+        final PackElement[] bar = sheet.getFrame(1);
+        assertEquals(2, bar.length);
+        assertPixel(bar[0], 1, 1, BiColor.GREEN);
+        assertPixel(bar[1], 2, 1, BiColor.GREEN);
+
+        final SpriteSequence blink = sheet.getSequence("blink");
+        assertEquals(3, blink.length());
+        assertEquals(0, blink.getFrame(0));
+        assertEquals(1, blink.getFrame(1));
+        assertEquals(0, blink.getFrame(2));
+        assertEquals(2, blink.getFrameRate());
+        assertTrue(blink.isLoop());
+        assertFalse(sheet.getSequence("once").isLoop());
+        assertNull(sheet.getSequence("scan"));
+    }
+
+    @Test
+    void committedSheetIsCompiledFromTheSource() throws IOException {
+        final byte[] compiled;
+        try (Reader reader = Files.newBufferedReader(ARM_SOURCE, StandardCharsets.US_ASCII)) {
+            compiled = SpriteSheetCompiler.compile(reader);
+        }
+        final byte[] committed;
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream(ARM_SHEET)) {
+            assertNotNull(is, ARM_SHEET);
+            committed = readAll(is);
+        }
+        assertArrayEquals(compiled, committed, ARM_SHEET + " is out of date, run: ./gradlew spriteSheet");
+
+        final SpriteSheet sheet = load(committed);
+        assertEquals(8, sheet.getSize());
+        assertEquals(24, sheet.getFrameCount());
+        for (String name : new String[]{"rest", "blink", "spinner", "grip", "scan", "smile", "sad"}) {
+            assertNotNull(sheet.getSequence(name), name);
+        }
+    }
+
+    @Test
+    void notValidSourceIsRejected() {
+        assertThrows(IOException.class, () -> SpriteSheetCompiler.compile(new StringReader("size 6")));
+        assertThrows(IOException.class, () -> SpriteSheetCompiler.compile(new StringReader("size 4\nframe a\n....\n.X..\n....\n....")));
+        assertThrows(IOException.class, () -> SpriteSheetCompiler.compile(new StringReader("size 4\nframe a\n....\n....")));
+        assertThrows(IOException.class, () -> SpriteSheetCompiler.compile(new StringReader(SHEET + "\nsequence missing 1 once nothing")));
+        assertThrows(IOException.class, () -> SpriteSheetCompiler.compile(new StringReader(SHEET + "\nsequence still 0 once bar")));
+    }
+
+    @Test
+    void notValidBinaryIsRejected() throws IOException {
+        final byte[] sheet = SpriteSheetCompiler.compile(new StringReader(SHEET));
+        sheet[0] = 'X';
+        assertThrows(IOException.class, () -> load(sheet));
+    }
+
+    private static SpriteSheet load(byte[] sheet) throws IOException {
+        return SpriteSheet.load(new ByteArrayInputStream(sheet));
+    }
+
+    private static byte[] readAll(InputStream is) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[512];
+        int read;
+        while ((read = is.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static void assertPixel(PackElement element, int x, int y, BiColor color) {
+        assertEquals(x, element.getX());
+        assertEquals(y, element.getY());
+        assertEquals(color, element.getColor());
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.kinematics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Miroslav Wengner (@miragemiko)
+ */
+class ArmKinematicsTest {
+
+    private static final double DELTA = 1e-3;
+    private static final float HALF_PI = (float) (Math.PI / 2);
+    private static final float ARM_AFTER_SHOULDER = ArmGeometry.DEFAULT_UPPER_ARM + ArmGeometry.DEFAULT_FOREARM
+            + ArmGeometry.DEFAULT_WRIST + ArmGeometry.DEFAULT_TOOL;
+
+    private final double[] position = new double[3];
+
+    @Test
+    void neutralArmPointsUp() {
+        final ArmGeometry geometry = ArmGeometry.sainSmart();
+        new ArmKinematics(geometry).forward(new float[ArmGeometry.JOINTS], position);
+
+        assertPosition(0, 0, geometry.getReach());
+    }
+
+    @Test
+    void shoulderAtTheEndOfRangeIsHorizontal() {
+        new ArmKinematics(ArmGeometry.sainSmart()).forward(values(ArmGeometry.SHOULDER, 1f), position);
+
+        assertPosition(ARM_AFTER_SHOULDER, 0, ArmGeometry.DEFAULT_BASE_HEIGHT);
+    }
+
+    @Test
+    void calibrationChangesTheJointAngle() {
+        final float[] zeroAngles = new float[ArmGeometry.JOINTS];
+        final float[] ranges = new float[ArmGeometry.JOINTS];
+        Arrays.fill(ranges, HALF_PI);
+        zeroAngles[ArmGeometry.SHOULDER] = HALF_PI;
+        ranges[ArmGeometry.ELBOW] = -HALF_PI;
+        final ArmGeometry geometry = calibrated(zeroAngles, ranges);
+        final ArmKinematics kinematics = new ArmKinematics(geometry);
+
+        kinematics.forward(new float[ArmGeometry.JOINTS], position);
+        assertPosition(ARM_AFTER_SHOULDER, 0, ArmGeometry.DEFAULT_BASE_HEIGHT);
+
+        final float[] values = new float[ArmGeometry.JOINTS];
+        values[ArmGeometry.SHOULDER] = -1f;
+        values[ArmGeometry.ELBOW] = 1f;
+        kinematics.forward(values, position);
+        assertPosition(-(ArmGeometry.DEFAULT_FOREARM + ArmGeometry.DEFAULT_WRIST + ArmGeometry.DEFAULT_TOOL), 0,
+                ArmGeometry.DEFAULT_BASE_HEIGHT + ArmGeometry.DEFAULT_UPPER_ARM);
+        assertNotEquals(ArmGeometry.sainSmart().fingerprint(), geometry.fingerprint());
+    }
+
+    @Test
+    void solvedValuesReachTheTarget() {
+        final ArmKinematics kinematics = new ArmKinematics(ArmGeometry.sainSmart());
+        kinematics.forward(new float[]{0.2f, 0.3f, -0.2f, 0.1f, 0f, 0f}, position);
+        final double x = position[0];
+        final double y = position[1];
+        final double z = position[2];
+        final float[] values = new float[ArmGeometry.JOINTS];
+
+        assertTrue(kinematics.solve(x, y, z, values, 200));
+
+        kinematics.forward(values, position);
+        final double distance = Math.sqrt((position[0] - x) * (position[0] - x) + (position[1] - y) * (position[1] - y)
+                + (position[2] - z) * (position[2] - z));
+        assertTrue(distance <= ArmKinematics.DEFAULT_TOLERANCE, "distance: " + distance);
+        for (float value : values) {
+            assertTrue(value >= -1f && value <= 1f);
+        }
+    }
+
+    @Test
+    void unreachableTargetIsNotSolved() {
+        final ArmKinematics kinematics = new ArmKinematics(ArmGeometry.sainSmart());
+        final float[] values = new float[ArmGeometry.JOINTS];
+
+        assertFalse(kinematics.solve(0, 0, 2 * ArmGeometry.sainSmart().getReach(), values, 50));
+        assertEquals(50, kinematics.getIterations());
+    }
+
+    @Test
+    void zeroRangeIsRejected() {
+        final float[] ranges = new float[ArmGeometry.JOINTS];
+        assertThrows(IllegalArgumentException.class, () -> calibrated(new float[ArmGeometry.JOINTS], ranges));
+    }
+
+    private static ArmGeometry calibrated(float[] zeroAngles, float[] ranges) {
+        return ArmGeometry.sainSmart(ArmGeometry.DEFAULT_BASE_HEIGHT, ArmGeometry.DEFAULT_UPPER_ARM,
+                ArmGeometry.DEFAULT_FOREARM, ArmGeometry.DEFAULT_WRIST, ArmGeometry.DEFAULT_TOOL, zeroAngles, ranges);
+    }
+
+    private static float[] values(int joint, float value) {
+        final float[] values = new float[ArmGeometry.JOINTS];
+        values[joint] = value;
+        return values;
+    }
+
+    private void assertPosition(double x, double y, double z) {
+        assertEquals(x, position[0], DELTA);
+        assertEquals(y, position[1], DELTA);
+        assertEquals(z, position[2], DELTA);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.kinematics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Miroslav Wengner (@miragemiko)
+ */
+class CollisionEnvelopeTest {
+
+    private static final int CELLS = 32;
+    private static final int YAW_CELLS = 8;
+
+    private final CollisionEnvelope envelope = new CollisionEnvelope(ArmGeometry.sainSmart(), CELLS, YAW_CELLS,
+            CollisionEnvelope.DEFAULT_BASE_RADIUS, CollisionEnvelope.DEFAULT_ARM_RADIUS,
+            CollisionEnvelope.DEFAULT_GROUND_CLEARANCE);
+
+    @Test
+    void uprightArmIsFree() {
+        assertFalse(envelope.isBlocked(0f, 0f, 0f, 0f));
+        assertFalse(envelope.isBlocked(0.3f, 0.2f, 0.1f, 0f));
+    }
+
+    @Test
+    void armBelowTheGroundIsBlocked() {
+        assertTrue(envelope.isBlocked(1f, 1f, 0f, 0f));
+        assertTrue(envelope.isBlocked(-1f, -1f, 0f, 0f));
+    }
+
+    @Test
+    void gripperFoldedOntoTheUpperArmIsBlocked() {
+        assertTrue(envelope.isBlocked(0f, 1f, 1f, 0f));
+    }
+
+    @Test
+    void valuesOutsideTheRangeUseTheEdgeCells() {
+        assertTrue(envelope.isBlocked(2f, 2f, 0f, 0f));
+        assertFalse(envelope.isBlocked(0f, 0f, 0f, -2f));
+    }
+
+    @Test
+    void envelopeIsConservative() {
+        final CollisionEnvelope coarse = new CollisionEnvelope(ArmGeometry.sainSmart(), CELLS / 2, YAW_CELLS / 2,
+                CollisionEnvelope.DEFAULT_BASE_RADIUS, CollisionEnvelope.DEFAULT_ARM_RADIUS,
+                CollisionEnvelope.DEFAULT_GROUND_CLEARANCE);
+
+        assertTrue(coarse.getMargin() > envelope.getMargin());
+        assertTrue(envelope.getBlockedCells() > 0 && envelope.getBlockedCells() < envelope.getCellCount());
+        assertTrue((double) coarse.getBlockedCells() / coarse.getCellCount()
+                >= (double) envelope.getBlockedCells() / envelope.getCellCount());
+    }
+
+    @Test
+    void notValidCellsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new CollisionEnvelope(ArmGeometry.sainSmart(), 0, YAW_CELLS,
+                CollisionEnvelope.DEFAULT_BASE_RADIUS, CollisionEnvelope.DEFAULT_ARM_RADIUS,
+                CollisionEnvelope.DEFAULT_GROUND_CLEARANCE));
+        assertThrows(IllegalArgumentException.class, () -> new CollisionEnvelope(ArmGeometry.sainSmart(), 1024, 4096,
+                CollisionEnvelope.DEFAULT_BASE_RADIUS, CollisionEnvelope.DEFAULT_ARM_RADIUS,
+                CollisionEnvelope.DEFAULT_GROUND_CLEARANCE));
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.wengnermiro.robotic.hand.kinematics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Miroslav Wengner (@miragemiko)
+ */
+class WorkspaceTableTest {
+
+    private static final float CELL_SIZE = 10f;
+    private static final float HALF_PI = (float) (Math.PI / 2);
+
+    private final double[] position = new double[3];
+    private Path path;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        path = Files.createTempFile("armWorkspace", ".bin");
+        Files.delete(path);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void seedIsCloseToTheTarget() throws IOException {
+        assertSeedReachesTarget(ArmGeometry.sainSmart());
+    }
+
+    @Test
+    void seedIsCloseToTheTargetWithRotatedBase() throws IOException {
+        final float[] zeroAngles = new float[ArmGeometry.JOINTS];
+        final float[] ranges = new float[ArmGeometry.JOINTS];
+        Arrays.fill(ranges, HALF_PI);
+        zeroAngles[ArmGeometry.BASE] = (float) Math.toRadians(60);
+        assertSeedReachesTarget(ArmGeometry.sainSmart(ArmGeometry.DEFAULT_BASE_HEIGHT, ArmGeometry.DEFAULT_UPPER_ARM,
+                ArmGeometry.DEFAULT_FOREARM, ArmGeometry.DEFAULT_WRIST, ArmGeometry.DEFAULT_TOOL, zeroAngles, ranges));
+    }
+
+    @Test
+    void tableIsReusedForTheSameGeometry() throws IOException {
+        final WorkspaceTable table = WorkspaceTable.open(path, ArmGeometry.sainSmart(), CELL_SIZE);
+        final long modified = Files.getLastModifiedTime(path).toMillis();
+
+        final WorkspaceTable reused = WorkspaceTable.open(path, ArmGeometry.sainSmart(), CELL_SIZE);
+
+        assertEquals(modified, Files.getLastModifiedTime(path).toMillis());
+        assertEquals(table.getFilledCells(), reused.getFilledCells());
+    }
+
+    private void assertSeedReachesTarget(ArmGeometry geometry) throws IOException {
+        final WorkspaceTable table = WorkspaceTable.open(path, geometry, CELL_SIZE);
+        final ArmKinematics kinematics = new ArmKinematics(geometry);
+        final float[] target = {0.3f, 0.3f, -0.2f, 0.1f, 0f, 0f};
+        kinematics.forward(target, position);
+        final double x = position[0];
+        final double y = position[1];
+        final double z = position[2];
+        final float[] values = new float[ArmGeometry.JOINTS];
+
+        assertTrue(table.seed(x, y, z, values));
+
+        assertEquals(target[ArmGeometry.BASE], values[ArmGeometry.BASE], 1e-3f);
+        kinematics.forward(values, position);
+        final double distance = Math.sqrt((position[0] - x) * (position[0] - x) + (position[1] - y) * (position[1] - y)
+                + (position[2] - z) * (position[2] - z));
+        assertTrue(distance <= 2 * CELL_SIZE, "distance: " + distance);
+    }
+}
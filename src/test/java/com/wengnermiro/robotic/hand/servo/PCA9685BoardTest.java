@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.wengnermiro.robotic.hand.servo;
+
+import com.pi4j.io.i2c.I2CDevice;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Miroslav Wengner (@miragemiko)
+ */
+class PCA9685BoardTest {
+
+    private static final int REGISTER_LED0_ON_L = 0x06;
+
+    private final List<int[]> registers = new ArrayList<>();
+    private final List<byte[]> blocks = new ArrayList<>();
+    private final PCA9685Board board = new PCA9685Board(fakeDevice());
+
+    @Test
+    void emptyMaskWritesNothing() throws Exception {
+        board.write(counts(), 0);
+
+        assertTrue(blocks.isEmpty());
+    }
+
+    @Test
+    void adjacentDirtyChannelsAreOneBlock() throws Exception {
+        final int[] counts = counts();
+        counts[1] = 300;
+        counts[2] = 0x1FF;
+        counts[3] = 4095;
+
+        board.write(counts, 0b1110);
+
+        assertEquals(1, blocks.size());
+        assertEquals(REGISTER_LED0_ON_L + 4, registers.get(0)[0]);
+        assertArrayEquals(new byte[]{0, 0, (byte) 0x2C, 0x01, 0, 0, (byte) 0xFF, 0x01, 0, 0, (byte) 0xFF, 0x0F},
+                blocks.get(0));
+    }
+
+    @Test
+    void cleanChannelsBetweenRunsAreNotWritten() throws Exception {
+        final int[] counts = counts();
+        counts[0] = 100;
+        counts[6] = 200;
+        counts[7] = 210;
+        counts[15] = 400;
+
+        board.write(counts, (1 << 0) | (1 << 6) | (1 << 7) | (1 << 15));
+
+        assertEquals(3, blocks.size());
+        assertEquals(REGISTER_LED0_ON_L, registers.get(0)[0]);
+        assertEquals(4, blocks.get(0).length);
+        assertEquals(REGISTER_LED0_ON_L + 6 * 4, registers.get(1)[0]);
+        assertEquals(8, blocks.get(1).length);
+        assertEquals(REGISTER_LED0_ON_L + 15 * 4, registers.get(2)[0]);
+        assertArrayEquals(new byte[]{0, 0, (byte) 0x90, 0x01}, blocks.get(2));
+    }
+
+    private static int[] counts() {
+        final int[] counts = new int[PwmBoard.CHANNELS];
+        Arrays.fill(counts, 307);
+        return counts;
+    }
+
+    /**
+     * records block writes, other calls are ignored
+     */
+    private I2CDevice fakeDevice() {
+        return (I2CDevice) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{I2CDevice.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("write") && args != null && args.length == 4) {
+                        final byte[] buffer = (byte[]) args[1];
+                        final int offset = (Integer) args[2];
+                        final int size = (Integer) args[3];
+                        registers.add(new int[]{(Integer) args[0]});
+                        blocks.add(Arrays.copyOfRange(buffer, offset, offset + size));
+                    }
+                    final Class<?> type = method.getReturnType();
+                    return type == int.class ? 0 : type == boolean.class ? false : null;
+                });
+    }
+}
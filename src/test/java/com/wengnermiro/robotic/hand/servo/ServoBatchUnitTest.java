@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.wengnermiro.robotic.hand.servo;
+
+import com.robo4j.configuration.Configuration;
+import com.robo4j.configuration.ConfigurationBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Expected counts follow the {@link com.robo4j.units.rpi.pwm.PCA9685ServoUnit} at 50 Hz:
+ * 1.5 ms neutral (307), 0.5 ms travel (102), trim in counts, dualRate scaling the travel.
+ *
+ * @author Miroslav Wengner (@miragemiko)
+ */
+class ServoBatchUnitTest {
+
+    private static final String[] JOINTS = {"servoA", "servoB", "servoC", "ledMatrix"};
+    private static final float DEADBAND = 0.01f;
+
+    private final List<int[]> writtenCounts = new ArrayList<>();
+    private final List<Integer> writtenMasks = new ArrayList<>();
+    private ServoBatchUnit unit;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        unit = new ServoBatchUnit(null, "servoBatch") {
+            @Override
+            protected PwmBoard createBoard(int bus, int address, int frequency) {
+                return (offCounts, dirtyMask) -> {
+                    writtenCounts.add(offCounts.clone());
+                    writtenMasks.add(dirtyMask);
+                };
+            }
+        };
+        unit.initialize(new ConfigurationBuilder()
+                .addFloat(ServoBatchUnit.PROP_DEADBAND, DEADBAND)
+                .addString(ServoBatchUnit.PROP_SERVOS, "servoA, servoB, servoC")
+                .addConfiguration("servoA", servo(1, 0f, 1f, false))
+                .addConfiguration("servoB", servo(2, -20f, 1.6f, false))
+                .addConfiguration("servoC", servo(5, 0f, 1f, true))
+                .build());
+    }
+
+    @Test
+    void changedJointsAreOneBoardWrite() {
+        send(0.5f, 0.5f, 0.5f, 1f);
+
+        assertEquals(1, writtenMasks.size());
+        assertEquals((1 << 1) | (1 << 2) | (1 << 5), (int) writtenMasks.get(0));
+    }
+
+    @Test
+    void changesInsideDeadbandAreSkipped() {
+        send(0.5f, 0.5f, 0.5f, 0f);
+        send(0.505f, 0.5f, 0.5f, 0f);
+
+        assertEquals(1, writtenMasks.size());
+        assertEquals(Long.valueOf(3), unit.onGetAttribute(ServoBatchUnit.DESCRIPTOR_SKIPPED));
+
+        send(0.52f, 0.5f, 0.5f, 0f);
+
+        assertEquals(2, writtenMasks.size());
+        assertEquals(1 << 1, (int) writtenMasks.get(1));
+    }
+
+    @Test
+    void trimDualRateAndInvertedMatchServoUnit() {
+        send(0f, 0f, 0f, 0f);
+        assertCounts(307, 287, 307);
+
+        send(1f, 0.5f, 0.5f, 0f);
+        // 307 + 102, 307 - 20 + 0.5 * 1.6 * 102, 307 - 0.5 * 102
+        assertCounts(409, 369, 256);
+
+        send(-1f, -1f, -1f, 0f);
+        assertCounts(205, 124, 409);
+    }
+
+    @Test
+    void messagesAreReleasedForTheBuffer() {
+        final ServoBatchBuffer buffer = new ServoBatchBuffer(JOINTS);
+        final ServoBatchMessage first = buffer.acquire();
+        final ServoBatchMessage second = buffer.acquire();
+
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(buffer.acquire());
+        assertTrue(buffer.isPending());
+
+        unit.onMessage(first);
+
+        assertTrue(first == buffer.acquire());
+    }
+
+    private void assertCounts(int servoA, int servoB, int servoC) {
+        final int[] counts = writtenCounts.get(writtenCounts.size() - 1);
+        assertEquals(servoA, counts[1]);
+        assertEquals(servoB, counts[2]);
+        assertEquals(servoC, counts[5]);
+    }
+
+    private void send(float... values) {
+        unit.onMessage(new ServoBatchMessage(JOINTS, values));
+    }
+
+    private static Configuration servo(int channel, float trim, float dualRate, boolean inverted) {
+        return new ConfigurationBuilder()
+                .addInteger(ServoBatchUnit.PROP_CHANNEL, channel)
+                .addFloat(ServoBatchUnit.PROP_TRIM, trim)
+                .addFloat(ServoBatchUnit.PROP_DUAL_RATE, dualRate)
+                .addBoolean(ServoBatchUnit.PROP_INVERTED, inverted)
+                .build();
+    }
+}
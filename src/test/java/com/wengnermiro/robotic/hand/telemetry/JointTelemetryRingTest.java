@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.telemetry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Miroslav Wengner (@miragemiko)
+ */
+class JointTelemetryRingTest {
+
+    private static final String[] JOINTS = {"servo1", "servo2", "servo3"};
+
+    @Test
+    void recordedValuesAreRead() {
+        final JointTelemetryRing ring = new JointTelemetryRing(JOINTS, 4);
+        ring.record(100L, new float[]{0.1f, -0.2f, 0.3f});
+        final float[] values = new float[JOINTS.length];
+
+        assertEquals(1, ring.getRecorded());
+        assertEquals(100L, ring.read(0, values));
+        assertArrayEquals(new float[]{0.1f, -0.2f, 0.3f}, values);
+        assertEquals(Long.MIN_VALUE, ring.read(1, values));
+    }
+
+    @Test
+    void overwrittenRecordIsNotAvailable() {
+        final JointTelemetryRing ring = new JointTelemetryRing(JOINTS, 2);
+        final float[] values = new float[JOINTS.length];
+        for (int i = 0; i < 3; i++) {
+            ring.record(i, new float[]{i, i, i});
+        }
+
+        assertEquals(Long.MIN_VALUE, ring.read(0, values));
+        assertEquals(1L, ring.read(1, values));
+        assertEquals(2L, ring.read(2, values));
+        assertArrayEquals(new float[]{2f, 2f, 2f}, values);
+    }
+
+    @Test
+    void notPositiveCapacityIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new JointTelemetryRing(JOINTS, 0));
+    }
+
+    @Test
+    void queryAveragesTheWindow() {
+        final JointTelemetryRing ring = new JointTelemetryRing(new String[]{"servo1"}, 16);
+        final long now = System.nanoTime();
+        ring.record(now - TimeUnit.SECONDS.toNanos(10), new float[]{1f});
+        ring.record(now - TimeUnit.MILLISECONDS.toNanos(20), new float[]{0.2f});
+        ring.record(now - TimeUnit.MILLISECONDS.toNanos(10), new float[]{0.4f});
+
+        assertEquals("{\"joints\":[\"servo1\"],\"points\":[{\"time\":-5000,\"values\":[0.3]}]}", ring.query(5000, 1));
+    }
+
+    @Test
+    void readerDropsRecordsChangedWhileRead() throws InterruptedException {
+        final JointTelemetryRing ring = new JointTelemetryRing(JOINTS, 8);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final Thread writer = new Thread(() -> {
+            final float[] values = new float[JOINTS.length];
+            for (long sequence = 0; running.get(); sequence++) {
+                Arrays.fill(values, sequence);
+                ring.record(sequence, values);
+            }
+        });
+        writer.start();
+        final float[] values = new float[JOINTS.length];
+        final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+        try {
+            while (System.nanoTime() < end) {
+                final long newest = ring.getRecorded() - 1;
+                if (newest < 0) {
+                    continue;
+                }
+                final long nanoTime = ring.read(newest, values);
+                if (nanoTime != Long.MIN_VALUE) {
+                    assertEquals(newest, nanoTime);
+                    for (float value : values) {
+                        assertEquals((float) newest, value);
+                    }
+                }
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+        assertTrue(ring.getRecorded() > 0);
+    }
+}
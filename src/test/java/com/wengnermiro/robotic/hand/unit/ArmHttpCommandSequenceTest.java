@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.wengnermiro.robotic.hand.unit;
+
+import com.robo4j.hw.rpi.pad.LF710Button;
+import com.robo4j.hw.rpi.pad.LF710JoystickButton;
+import com.robo4j.hw.rpi.pad.LF710State;
+import com.wengnermiro.robotic.hand.codec.ArmHttpCommand;
+import com.wengnermiro.robotic.hand.codec.ArmHttpMessage;
+import com.wengnermiro.robotic.hand.control.TimedPadMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * @author Miroslav Wengner (@miragemiko)
+ */
+class ArmHttpCommandSequenceTest {
+
+    private static final long RECEIVED_NANOS = 1_000L;
+
+    private final ArmHttpDispatchTable table = new ArmHttpDispatchTable(ArmController.createAxes());
+
+    @Test
+    void buttonDirectionFollowsTheAmountSign() {
+        final ArmHttpCommandSequence sequence = compile(
+                new ArmHttpCommand(ArmController.AXIS_HEAD_ROTATION, (short) 100),
+                new ArmHttpCommand(ArmController.AXIS_HEAD_ROTATION, (short) 0),
+                new ArmHttpCommand(ArmController.AXIS_HEAD_ROTATION, (short) -100));
+
+        assertEquals(LF710Button.FRONT_UP_RIGHT, sequence.getStart(0).getInput());
+        assertEquals(LF710Button.FRONT_DOWN_RIGHT, sequence.getStart(1).getInput());
+        assertEquals(LF710Button.FRONT_DOWN_RIGHT, sequence.getStart(2).getInput());
+        assertEquals(LF710Button.FRONT_DOWN_RIGHT, sequence.getStop(1).getInput());
+        assertEquals(LF710State.RELEASED, sequence.getStop(1).getState());
+    }
+
+    @Test
+    void joystickKeepsTheAmount() {
+        final ArmHttpCommandSequence sequence = compile(new ArmHttpCommand(ArmController.AXIS_PLATFORM_X, (short) -300));
+
+        assertEquals(LF710JoystickButton.RIGHT_X, sequence.getStart(0).getInput());
+        assertEquals(LF710State.PRESSED, sequence.getStart(0).getState());
+        assertEquals(-300, sequence.getStart(0).getAmount());
+        assertEquals(LF710JoystickButton.RIGHT_X, sequence.getStop(0).getInput());
+    }
+
+    @Test
+    void messagesAreCreatedOnCompile() {
+        final ArmHttpCommandSequence sequence = compile(new ArmHttpCommand(ArmController.AXIS_ARM_Y, (short) 200),
+                new ArmHttpCommand(ArmController.AXIS_GRIPPER, (short) -50));
+
+        assertSame(sequence.getStart(1), sequence.getStart(1));
+        assertEquals(RECEIVED_NANOS, ((TimedPadMessage) sequence.getStart(0)).getInputNanos());
+        assertEquals(RECEIVED_NANOS + TimeUnit.MILLISECONDS.toNanos(400),
+                ((TimedPadMessage) sequence.getStart(1)).getInputNanos());
+    }
+
+    @Test
+    void notValidCommandRejectsTheSequence() {
+        assertNull(compile(new ArmHttpCommand(ArmController.AXIS_ARM_Y, (short) 200), new ArmHttpCommand("unknown", (short) 1)));
+        assertNull(compile(new ArmHttpCommand(ArmController.AXIS_ARM_Y, null)));
+        assertNull(ArmHttpCommandSequence.compile(new ArmHttpMessage(null), table, RECEIVED_NANOS));
+    }
+
+    private ArmHttpCommandSequence compile(ArmHttpCommand... commands) {
+        return ArmHttpCommandSequence.compile(new ArmHttpMessage(Arrays.asList(commands)), table, RECEIVED_NANOS);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2014, 2019, Marcus Hirt, Miroslav Wengner
+ *
+ * Robo4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Robo4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Robo4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wengnermiro.robotic.hand.unit;
+
+import com.robo4j.configuration.ConfigurationBuilder;
+import com.robo4j.hw.rpi.pad.LF710JoystickButton;
+import com.wengnermiro.robotic.hand.RoboContextStub;
+import com.wengnermiro.robotic.hand.codec.ArmTrajectoryJoint;
+import com.wengnermiro.robotic.hand.codec.ArmTrajectoryMessage;
+import com.wengnermiro.robotic.hand.codec.ArmTrajectoryPoint;
+import com.wengnermiro.robotic.hand.control.ArmControlRegistry;
+import com.wengnermiro.robotic.hand.control.ArmTickEngine;
+import com.wengnermiro.robotic.hand.control.Trajectory;
+import com.wengnermiro.robotic.hand.listener.ArmPlatformServoListenerImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Miroslav Wengner (@miragemiko)
+ */
+class ArmTrajectoryControllerTest {
+
+    private static final String ARM_CONTROLLER = "armController";
+
+    private final RoboContextStub context = new RoboContextStub();
+    private ArmTickEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new ArmTickEngine(Collections.singletonList(new ArmPlatformServoListenerImpl("servo1",
+                context.getContext(), LF710JoystickButton.RIGHT_X, ArmPlatformServoListenerImpl.MAX_AMOUNT, 0.01f)),
+                Collections.singletonList("servo1"));
+        engine.getInterpolator().setMaxVelocity(0, 1f);
+        ArmControlRegistry.register(context.getContext(), ARM_CONTROLLER, engine);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ArmControlRegistry.unregister(context.getContext(), ARM_CONTROLLER, engine);
+    }
+
+    @Test
+    void segmentWithinMaxVelocityIsCompiled() {
+        final Trajectory trajectory = ArmTrajectoryController.compile(engine, message(point(0, 0f), point(1000, 1f)));
+
+        assertEquals(2, trajectory.getPointCount());
+        assertEquals(TimeUnit.SECONDS.toNanos(1), trajectory.getDuration());
+    }
+
+    @Test
+    void segmentFasterThanMaxVelocityIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ArmTrajectoryController.compile(engine, message(point(0, 0f), point(100, 1f))));
+        assertThrows(IllegalArgumentException.class,
+                () -> ArmTrajectoryController.compile(engine, message(point(0, 0f), point(0, 0.5f))));
+    }
+
+    @Test
+    void missingJointsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ArmTrajectoryController.compile(engine,
+                message(new ArmTrajectoryPoint(0, null))));
+        assertThrows(IllegalArgumentException.class, () -> ArmTrajectoryController.compile(engine,
+                message(point(0, 0f), new ArmTrajectoryPoint(1000, null))));
+        assertThrows(IllegalArgumentException.class, () -> ArmTrajectoryController.compile(engine,
+                message(new ArmTrajectoryPoint(0, Collections.singletonList(null)))));
+        assertThrows(IllegalArgumentException.class, () -> ArmTrajectoryController.compile(engine,
+                message(point(0, 0f), null)));
+    }
+
+    @Test
+    void rejectionIsAvailableByAttributes() throws Exception {
+        final ArmTrajectoryController controller = new ArmTrajectoryController(context.getContext(),
+                ArmTrajectoryController.NAME);
+        controller.initialize(new ConfigurationBuilder()
+                .addString(ArmTrajectoryController.ATTR_TARGET, ARM_CONTROLLER).build());
+
+        controller.onMessage(message(point(0, 0f), point(1000, 1f)));
+        controller.onMessage(message(new ArmTrajectoryPoint(0, null)));
+
+        assertEquals(Long.valueOf(1), controller.getAttribute(ArmTrajectoryController.DESCRIPTOR_ACCEPTED).get());
+        assertEquals(Long.valueOf(1), controller.getAttribute(ArmTrajectoryController.DESCRIPTOR_REJECTED).get());
+        assertNotNull(controller.getAttribute(ArmTrajectoryController.DESCRIPTOR_LAST_ERROR).get());
+    }
+
+    private static ArmTrajectoryMessage message(ArmTrajectoryPoint... points) {
+        return new ArmTrajectoryMessage(false, Arrays.asList(points));
+    }
+
+    private static ArmTrajectoryPoint point(int time, float value) {
+        return new ArmTrajectoryPoint(time, Collections.singletonList(new ArmTrajectoryJoint("servo1", value)));
+    }
+}